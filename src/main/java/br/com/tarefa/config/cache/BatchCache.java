@@ -0,0 +1,180 @@
+package br.com.tarefa.config.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leitura e gravação de várias chaves de um cache em uma única ida ao Redis.
+ *
+ * A leitura é feita com um MGET e a gravação com SETs em pipeline, utilizando o prefixo, os
+ * serializadores e o tempo de expiração configurados para o cache. Quando o cache não é um
+ * {@link RedisCache}, quando o circuito do Redis não está fechado ou quando a operação em lote falha,
+ * as chaves são lidas e gravadas uma a uma pela abstração de cache do Spring.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class BatchCache {
+
+	private final CacheManager cacheManager;
+	private final StringRedisTemplate redisTemplate;
+	private final CacheMetrics cacheMetrics;
+	private final CacheCircuitBreaker circuitBreaker;
+
+	public BatchCache(CacheManager cacheManager, StringRedisTemplate redisTemplate, CacheMetrics cacheMetrics,
+			CacheCircuitBreaker circuitBreaker) {
+		this.cacheManager = cacheManager;
+		this.redisTemplate = redisTemplate;
+		this.cacheMetrics = cacheMetrics;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Busca as chaves informadas no cache.
+	 *
+	 * @param cacheName nome do cache.
+	 * @param keys chaves a serem buscadas.
+	 * @param type tipo dos valores armazenados no cache.
+	 * @return mapa apenas com as chaves encontradas no cache.
+	 */
+	public <K, V> Map<K, V> getAll(String cacheName, Collection<K> keys, Class<V> type) {
+		Map<K, V> encontrados = new LinkedHashMap<>();
+		Cache cache = this.cacheManager.getCache(cacheName);
+		if (cache == null || keys.isEmpty())
+			return encontrados;
+
+		RedisCache redisCache = this.redisCache(cacheName);
+		if (redisCache != null) {
+			try {
+				return this.getAllRedis(cache, redisCache, keys, type);
+			} catch (DataAccessException e) {
+				this.circuitBreaker.registrarFalha();
+			}
+		}
+
+		for (K key : keys) {
+			V value = cache.get(key, type);
+			if (value != null)
+				encontrados.put(key, value);
+		}
+		return encontrados;
+	}
+
+	private <K, V> Map<K, V> getAllRedis(Cache cache, RedisCache redisCache, Collection<K> keys, Class<V> type) {
+		Map<K, V> encontrados = new LinkedHashMap<>();
+		String cacheName = cache.getName();
+		RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+		List<K> chaves = new ArrayList<>(keys);
+		byte[][] redisKeys = new byte[chaves.size()][];
+		for (int i = 0; i < chaves.size(); i++)
+			redisKeys[i] = this.redisKey(cacheName, configuration, chaves.get(i));
+
+		List<byte[]> valores = this.redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+				connection.stringCommands().mGet(redisKeys));
+		this.circuitBreaker.registrarSucesso();
+
+		CacheMetrics.Estatisticas estatisticas = this.cacheMetrics != null ? this.cacheMetrics.estatisticas(cache) : null;
+		for (int i = 0; i < chaves.size(); i++) {
+			byte[] bytes = valores != null ? valores.get(i) : null;
+			Object value = bytes != null ? configuration.getValueSerializationPair().read(ByteBuffer.wrap(bytes)) : null;
+
+			if (type.isInstance(value)) {
+				encontrados.put(chaves.get(i), type.cast(value));
+				if (estatisticas != null)
+					estatisticas.hit(chaves.get(i));
+			} else if (estatisticas != null) {
+				estatisticas.miss(chaves.get(i));
+			}
+		}
+		return encontrados;
+	}
+
+	/**
+	 * Grava os valores informados no cache.
+	 *
+	 * @param cacheName nome do cache.
+	 * @param values mapa com as chaves e os valores a serem gravados.
+	 */
+	public void putAll(String cacheName, Map<?, ?> values) {
+		Cache cache = this.cacheManager.getCache(cacheName);
+		if (cache == null || values.isEmpty())
+			return;
+
+		RedisCache redisCache = this.redisCache(cacheName);
+		if (redisCache != null) {
+			try {
+				this.putAllRedis(cache, redisCache, values);
+				return;
+			} catch (DataAccessException e) {
+				this.circuitBreaker.registrarFalha();
+			}
+		}
+
+		values.forEach(cache::put);
+	}
+
+	private void putAllRedis(Cache cache, RedisCache redisCache, Map<?, ?> values) {
+		String cacheName = cache.getName();
+		RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+		Expiration expiration = configuration.getTtl().isZero() || configuration.getTtl().isNegative()
+				? Expiration.persistent()
+				: Expiration.from(configuration.getTtl());
+
+		this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			values.forEach((key, value) -> {
+				if (value == null || value instanceof NullValue)
+					return;
+				ByteBuffer buffer = configuration.getValueSerializationPair().write(value);
+				byte[] bytes = new byte[buffer.remaining()];
+				buffer.get(bytes);
+				connection.stringCommands().set(this.redisKey(cacheName, configuration, key), bytes, expiration, SetOption.upsert());
+			});
+			return null;
+		});
+		this.circuitBreaker.registrarSucesso();
+
+		if (this.cacheMetrics != null) {
+			CacheMetrics.Estatisticas estatisticas = this.cacheMetrics.estatisticas(cache);
+			values.forEach((key, value) -> estatisticas.put());
+		}
+	}
+
+	private RedisCache redisCache(String cacheName) {
+		if (this.redisTemplate == null || this.circuitBreaker == null || !this.circuitBreaker.isFechado())
+			return null;
+
+		CacheManager manager = this.cacheManager instanceof DecoratingCacheManager
+				? ((DecoratingCacheManager) this.cacheManager).getDelegate()
+				: this.cacheManager;
+		Cache cache = manager.getCache(cacheName);
+		return cache instanceof RedisCache ? (RedisCache) cache : null;
+	}
+
+	private byte[] redisKey(String cacheName, RedisCacheConfiguration configuration, Object key) {
+		String chave = configuration.getConversionService().convert(key, String.class);
+		if (configuration.usePrefix())
+			chave = configuration.getKeyPrefixFor(cacheName) + chave;
+
+		ByteBuffer buffer = configuration.getKeySerializationPair().write(chave);
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+}
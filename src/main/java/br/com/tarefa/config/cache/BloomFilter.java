@@ -0,0 +1,86 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para consultar localmente se um valor pode pertencer a um conjunto.
+ *
+ * Uma resposta negativa é definitiva, enquanto uma resposta positiva pode ser um falso positivo
+ * com a probabilidade configurada, desde que a quantidade de valores adicionados não ultrapasse a
+ * capacidade do filtro. As posições de cada valor são derivadas de um hash de 64 bits (FNV-1a)
+ * combinando as suas duas metades, e os bits são atualizados sem bloqueio.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class BloomFilter {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIMO = 0x100000001b3L;
+
+	private final AtomicLongArray bits;
+	private final long quantidadeBits;
+	private final int funcoes;
+
+	/**
+	 * @param capacidade quantidade esperada de valores.
+	 * @param probabilidadeFalsoPositivo probabilidade de falso positivo desejada com o filtro na capacidade.
+	 */
+	public BloomFilter(long capacidade, double probabilidadeFalsoPositivo) {
+		long n = Math.max(capacidade, 1);
+		long m = (long) Math.ceil(-n * Math.log(probabilidadeFalsoPositivo) / (Math.log(2) * Math.log(2)));
+		this.bits = new AtomicLongArray((int) Math.max((m + 63) >>> 6, 1));
+		this.quantidadeBits = (long) this.bits.length() << 6;
+		this.funcoes = Math.max((int) Math.round((double) m / n * Math.log(2)), 1);
+	}
+
+	/**
+	 * @param valor valor adicionado ao filtro.
+	 */
+	public void adicionar(String valor) {
+		long hash = hash(valor);
+		for (int i = 0; i < this.funcoes; i++) {
+			long posicao = this.posicao(hash, i);
+			int indice = (int) (posicao >>> 6);
+			long mascara = 1L << posicao;
+
+			long atual = this.bits.get(indice);
+			while ((atual & mascara) == 0 && !this.bits.compareAndSet(indice, atual, atual | mascara))
+				atual = this.bits.get(indice);
+		}
+	}
+
+	/**
+	 * @param valor valor consultado.
+	 * @return falso se o valor certamente não foi adicionado ao filtro.
+	 */
+	public boolean talvezContenha(String valor) {
+		long hash = hash(valor);
+		for (int i = 0; i < this.funcoes; i++) {
+			long posicao = this.posicao(hash, i);
+			if ((this.bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	private long posicao(long hash, int funcao) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		long combinado = (long) h1 + (long) funcao * h2;
+		return (combinado & Long.MAX_VALUE) % this.quantidadeBits;
+	}
+
+	private static long hash(String valor) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < valor.length(); i++) {
+			hash ^= valor.charAt(i);
+			hash *= FNV_PRIMO;
+		}
+		// Espalha os bits para que as duas metades do hash sejam independentes.
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+}
@@ -0,0 +1,137 @@
+package br.com.tarefa.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker das operações de cache no Redis.
+ *
+ * Após a quantidade configurada de falhas consecutivas (erros ou tempo esgotado), o circuito é
+ * aberto e as operações deixam de ser enviadas ao Redis pelo tempo configurado. Em seguida,
+ * o circuito fica semiaberto e apenas uma operação de teste é enviada: se ela tiver sucesso,
+ * o circuito é fechado e os listeners de fechamento são executados; caso contrário, ele é
+ * aberto novamente.
+ *
+ * O estado atual é publicado no gauge 'cache.circuit.state' (0 fechado, 1 aberto, 2 semiaberto)
+ * e cada mudança de estado no contador 'cache.circuit.transitions'.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class CacheCircuitBreaker {
+
+	public enum Estado {
+		FECHADO, ABERTO, SEMIABERTO
+	}
+
+	private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.FECHADO);
+	private final AtomicInteger falhasConsecutivas = new AtomicInteger();
+	private final AtomicBoolean testeEmAndamento = new AtomicBoolean();
+	private final List<Runnable> listenersFechamento = new CopyOnWriteArrayList<>();
+	private final MeterRegistry registry;
+	private final int failureThreshold;
+	private final long openDuration;
+	private volatile long abertoAte;
+
+	public CacheCircuitBreaker(MeterRegistry registry,
+			@Value("${application.cache.resilience.failure-threshold:5}") int failureThreshold,
+			@Value("${application.cache.resilience.open-duration:10000}") long openDuration) {
+		this.registry = registry;
+		this.failureThreshold = failureThreshold;
+		this.openDuration = openDuration;
+
+		Gauge.builder("cache.circuit.state", this.estado, estado -> estado.get().ordinal())
+				.description("Estado do circuit breaker do Redis (0 fechado, 1 aberto, 2 semiaberto)")
+				.register(registry);
+	}
+
+	/**
+	 * Indica se a operação pode ser enviada ao Redis. Quando retorna true, o resultado da operação
+	 * deve ser informado com {@link #registrarSucesso()} ou {@link #registrarFalha()}.
+	 *
+	 * @return true se a operação pode ser enviada ao Redis.
+	 */
+	public boolean permitirChamada() {
+		Estado atual = this.estado.get();
+		if (atual == Estado.FECHADO)
+			return true;
+
+		if (atual == Estado.ABERTO) {
+			if (System.currentTimeMillis() < this.abertoAte)
+				return false;
+			this.transicao(Estado.ABERTO, Estado.SEMIABERTO);
+		}
+
+		return this.testeEmAndamento.compareAndSet(false, true);
+	}
+
+	public void registrarSucesso() {
+		this.falhasConsecutivas.set(0);
+
+		if (this.estado.get() == Estado.SEMIABERTO && this.transicao(Estado.SEMIABERTO, Estado.FECHADO)) {
+			this.testeEmAndamento.set(false);
+			this.listenersFechamento.forEach(Runnable::run);
+		}
+	}
+
+	public void registrarFalha() {
+		Estado atual = this.estado.get();
+
+		if (atual == Estado.SEMIABERTO) {
+			this.abrir(Estado.SEMIABERTO);
+			this.testeEmAndamento.set(false);
+		} else if (atual == Estado.FECHADO && this.falhasConsecutivas.incrementAndGet() >= this.failureThreshold) {
+			this.abrir(Estado.FECHADO);
+		}
+	}
+
+	public boolean isFechado() {
+		return this.estado.get() == Estado.FECHADO;
+	}
+
+	public Estado getEstado() {
+		return this.estado.get();
+	}
+
+	/**
+	 * Registra uma ação executada sempre que o circuito for fechado após uma indisponibilidade.
+	 *
+	 * @param listener ação executada no fechamento do circuito.
+	 */
+	public void aoFechar(Runnable listener) {
+		this.listenersFechamento.add(listener);
+	}
+
+	private void abrir(Estado de) {
+		this.abertoAte = System.currentTimeMillis() + this.openDuration;
+		if (this.transicao(de, Estado.ABERTO))
+			log.warn("Circuito do Redis aberto, os caches passam a utilizar a memória local por {} ms", this.openDuration);
+	}
+
+	private boolean transicao(Estado de, Estado para) {
+		if (!this.estado.compareAndSet(de, para))
+			return false;
+
+		Counter.builder("cache.circuit.transitions")
+				.description("Quantidade de mudanças de estado do circuit breaker do Redis")
+				.tag("from", de.name().toLowerCase())
+				.tag("to", para.name().toLowerCase())
+				.register(this.registry)
+				.increment();
+		log.info("Circuito do Redis passou de {} para {}", de, para);
+		return true;
+	}
+
+}
@@ -1,23 +1,147 @@
 package br.com.tarefa.config.cache;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.tarefa.config.security.AuthenticationCache;
+import br.com.tarefa.config.security.SecurityVersions;
+import br.com.tarefa.dtos.cache.TarefaCacheDTO;
+import br.com.tarefa.dtos.cache.UsuarioCacheDTO;
+import br.com.tarefa.entities.Tarefa;
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.mappers.TarefaMapper;
+import br.com.tarefa.mappers.UsuarioMapper;
+import br.com.tarefa.services.security.RefreshTokenService;
 
 @Configuration
 public class CacheConfig {
 
+	private static final String CACHE_TAREFAS = "tarefas";
+	private static final String CACHE_LISTAR_TAREFAS = "listarTarefas";
+	private static final String CACHE_TAREFAS_POR_USUARIO = "tarefasPorUsuario";
+	private static final String CACHE_USUARIOS = "usuarios";
+	private static final String CACHE_BLACKLISTED_TOKENS = "blacklistedTokens";
+
 	@Value("${applcation.cache.tokenblacklist.expiration}")
 	private long tokenJwtExpiration;
 
+	@Value("${application.security.jwt.refresh-token.expiration}")
+	private long refreshTokenExpiration;
+
+	@Value("${spring.cache.redis.time-to-live}")
+	private long cacheExpiration;
+
+	@Value("${application.cache.negative.expiration}")
+	private long negativeCacheExpiration;
+
+	@Value("${application.cache.compression-threshold}")
+	private int compressionThreshold;
+
+	private final TarefaMapper tarefaMapper;
+	private final UsuarioMapper usuarioMapper;
+	private final ObjectMapper objectMapper;
+
+	public CacheConfig(TarefaMapper tarefaMapper, UsuarioMapper usuarioMapper) {
+		this.tarefaMapper = tarefaMapper;
+		this.usuarioMapper = usuarioMapper;
+		this.objectMapper = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+	}
+
+	@Bean
+	static CacheManagerPostProcessor cacheManagerPostProcessor(ObjectProvider<CacheMetrics> cacheMetrics,
+			ObjectProvider<RefreshAhead> refreshAhead, ObjectProvider<CacheResilience> cacheResilience,
+			ObjectProvider<OffHeapTier> offHeapTier, ObjectProvider<HotKeys> hotKeys, ObjectProvider<RevokedTokens> revokedTokens,
+			ObjectProvider<SecurityVersions> securityVersions, ObjectProvider<AuthenticationCache> authenticationCache,
+			ObjectProvider<CacheInvalidation> cacheInvalidation, ObjectProvider<ResponseCache> responseCache,
+			ObjectProvider<SingleFlightLoader> singleFlightLoader) {
+		return new CacheManagerPostProcessor(cacheMetrics, refreshAhead, cacheResilience, offHeapTier, hotKeys,
+				revokedTokens, securityVersions, authenticationCache, cacheInvalidation, responseCache, singleFlightLoader);
+	}
+
+	@Bean
+	RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+			CacheInvalidation cacheInvalidation) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		container.addMessageListener(cacheInvalidation, new ChannelTopic(CacheInvalidation.CANAL_INVALIDACAO));
+		return container;
+	}
+
+	/**
+	 * Com a resiliência habilitada, o tempo máximo de resposta de cada operação no Redis é o timeout
+	 * de comando do Lettuce, sem repassar as operações para outra thread.
+	 */
+	@Bean
+	LettuceClientConfigurationBuilderCustomizer lettuceClientConfigurationBuilderCustomizer(
+			@Value("${application.cache.resilience.enabled:false}") boolean resilienceEnabled,
+			@Value("${application.cache.resilience.timeout:100}") long resilienceTimeout) {
+		return (builder) -> {
+			if (resilienceEnabled)
+				builder.commandTimeout(Duration.ofMillis(resilienceTimeout));
+		};
+	}
+
 	@Bean
 	RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
-		return (builder) -> builder.withCacheConfiguration("blacklistedTokens",
-				RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMillis(tokenJwtExpiration)));
+		return (builder) -> builder
+				.withCacheConfiguration(CACHE_BLACKLISTED_TOKENS, this.cacheConfiguration(tokenJwtExpiration, RedisSerializer.string()))
+				.withCacheConfiguration(CACHE_TAREFAS, this.cacheConfiguration(cacheExpiration, this.tarefaSerializer()))
+				.withCacheConfiguration(CACHE_LISTAR_TAREFAS, this.cacheConfiguration(cacheExpiration, this.listaTarefasSerializer()))
+				.withCacheConfiguration(CACHE_TAREFAS_POR_USUARIO, this.cacheConfiguration(cacheExpiration, this.idsTarefasSerializer()))
+				.withCacheConfiguration(CACHE_USUARIOS, this.cacheConfiguration(cacheExpiration, this.usuarioSerializer()))
+				.withCacheConfiguration(NegativeCache.CACHE_TAREFAS_INEXISTENTES, this.cacheConfiguration(negativeCacheExpiration, RedisSerializer.string()))
+				.withCacheConfiguration(NegativeCache.CACHE_USUARIOS_INEXISTENTES, this.cacheConfiguration(negativeCacheExpiration, RedisSerializer.string()))
+				.withCacheConfiguration(RefreshTokenService.CACHE_REFRESH_TOKENS_USADOS, this.cacheConfiguration(refreshTokenExpiration, RedisSerializer.string()))
+				.withCacheConfiguration(RefreshTokenService.CACHE_REFRESH_FAMILIAS_REVOGADAS, this.cacheConfiguration(refreshTokenExpiration, RedisSerializer.string()));
+	}
+
+	private RedisCacheConfiguration cacheConfiguration(long expiration, RedisSerializer<?> serializer) {
+		return RedisCacheConfiguration.defaultCacheConfig()
+				.entryTtl(Duration.ofMillis(expiration))
+				.serializeValuesWith(SerializationPair.fromSerializer(serializer));
+	}
+
+	private RedisSerializer<Object> tarefaSerializer() {
+		return new SnapshotRedisSerializer<Tarefa, TarefaCacheDTO>(this.objectMapper,
+				this.objectMapper.constructType(TarefaCacheDTO.class),
+				this.tarefaMapper::tarefaToTarefaCacheDTO, this.tarefaMapper::tarefaCacheDTOToTarefa, compressionThreshold);
+	}
+
+	private RedisSerializer<Object> listaTarefasSerializer() {
+		return new SnapshotRedisSerializer<List<Tarefa>, List<TarefaCacheDTO>>(this.objectMapper,
+				this.objectMapper.getTypeFactory().constructCollectionType(List.class, TarefaCacheDTO.class),
+				this.tarefaMapper::tarefasToTarefasCacheDTO, this.tarefaMapper::tarefasCacheDTOToTarefas, compressionThreshold);
+	}
+
+	private RedisSerializer<Object> idsTarefasSerializer() {
+		return new SnapshotRedisSerializer<List<UUID>, List<UUID>>(this.objectMapper,
+				this.objectMapper.getTypeFactory().constructCollectionType(List.class, UUID.class),
+				Function.identity(), Function.identity(), compressionThreshold);
+	}
+
+	private RedisSerializer<Object> usuarioSerializer() {
+		return new SnapshotRedisSerializer<Usuario, UsuarioCacheDTO>(this.objectMapper,
+				this.objectMapper.constructType(UsuarioCacheDTO.class),
+				this.usuarioMapper::usuarioToUsuarioCacheDTO, this.usuarioMapper::usuarioCacheDTOToUsuario, compressionThreshold);
 	}
 
 }
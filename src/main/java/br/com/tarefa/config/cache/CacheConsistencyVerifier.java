@@ -0,0 +1,320 @@
+package br.com.tarefa.config.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import br.com.tarefa.entities.Tarefa;
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.repositories.TarefaRepository;
+import br.com.tarefa.repositories.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifica em segundo plano se as entradas dos caches 'tarefas' e 'usuarios' ainda correspondem
+ * à base de dados.
+ *
+ * A cada rodada, uma amostra das chaves de cada cache é percorrida com SCAN no Redis, continuando
+ * de onde a rodada anterior parou até cobrir todas as chaves. Os valores são lidos diretamente do
+ * cache no Redis, sem passar pelos decoradores, e comparados em lote com a data da última
+ * atualização (e o ID, nas chaves por nome de usuário) consultada na base de dados. Entradas
+ * divergentes ou de registros excluídos são removidas do cache pelos decoradores, propagando a
+ * invalidação para as demais camadas e instâncias.
+ *
+ * A verificação é executada em uma única thread de baixa prioridade e não é executada com o
+ * circuito do Redis aberto. Os resultados são publicados nos contadores 'cache.verifier.checked' e
+ * 'cache.verifier.stale' e no gauge 'cache.verifier.staleness', com a proporção de entradas
+ * divergentes na última rodada.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class CacheConsistencyVerifier implements ApplicationRunner, DisposableBean {
+
+	private static final String CACHE_TAREFAS = "tarefas";
+	private static final String CACHE_USUARIOS = "usuarios";
+	private static final String SEPARADOR_CHAVE = "::";
+	private static final long TOLERANCIA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Value("${application.cache.verifier.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.verifier.interval:60000}")
+	private long interval;
+	@Value("${application.cache.verifier.sample-size:200}")
+	private int sampleSize;
+
+	private final Map<String, Cursor<String>> cursores = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> proporcaoDivergentes = new ConcurrentHashMap<>();
+	private final CacheManager cacheManager;
+	private final StringRedisTemplate redisTemplate;
+	private final TarefaRepository tarefaRepository;
+	private final UsuarioRepository usuarioRepository;
+	private final CacheCircuitBreaker circuitBreaker;
+	private final MeterRegistry registry;
+	private ScheduledExecutorService executor;
+
+	public CacheConsistencyVerifier(CacheManager cacheManager, StringRedisTemplate redisTemplate,
+			TarefaRepository tarefaRepository, UsuarioRepository usuarioRepository, CacheCircuitBreaker circuitBreaker,
+			MeterRegistry registry) {
+		this.cacheManager = cacheManager;
+		this.redisTemplate = redisTemplate;
+		this.tarefaRepository = tarefaRepository;
+		this.usuarioRepository = usuarioRepository;
+		this.circuitBreaker = circuitBreaker;
+		this.registry = registry;
+	}
+
+	/**
+	 * Agenda a verificação periódica dos caches.
+	 *
+	 * @param args argumentos da aplicação.
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!this.enabled)
+			return;
+
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cache-consistency-verifier");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		this.executor.scheduleWithFixedDelay(this::verificar, this.interval, this.interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor != null)
+			this.executor.shutdownNow();
+		this.cursores.keySet().forEach(this::fecharCursor);
+	}
+
+	/**
+	 * Executa uma rodada de verificação sobre uma amostra de cada cache.
+	 */
+	public void verificar() {
+		if (!this.circuitBreaker.isFechado())
+			return;
+
+		for (String cacheName : new String[] { CACHE_TAREFAS, CACHE_USUARIOS }) {
+			try {
+				this.verificar(cacheName, this.amostrar(cacheName));
+			} catch (DataAccessException e) {
+				this.fecharCursor(cacheName);
+				log.warn("Falha ao verificar a consistência do cache {}", cacheName, e);
+			}
+		}
+	}
+
+	/**
+	 * Compara as entradas do cache com a base de dados e remove do cache as entradas divergentes.
+	 *
+	 * @param cacheName nome do cache ('tarefas' ou 'usuarios').
+	 * @param amostra chaves e valores lidos do cache.
+	 * @return a quantidade de entradas divergentes removidas.
+	 */
+	public int verificar(String cacheName, Map<Object, Object> amostra) {
+		List<Object> divergentes = CACHE_TAREFAS.equals(cacheName)
+				? this.tarefasDivergentes(amostra)
+				: this.usuariosDivergentes(amostra);
+
+		Cache cache = this.cacheManager.getCache(cacheName);
+		Cache original = this.cacheOriginal(cacheName);
+		int removidas = 0;
+		for (Object key : divergentes) {
+			// A entrada pode ter sido regravada pela aplicação desde a leitura da amostra.
+			Cache.ValueWrapper atual = original.get(key);
+			if (atual != null && !Objects.equals(dataAtualizacao(atual.get()), dataAtualizacao(amostra.get(key))))
+				continue;
+
+			cache.evict(key);
+			removidas++;
+		}
+
+		this.registrar(cacheName, amostra.size(), removidas);
+		if (removidas > 0)
+			log.info("{} de {} entradas verificadas no cache {} estavam divergentes da base de dados e foram removidas",
+					removidas, amostra.size(), cacheName);
+		return removidas;
+	}
+
+	private List<Object> tarefasDivergentes(Map<Object, Object> amostra) {
+		Map<UUID, Tarefa> tarefas = new LinkedHashMap<>();
+		amostra.forEach((key, value) -> {
+			if (key instanceof UUID && value instanceof Tarefa)
+				tarefas.put((UUID) key, (Tarefa) value);
+		});
+		if (tarefas.isEmpty())
+			return new ArrayList<>();
+
+		Map<UUID, TarefaRepository.Versao> versoes = indexar(this.tarefaRepository.findVersoesByIdIn(tarefas.keySet()),
+				TarefaRepository.Versao::getId);
+
+		return tarefas.entrySet().stream()
+				.filter(entry -> {
+					TarefaRepository.Versao versao = versoes.get(entry.getKey());
+					return versao == null || divergente(entry.getValue().getDataAtualizacao(), versao.getDataAtualizacao());
+				})
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	private List<Object> usuariosDivergentes(Map<Object, Object> amostra) {
+		Map<Object, Usuario> usuarios = new LinkedHashMap<>();
+		List<UUID> ids = new ArrayList<>();
+		List<String> nomes = new ArrayList<>();
+		amostra.forEach((key, value) -> {
+			if (!(value instanceof Usuario))
+				return;
+			usuarios.put(key, (Usuario) value);
+			if (key instanceof UUID)
+				ids.add((UUID) key);
+			else
+				nomes.add(String.valueOf(key));
+		});
+
+		Map<Object, UsuarioRepository.Versao> versoes = new LinkedHashMap<>();
+		if (!ids.isEmpty())
+			versoes.putAll(indexar(this.usuarioRepository.findVersoesByIdIn(ids), UsuarioRepository.Versao::getId));
+		if (!nomes.isEmpty())
+			versoes.putAll(indexar(this.usuarioRepository.findVersoesByNomeUsuarioIn(nomes), UsuarioRepository.Versao::getNomeUsuario));
+
+		return usuarios.entrySet().stream()
+				.filter(entry -> {
+					UsuarioRepository.Versao versao = versoes.get(entry.getKey());
+					return versao == null
+							|| !Objects.equals(entry.getValue().getId(), versao.getId())
+							|| divergente(entry.getValue().getDataAtualizacao(), versao.getDataAtualizacao());
+				})
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Lê os valores de uma amostra das chaves do cache no Redis, continuando a varredura da rodada anterior.
+	 */
+	private Map<Object, Object> amostrar(String cacheName) {
+		Cache original = this.cacheOriginal(cacheName);
+		String prefixo = cacheName + SEPARADOR_CHAVE;
+		Map<Object, Object> amostra = new LinkedHashMap<>();
+
+		Cursor<String> cursor = this.cursores.computeIfAbsent(cacheName, nome -> this.redisTemplate
+				.scan(ScanOptions.scanOptions().match(prefixo + "*").count(this.sampleSize).build()));
+
+		while (amostra.size() < this.sampleSize && cursor.hasNext()) {
+			Object key = chave(cursor.next().substring(prefixo.length()));
+			Cache.ValueWrapper wrapper = original.get(key);
+			if (wrapper != null && wrapper.get() != null)
+				amostra.put(key, wrapper.get());
+		}
+
+		if (!cursor.hasNext())
+			this.fecharCursor(cacheName);
+		return amostra;
+	}
+
+	private void registrar(String cacheName, int verificadas, int divergentes) {
+		Counter.builder("cache.verifier.checked")
+				.description("Quantidade de entradas do cache comparadas com a base de dados")
+				.tag("cache", cacheName)
+				.register(this.registry)
+				.increment(verificadas);
+		Counter.builder("cache.verifier.stale")
+				.description("Quantidade de entradas do cache divergentes da base de dados")
+				.tag("cache", cacheName)
+				.register(this.registry)
+				.increment(divergentes);
+
+		double proporcao = verificadas == 0 ? 0 : (double) divergentes / verificadas;
+		this.proporcaoDivergentes.computeIfAbsent(cacheName, nome -> {
+			AtomicLong valor = new AtomicLong();
+			Gauge.builder("cache.verifier.staleness", valor, bits -> Double.longBitsToDouble(bits.get()))
+					.description("Proporção de entradas divergentes da base de dados na última verificação do cache")
+					.tag("cache", nome)
+					.register(this.registry);
+			return valor;
+		}).set(Double.doubleToLongBits(proporcao));
+	}
+
+	/**
+	 * @return o cache sem os decoradores, para que a verificação não altere as métricas e as chaves quentes.
+	 */
+	private Cache cacheOriginal(String cacheName) {
+		CacheManager original = this.cacheManager instanceof DecoratingCacheManager
+				? ((DecoratingCacheManager) this.cacheManager).getDelegate()
+				: this.cacheManager;
+		return original.getCache(cacheName);
+	}
+
+	private void fecharCursor(String cacheName) {
+		Cursor<String> cursor = this.cursores.remove(cacheName);
+		if (cursor == null)
+			return;
+
+		try {
+			cursor.close();
+		} catch (RuntimeException e) {
+			log.debug("Falha ao fechar a varredura do cache {}", cacheName, e);
+		}
+	}
+
+	private static <K, V> Map<K, V> indexar(Collection<V> versoes, Function<V, K> chave) {
+		return versoes.stream().collect(Collectors.toMap(chave, Function.identity(), (a, b) -> a));
+	}
+
+	/**
+	 * Compara as datas tolerando a diferença de precisão entre a aplicação e a base de dados.
+	 */
+	private static boolean divergente(LocalDateTime emCache, LocalDateTime naBase) {
+		if (emCache == null || naBase == null)
+			return emCache != naBase;
+		return Math.abs(Duration.between(emCache, naBase).toNanos()) >= TOLERANCIA_NANOS;
+	}
+
+	private static LocalDateTime dataAtualizacao(Object value) {
+		if (value instanceof Tarefa)
+			return ((Tarefa) value).getDataAtualizacao();
+		if (value instanceof Usuario)
+			return ((Usuario) value).getDataAtualizacao();
+		return null;
+	}
+
+	private static Object chave(String key) {
+		try {
+			return UUID.fromString(key);
+		} catch (IllegalArgumentException e) {
+			return key;
+		}
+	}
+
+}
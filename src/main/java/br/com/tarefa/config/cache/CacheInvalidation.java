@@ -0,0 +1,104 @@
+package br.com.tarefa.config.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Invalidação das cópias locais dos caches entre as instâncias da aplicação.
+ *
+ * Os decoradores que mantêm cópias locais de um cache (como o {@link HotKeyCache} e o
+ * {@link OffHeapCache}) registram um ouvinte para o cache. As gravações e remoções nesses caches
+ * são publicadas no canal 'cache:invalidacao' do Redis pelo {@link InvalidationCache}, e cada
+ * instância repassa as chaves recebidas aos ouvintes registrados. As mensagens publicadas pela
+ * própria instância são ignoradas, pois as cópias locais já foram atualizadas na gravação.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class CacheInvalidation implements MessageListener {
+
+	public static final String CANAL_INVALIDACAO = "cache:invalidacao";
+
+	private static final String SEPARADOR = "\n";
+
+	private final String instancia = UUID.randomUUID().toString();
+	private final ConcurrentMap<String, List<Consumer<String>>> ouvintes = new ConcurrentHashMap<>();
+	private final StringRedisTemplate redisTemplate;
+	private final CacheCircuitBreaker circuitBreaker;
+
+	public CacheInvalidation(StringRedisTemplate redisTemplate, CacheCircuitBreaker circuitBreaker) {
+		this.redisTemplate = redisTemplate;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Registra um ouvinte das chaves do cache alteradas em outras instâncias.
+	 *
+	 * @param cacheName nome do cache.
+	 * @param ouvinte recebe a representação textual da chave ou nulo quando o cache foi limpo.
+	 */
+	public void registrar(String cacheName, Consumer<String> ouvinte) {
+		this.ouvintes.computeIfAbsent(cacheName, nome -> new CopyOnWriteArrayList<>()).add(ouvinte);
+	}
+
+	/**
+	 * Envolve o cache com o {@link InvalidationCache} quando houver cópias locais registradas para o cache.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.ouvintes.containsKey(cache.getName()))
+			return cache;
+
+		String cacheName = cache.getName();
+		return new InvalidationCache(cache, key -> this.publicar(cacheName, key));
+	}
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String[] partes = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARADOR, 3);
+		if (partes.length < 2 || this.instancia.equals(partes[0]))
+			return;
+
+		List<Consumer<String>> registrados = this.ouvintes.get(partes[1]);
+		if (registrados != null) {
+			String key = partes.length > 2 ? partes[2] : null;
+			registrados.forEach(ouvinte -> ouvinte.accept(key));
+		}
+	}
+
+	/**
+	 * Publica para as demais instâncias a alteração de uma chave do cache.
+	 *
+	 * @param cacheName nome do cache.
+	 * @param key chave alterada ou nulo quando o cache foi limpo.
+	 */
+	public void publicar(String cacheName, Object key) {
+		if (this.redisTemplate == null || !this.circuitBreaker.isFechado())
+			return;
+
+		String mensagem = this.instancia + SEPARADOR + cacheName + (key != null ? SEPARADOR + key : "");
+		try {
+			this.redisTemplate.convertAndSend(CANAL_INVALIDACAO, mensagem);
+		} catch (DataAccessException e) {
+			log.debug("Falha ao publicar a invalidação da chave {} do cache {}", key, cacheName, e);
+		}
+	}
+
+}
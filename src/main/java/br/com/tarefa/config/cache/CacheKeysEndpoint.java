@@ -0,0 +1,41 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint do actuator ('/actuator/cachekeys') que lista as chaves mais acessadas de cada cache.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+@Endpoint(id = "cachekeys")
+public class CacheKeysEndpoint {
+
+	@Value("${application.cache.metrics.top-keys:20}")
+	private int topKeys;
+
+	private final CacheMetrics cacheMetrics;
+
+	public CacheKeysEndpoint(CacheMetrics cacheMetrics) {
+		this.cacheMetrics = cacheMetrics;
+	}
+
+	@ReadOperation
+	public Map<String, Map<String, Long>> chavesMaisAcessadas() {
+		return this.cacheMetrics.chavesMaisAcessadas(this.topKeys);
+	}
+
+	@ReadOperation
+	public Map<String, Long> chavesMaisAcessadas(@Selector String cache) {
+		Map<String, Long> chaves = this.cacheMetrics.chavesMaisAcessadas(this.topKeys).get(cache);
+		return chaves != null ? chaves : Collections.emptyMap();
+	}
+
+}
@@ -0,0 +1,89 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Arrays;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+
+import br.com.tarefa.config.security.AuthenticationCache;
+import br.com.tarefa.config.security.SecurityVersions;
+
+/**
+ * Envolve o {@link CacheManager} criado pelo Spring Boot com os decoradores da aplicação,
+ * mantendo a configuração automática dos caches no Redis.
+ *
+ * As dependências dos decoradores são obtidas apenas quando o {@link CacheManager} é criado,
+ * para não antecipar a criação de beans como o MeterRegistry.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class CacheManagerPostProcessor implements BeanPostProcessor {
+
+	private static final String CACHE_MANAGER = "cacheManager";
+
+	private final ObjectProvider<CacheMetrics> cacheMetrics;
+	private final ObjectProvider<RefreshAhead> refreshAhead;
+	private final ObjectProvider<CacheResilience> cacheResilience;
+	private final ObjectProvider<OffHeapTier> offHeapTier;
+	private final ObjectProvider<HotKeys> hotKeys;
+	private final ObjectProvider<RevokedTokens> revokedTokens;
+	private final ObjectProvider<SecurityVersions> securityVersions;
+	private final ObjectProvider<AuthenticationCache> authenticationCache;
+	private final ObjectProvider<CacheInvalidation> cacheInvalidation;
+	private final ObjectProvider<ResponseCache> responseCache;
+	private final ObjectProvider<SingleFlightLoader> singleFlightLoader;
+
+	public CacheManagerPostProcessor(ObjectProvider<CacheMetrics> cacheMetrics, ObjectProvider<RefreshAhead> refreshAhead,
+			ObjectProvider<CacheResilience> cacheResilience, ObjectProvider<OffHeapTier> offHeapTier,
+			ObjectProvider<HotKeys> hotKeys, ObjectProvider<RevokedTokens> revokedTokens,
+			ObjectProvider<SecurityVersions> securityVersions, ObjectProvider<AuthenticationCache> authenticationCache,
+			ObjectProvider<CacheInvalidation> cacheInvalidation, ObjectProvider<ResponseCache> responseCache,
+			ObjectProvider<SingleFlightLoader> singleFlightLoader) {
+		this.cacheMetrics = cacheMetrics;
+		this.refreshAhead = refreshAhead;
+		this.cacheResilience = cacheResilience;
+		this.offHeapTier = offHeapTier;
+		this.hotKeys = hotKeys;
+		this.revokedTokens = revokedTokens;
+		this.securityVersions = securityVersions;
+		this.authenticationCache = authenticationCache;
+		this.cacheInvalidation = cacheInvalidation;
+		this.responseCache = responseCache;
+		this.singleFlightLoader = singleFlightLoader;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (!CACHE_MANAGER.equals(beanName) || !(bean instanceof CacheManager) || bean instanceof DecoratingCacheManager)
+			return bean;
+
+		CacheMetrics metrics = this.cacheMetrics.getObject();
+		RefreshAhead refresh = this.refreshAhead.getObject();
+		CacheResilience resilience = this.cacheResilience.getObject();
+		OffHeapTier offHeap = this.offHeapTier.getObject();
+		HotKeys hot = this.hotKeys.getObject();
+		RevokedTokens revoked = this.revokedTokens.getObject();
+		SecurityVersions security = this.securityVersions.getObject();
+		AuthenticationCache authentications = this.authenticationCache.getObject();
+		CacheInvalidation invalidation = this.cacheInvalidation.getObject();
+		ResponseCache responses = this.responseCache.getObject();
+		SingleFlightLoader singleFlight = this.singleFlightLoader.getObject();
+		CacheManager cacheManager = (CacheManager) bean;
+
+		return new DecoratingCacheManager(cacheManager, Arrays.asList(
+				resilience::decorate,
+				refresh::decorate,
+				cache -> offHeap.decorate(cache, cacheManager.getCache(cache.getName())),
+				hot::decorate,
+				revoked::decorate,
+				security::decorate,
+				authentications::decorate,
+				invalidation::decorate,
+				responses::decorate,
+				singleFlight::decorate,
+				cache -> new MeteredCache(cache, metrics)));
+	}
+
+}
@@ -0,0 +1,358 @@
+package br.com.tarefa.config.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import br.com.tarefa.services.security.RefreshTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registra as métricas de cada cache da aplicação no Micrometer.
+ *
+ * Para cada cache são publicados os contadores 'cache.gets' (hit/miss), 'cache.puts' e
+ * 'cache.evictions', o histograma 'cache.load' com a latência dos carregamentos feitos no
+ * banco de dados e os gauges aproximados 'cache.size' e 'cache.size.bytes', estimados em segundo
+ * plano para que a coleta das métricas não consulte o Redis. No Redis, o tamanho é estimado por
+ * uma amostra limitada das chaves (SCAN sem filtro), proporcional ao total de chaves (DBSIZE), com
+ * custo constante independente da quantidade de chaves armazenadas.
+ *
+ * A contagem de acessos por chave, utilizada pelo endpoint {@link CacheKeysEndpoint}, é estimada
+ * por um {@link FrequencySketch}. Apenas as chaves candidatas às mais acessadas são mantidas, até
+ * o dobro da quantidade máxima de chaves; ao atingir esse limite, as menos acessadas são descartadas
+ * de uma só vez e a frequência da última chave mantida passa a ser a mínima para uma nova chave entrar.
+ * As chaves dos caches de tokens não são contabilizadas, pois são credenciais (ou derivadas delas)
+ * e seriam expostas pelo endpoint.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class CacheMetrics implements ApplicationRunner, DisposableBean {
+
+	private static final int AMOSTRA_CHAVES = 1000;
+	private static final int AMOSTRA_TAMANHO_BYTES = 20;
+	private static final String SEPARADOR_CHAVE = "::";
+	private static final Set<String> CACHES_SEM_CHAVES = new HashSet<>(Arrays.asList(RevokedTokens.CACHE_BLACKLISTED_TOKENS,
+			RefreshTokenService.CACHE_REFRESH_TOKENS_USADOS, RefreshTokenService.CACHE_REFRESH_FAMILIAS_REVOGADAS));
+
+	@Value("${application.cache.metrics.max-tracked-keys:10000}")
+	private int maxTrackedKeys = 10000;
+	@Value("${application.cache.metrics.size-refresh:60000}")
+	private long sizeRefresh = 60000;
+
+	private final ConcurrentMap<String, Estatisticas> estatisticas = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Timer> carregamentos = new ConcurrentHashMap<>();
+	private final MeterRegistry registry;
+	private final StringRedisTemplate redisTemplate;
+	private ScheduledExecutorService executor;
+
+	public CacheMetrics(MeterRegistry registry, StringRedisTemplate redisTemplate) {
+		this.registry = registry;
+		this.redisTemplate = redisTemplate;
+	}
+
+	/**
+	 * Agenda a estimativa periódica do tamanho dos caches.
+	 *
+	 * @param args argumentos da aplicação.
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cache-metrics-size");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		this.executor.scheduleWithFixedDelay(this::atualizarTamanhos, 0, this.sizeRefresh, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor != null)
+			this.executor.shutdownNow();
+	}
+
+	/**
+	 * Estima a quantidade de entradas e os bytes de cada cache monitorado.
+	 */
+	public void atualizarTamanhos() {
+		Map<String, Estatisticas> redis = new HashMap<>();
+		this.estatisticas.forEach((name, estatisticas) -> {
+			if (estatisticas.atualizarTamanho())
+				redis.put(name, estatisticas);
+		});
+
+		if (!redis.isEmpty() && this.redisTemplate != null) {
+			try {
+				this.atualizarTamanhosRedis(redis);
+			} catch (RuntimeException e) {
+				log.debug("Não foi possível estimar o tamanho dos caches no Redis", e);
+			}
+		}
+	}
+
+	/**
+	 * Estima as entradas e os bytes dos caches no Redis a partir de uma amostra das chaves. O SCAN
+	 * percorre as chaves na ordem da tabela de hash do Redis, de modo que as primeiras chaves retornadas
+	 * formam uma amostra aproximadamente aleatória; a proporção de cada cache na amostra é aplicada ao
+	 * total de chaves, e os bytes, ao tamanho médio de alguns valores da amostra.
+	 */
+	private void atualizarTamanhosRedis(Map<String, Estatisticas> caches) {
+		redisTemplate.execute((RedisCallback<Void>) connection -> {
+			Long total = connection.serverCommands().dbSize();
+			Map<String, long[]> amostras = new HashMap<>();
+			int amostra = 0;
+
+			try (Cursor<byte[]> cursor = connection.keyCommands()
+					.scan(ScanOptions.scanOptions().count(AMOSTRA_CHAVES).build())) {
+				while (cursor.hasNext() && amostra < AMOSTRA_CHAVES) {
+					byte[] key = cursor.next();
+					amostra++;
+
+					String chave = new String(key, StandardCharsets.UTF_8);
+					int separador = chave.indexOf(SEPARADOR_CHAVE);
+					if (separador < 0 || !caches.containsKey(chave.substring(0, separador)))
+						continue;
+
+					long[] cache = amostras.computeIfAbsent(chave.substring(0, separador), name -> new long[3]);
+					cache[0]++;
+					if (cache[1] < AMOSTRA_TAMANHO_BYTES) {
+						Long tamanho = connection.stringCommands().strLen(key);
+						cache[1]++;
+						cache[2] += tamanho != null ? tamanho : 0;
+					}
+				}
+			}
+
+			long chaves = total != null ? Math.max(total, amostra) : amostra;
+			int amostradas = amostra;
+			caches.forEach((name, estatisticas) -> {
+				long[] cache = amostras.get(name);
+				estatisticas.entradas = cache == null || amostradas == 0 ? 0 : cache[0] * chaves / amostradas;
+				estatisticas.bytes = cache == null || cache[1] == 0 ? 0 : cache[2] / cache[1] * estatisticas.entradas;
+			});
+			return null;
+		});
+	}
+
+	/**
+	 * Retorna as estatísticas do cache, registrando as suas métricas na primeira chamada.
+	 *
+	 * @param cache cache monitorado.
+	 * @return as estatísticas do cache.
+	 */
+	public Estatisticas estatisticas(Cache cache) {
+		return this.estatisticas.computeIfAbsent(cache.getName(), name -> new Estatisticas(cache));
+	}
+
+	/**
+	 * Registra a duração de um carregamento feito no banco de dados para o cache informado.
+	 *
+	 * @param cacheName nome do cache.
+	 * @param nanos duração do carregamento em nanossegundos.
+	 */
+	public void registrarCarregamento(String cacheName, long nanos) {
+		this.carregamentos.computeIfAbsent(cacheName, name -> Timer.builder("cache.load")
+				.description("Latência dos carregamentos executados quando a chave não está no cache")
+				.tag("cache", name)
+				.publishPercentileHistogram()
+				.register(this.registry))
+				.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Retorna as chaves mais acessadas de cada cache, em ordem decrescente de acessos.
+	 *
+	 * @param limite quantidade máxima de chaves por cache.
+	 * @return mapa com o nome do cache e as suas chaves mais acessadas.
+	 */
+	public Map<String, Map<String, Long>> chavesMaisAcessadas(int limite) {
+		Map<String, Map<String, Long>> chaves = new LinkedHashMap<>();
+		this.estatisticas.forEach((name, estatisticas) -> chaves.put(name, estatisticas.chavesMaisAcessadas(limite)));
+		return chaves;
+	}
+
+	/**
+	 * Contadores e contagem de acessos por chave de um cache.
+	 */
+	public final class Estatisticas {
+
+		private final Counter hits;
+		private final Counter misses;
+		private final Counter puts;
+		private final Counter evictions;
+		private final Set<String> acessos = ConcurrentHashMap.newKeySet();
+		private final ReentrantLock descarte = new ReentrantLock();
+		private final FrequencySketch sketch;
+		private final Cache cache;
+		private final boolean rastrearChaves;
+
+		private volatile int frequenciaMinima;
+		private volatile int envelhecimentosMinima;
+		private volatile long entradas;
+		private volatile long bytes;
+
+		private Estatisticas(Cache cache) {
+			this.cache = cache;
+			String name = cache.getName();
+			this.rastrearChaves = !CACHES_SEM_CHAVES.contains(name);
+			this.sketch = this.rastrearChaves ? new FrequencySketch(maxTrackedKeys) : null;
+
+			this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+					.description("Quantidade de buscas que encontraram o valor no cache").register(registry);
+			this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+					.description("Quantidade de buscas que não encontraram o valor no cache").register(registry);
+			this.puts = Counter.builder("cache.puts").tag("cache", name)
+					.description("Quantidade de valores gravados no cache").register(registry);
+			this.evictions = Counter.builder("cache.evictions").tag("cache", name)
+					.description("Quantidade de valores removidos do cache").register(registry);
+
+			Gauge.builder("cache.size", this, Estatisticas::entradas).tag("cache", name)
+					.description("Quantidade aproximada de entradas no cache").register(registry);
+			Gauge.builder("cache.size.bytes", this, Estatisticas::bytes).tag("cache", name).baseUnit("bytes")
+					.description("Tamanho aproximado em bytes dos valores no cache").register(registry);
+		}
+
+		public void hit(Object key) {
+			this.hits.increment();
+			this.acessar(key);
+		}
+
+		public void miss(Object key) {
+			this.misses.increment();
+			this.acessar(key);
+		}
+
+		public void put() {
+			this.puts.increment();
+		}
+
+		public void eviction() {
+			this.evictions.increment();
+		}
+
+		private void acessar(Object key) {
+			if (!this.rastrearChaves)
+				return;
+
+			String chave = String.valueOf(key);
+			int frequencia = this.sketch.incrementar(chave);
+
+			if (frequencia <= this.frequenciaMinima() && !this.acessos.contains(chave))
+				return;
+
+			if (this.acessos.add(chave) && this.acessos.size() >= maxTrackedKeys * 2 && this.descarte.tryLock()) {
+				try {
+					this.descartarMenosAcessadas();
+				} finally {
+					this.descarte.unlock();
+				}
+			}
+		}
+
+		/**
+		 * Mantém apenas as chaves mais acessadas. Como só é executado quando a quantidade de chaves
+		 * candidatas chega ao dobro do máximo, o custo da ordenação é dividido entre as chaves admitidas.
+		 */
+		private void descartarMenosAcessadas() {
+			List<Map.Entry<String, Long>> chaves = this.ordenarPorAcessos();
+			if (chaves.size() < maxTrackedKeys * 2)
+				return;
+
+			chaves.subList(maxTrackedKeys, chaves.size()).forEach(entry -> this.acessos.remove(entry.getKey()));
+			this.envelhecimentosMinima = this.sketch.envelhecimentos();
+			this.frequenciaMinima = chaves.get(maxTrackedKeys - 1).getValue().intValue();
+		}
+
+		/**
+		 * A frequência mínima acompanha o envelhecimento do sketch, sendo dividida pela metade
+		 * a cada envelhecimento ocorrido após o último descarte.
+		 */
+		private int frequenciaMinima() {
+			int envelhecimentos = this.sketch.envelhecimentos() - this.envelhecimentosMinima;
+			return envelhecimentos >= Integer.SIZE ? 0 : this.frequenciaMinima >>> envelhecimentos;
+		}
+
+		private List<Map.Entry<String, Long>> ordenarPorAcessos() {
+			List<Map.Entry<String, Long>> chaves = new ArrayList<>();
+			if (!this.rastrearChaves)
+				return chaves;
+
+			this.acessos.forEach(chave -> chaves.add(new SimpleImmutableEntry<>(chave, (long) this.sketch.frequencia(chave))));
+			chaves.sort(Collections.reverseOrder(Comparator.comparingLong(Map.Entry::getValue)));
+			return chaves;
+		}
+
+		private Map<String, Long> chavesMaisAcessadas(int limite) {
+			Map<String, Long> maisAcessadas = new LinkedHashMap<>();
+			this.ordenarPorAcessos().stream().limit(limite).forEach(entry -> maisAcessadas.put(entry.getKey(), entry.getValue()));
+			return maisAcessadas;
+		}
+
+		private double entradas() {
+			return this.entradas;
+		}
+
+		private double bytes() {
+			return this.bytes < 0 ? Double.NaN : this.bytes;
+		}
+
+		/**
+		 * Atualiza o tamanho dos caches locais.
+		 *
+		 * @return true se o cache estiver no Redis, cujo tamanho é estimado em conjunto com os demais.
+		 */
+		private boolean atualizarTamanho() {
+			Object nativeCache = this.cache.getNativeCache();
+			try {
+				if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+					this.entradas = ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).estimatedSize();
+					this.bytes = -1;
+				} else if (nativeCache instanceof Map) {
+					this.entradas = ((Map<?, ?>) nativeCache).size();
+					this.bytes = -1;
+				} else {
+					return nativeCache instanceof RedisCacheWriter;
+				}
+			} catch (RuntimeException e) {
+				log.debug("Não foi possível estimar o tamanho do cache {}", this.cache.getName(), e);
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,109 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Configuração do {@link ResilientCache}, aplicado a todos os caches quando habilitado.
+ *
+ * Política da lista de tokens revogados ('blacklistedTokens') com o Redis indisponível:
+ * <ul>
+ * <li>Toda revogação é mantida também na memória local pelo tempo de expiração da lista, mesmo com o
+ * Redis disponível, de modo que um token revogado nesta instância continua rejeitado durante a
+ * indisponibilidade. As revogações feitas durante a indisponibilidade são gravadas no Redis quando
+ * o circuito fechar.</li>
+ * <li>Com a política LOCAL (padrão), tokens revogados em outras instâncias durante a indisponibilidade
+ * só passam a ser rejeitados após o Redis voltar, limitando o risco ao tempo de indisponibilidade.</li>
+ * <li>Com a política REJECT, todo token que não puder ser verificado no Redis é considerado revogado,
+ * rejeitando as requisições autenticadas enquanto o circuito estiver aberto.</li>
+ * <li>As revogações gravadas no Redis quando o circuito fecha são publicadas pelo {@link CacheInvalidation},
+ * para que as demais instâncias as adicionem aos seus filtros de tokens revogados.</li>
+ * </ul>
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class CacheResilience implements DisposableBean {
+
+	public enum BlacklistPolicy {
+		LOCAL, REJECT
+	}
+
+	private static final String CACHE_BLACKLISTED_TOKENS = "blacklistedTokens";
+
+	@Value("${application.cache.resilience.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.resilience.local.max-size:10000}")
+	private long localMaxSize;
+	@Value("${application.cache.resilience.local.expiration:60000}")
+	private long localExpiration;
+	@Value("${application.cache.resilience.blacklist-policy:LOCAL}")
+	private BlacklistPolicy blacklistPolicy;
+	@Value("${applcation.cache.tokenblacklist.expiration}")
+	private long tokenJwtExpiration;
+
+	private final CacheCircuitBreaker circuitBreaker;
+	private final CacheInvalidation cacheInvalidation;
+	private final ExecutorService sincronizacao;
+
+	public CacheResilience(CacheCircuitBreaker circuitBreaker, CacheInvalidation cacheInvalidation) {
+		this.circuitBreaker = circuitBreaker;
+		this.cacheInvalidation = cacheInvalidation;
+		this.sincronizacao = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cache-redis-sincronizacao");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Envolve o cache com o {@link ResilientCache} quando a resiliência estiver habilitada.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.enabled)
+			return cache;
+
+		boolean blacklist = CACHE_BLACKLISTED_TOKENS.equals(cache.getName());
+		Function<Object, Object> valorIndisponivel = blacklist && this.blacklistPolicy == BlacklistPolicy.REJECT
+				? token -> token
+				: null;
+
+		com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+				.maximumSize(blacklist ? Math.max(this.localMaxSize, 100_000) : this.localMaxSize)
+				.expireAfterWrite(blacklist ? this.tokenJwtExpiration : this.localExpiration, TimeUnit.MILLISECONDS)
+				.build();
+
+		Consumer<Object> sincronizado = blacklist
+				? token -> this.cacheInvalidation.publicar(CACHE_BLACKLISTED_TOKENS, token)
+				: null;
+
+		return new ResilientCache(cache, local, blacklist, valorIndisponivel, sincronizado, this.circuitBreaker,
+				this.sincronizacao);
+	}
+
+	/**
+	 * @return verdadeiro se os tokens que não puderem ser verificados no Redis devem ser considerados revogados.
+	 */
+	public boolean isRejeitarTokensNaoVerificados() {
+		return this.enabled && this.blacklistPolicy == BlacklistPolicy.REJECT;
+	}
+
+	@Override
+	public void destroy() {
+		this.sincronizacao.shutdownNow();
+	}
+
+}
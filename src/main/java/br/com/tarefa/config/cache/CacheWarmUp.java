@@ -0,0 +1,188 @@
+package br.com.tarefa.config.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
+import br.com.tarefa.entities.Tarefa;
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.mappers.TarefaMapper;
+import br.com.tarefa.repositories.TarefaRepository;
+import br.com.tarefa.repositories.UsuarioRepository;
+import br.com.tarefa.services.security.JwtService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aquece os caches e os caminhos mais utilizados da aplicação durante a inicialização.
+ *
+ * Os usuários e tarefas atualizados mais recentemente são carregados nos caches 'usuarios'
+ * e 'tarefas', e em seguida os caminhos de leitura do cache, mapeamento, serialização JSON e
+ * geração/validação de tokens JWT são executados repetidamente para que sejam compilados pelo JIT.
+ *
+ * Os registros são gravados somente nas chaves ausentes ({@link Cache#putIfAbsent(Object, Object)}),
+ * pois os caches são compartilhados: durante uma implantação gradual, uma gravação feita por outra
+ * instância após a leitura do aquecimento não é substituída pelo registro mais antigo, e as chaves
+ * já presentes não geram notificações de invalidação para as demais instâncias.
+ *
+ * Por ser um {@link ApplicationRunner}, o Spring Boot só publica o estado de prontidão
+ * (readiness) como ACCEPTING_TRAFFIC após o término do aquecimento. Caso o aquecimento
+ * ultrapasse o prazo configurado, a inicialização prossegue e o aquecimento continua em segundo plano.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class CacheWarmUp implements ApplicationRunner {
+
+	private static final String CACHE_TAREFAS = "tarefas";
+	private static final String CACHE_USUARIOS = "usuarios";
+
+	@Value("${application.cache.warm-up.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.warm-up.usuarios:500}")
+	private int quantidadeUsuarios;
+	@Value("${application.cache.warm-up.tarefas:2000}")
+	private int quantidadeTarefas;
+	@Value("${application.cache.warm-up.iteracoes:2000}")
+	private int iteracoes;
+	@Value("${application.cache.warm-up.deadline:60000}")
+	private long deadline;
+
+	private final CacheManager cacheManager;
+	private final UsuarioRepository usuarioRepository;
+	private final TarefaRepository tarefaRepository;
+	private final TarefaMapper tarefaMapper;
+	private final JwtService jwtService;
+	private final ObjectMapper objectMapper;
+
+	public CacheWarmUp(CacheManager cacheManager, UsuarioRepository usuarioRepository, TarefaRepository tarefaRepository,
+			TarefaMapper tarefaMapper, JwtService jwtService, ObjectMapper objectMapper) {
+		this.cacheManager = cacheManager;
+		this.usuarioRepository = usuarioRepository;
+		this.tarefaRepository = tarefaRepository;
+		this.tarefaMapper = tarefaMapper;
+		this.jwtService = jwtService;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Executa o aquecimento aguardando no máximo o prazo configurado.
+	 *
+	 * @param args argumentos da aplicação.
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!this.enabled)
+			return;
+
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "cache-warm-up");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			Future<?> aquecimento = executor.submit(this::aquecer);
+			aquecimento.get(this.deadline, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			log.warn("Aquecimento do cache não terminou em {} ms, a aplicação será liberada para receber requisições", this.deadline);
+		} catch (ExecutionException e) {
+			log.warn("Falha durante o aquecimento do cache, a aplicação será liberada para receber requisições", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void aquecer() {
+		long inicio = System.currentTimeMillis();
+
+		List<Usuario> usuarios = this.carregarUsuarios();
+		List<UUID> idsTarefas = this.carregarTarefas();
+		this.aquecerCaminhos(usuarios, idsTarefas);
+
+		log.info("Aquecimento do cache concluído em {} ms: {} usuários e {} tarefas carregados",
+				System.currentTimeMillis() - inicio, usuarios.size(), idsTarefas.size());
+	}
+
+	private List<Usuario> carregarUsuarios() {
+		Cache cache = this.cacheManager.getCache(CACHE_USUARIOS);
+		if (cache == null || this.quantidadeUsuarios <= 0)
+			return new ArrayList<>();
+
+		List<Usuario> usuarios = this.usuarioRepository
+				.findAllByOrderByDataAtualizacaoDesc(PageRequest.of(0, this.quantidadeUsuarios));
+
+		for (Usuario usuario : usuarios) {
+			cache.putIfAbsent(usuario.getId(), usuario);
+			cache.putIfAbsent(usuario.getNomeUsuario(), usuario);
+		}
+		return usuarios;
+	}
+
+	private List<UUID> carregarTarefas() {
+		Cache cache = this.cacheManager.getCache(CACHE_TAREFAS);
+		List<UUID> ids = new ArrayList<>();
+		if (cache == null || this.quantidadeTarefas <= 0)
+			return ids;
+
+		List<Tarefa> tarefas = this.tarefaRepository
+				.findAllByOrderByDataAtualizacaoDesc(PageRequest.of(0, this.quantidadeTarefas));
+
+		for (Tarefa tarefa : tarefas) {
+			cache.putIfAbsent(tarefa.getId(), tarefa);
+			ids.add(tarefa.getId());
+		}
+		return ids;
+	}
+
+	private void aquecerCaminhos(List<Usuario> usuarios, List<UUID> idsTarefas) {
+		Cache cacheTarefas = this.cacheManager.getCache(CACHE_TAREFAS);
+
+		for (int i = 0; i < this.iteracoes && !Thread.currentThread().isInterrupted(); i++) {
+			if (cacheTarefas != null && !idsTarefas.isEmpty()) {
+				Tarefa tarefa = cacheTarefas.get(idsTarefas.get(i % idsTarefas.size()), Tarefa.class);
+				if (tarefa != null)
+					this.serializar(this.tarefaMapper.tarefaToTarefaDTO(tarefa));
+			}
+
+			if (!usuarios.isEmpty()) {
+				AuthenticationRequestDTO dto = AuthenticationRequestDTO.builder()
+						.username(usuarios.get(i % usuarios.size()).getNomeUsuario()).build();
+				String token = this.jwtService.generateToken(new HashMap<>(), dto);
+				this.jwtService.validTokenRevoke(token);
+				this.jwtService.extractUsername(token);
+				this.jwtService.isTokenExpired(token);
+			}
+		}
+	}
+
+	private void serializar(Object value) {
+		try {
+			this.objectMapper.writeValueAsBytes(value);
+		} catch (JsonProcessingException e) {
+			log.debug("Falha ao serializar valor durante o aquecimento", e);
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Decorador de {@link CacheManager} que entrega os caches envolvidos pelos decoradores
+ * informados, aplicados na ordem da lista (o primeiro fica mais próximo do cache original).
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class DecoratingCacheManager implements CacheManager {
+
+	private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+	private final CacheManager delegate;
+	private final List<UnaryOperator<Cache>> decorators;
+
+	public DecoratingCacheManager(CacheManager delegate, List<UnaryOperator<Cache>> decorators) {
+		this.delegate = delegate;
+		this.decorators = decorators;
+	}
+
+	@Override
+	public Cache getCache(String name) {
+		Cache cache = this.caches.get(name);
+		if (cache != null)
+			return cache;
+
+		Cache delegateCache = this.delegate.getCache(name);
+		if (delegateCache == null)
+			return null;
+
+		return this.caches.computeIfAbsent(name, key -> this.decorate(delegateCache));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.delegate.getCacheNames();
+	}
+
+	/**
+	 * Retorna o {@link CacheManager} original, sem os decoradores.
+	 *
+	 * @return o {@link CacheManager} decorado.
+	 */
+	public CacheManager getDelegate() {
+		return this.delegate;
+	}
+
+	private Cache decorate(Cache cache) {
+		Cache decorated = cache;
+		for (UnaryOperator<Cache> decorator : this.decorators)
+			decorated = decorator.apply(decorated);
+		return decorated;
+	}
+
+}
@@ -0,0 +1,99 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimativa da frequência de acesso das chaves com um count-min sketch, no estilo do TinyLFU.
+ *
+ * Cada chave incrementa um contador em cada uma das linhas do sketch e a frequência estimada é o
+ * menor desses contadores. Após um número de acessos igual a dez vezes a largura do sketch, todos
+ * os contadores são divididos pela metade, de modo que a frequência reflete os acessos recentes
+ * e chaves que deixaram de ser acessadas perdem a posição com o tempo.
+ *
+ * Os contadores são atualizados sem bloqueio; incrementos concorrentes com o envelhecimento podem
+ * ser perdidos, o que é aceitável para uma estimativa.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class FrequencySketch {
+
+	private static final int[] SEMENTES = { 0x97cb3127, 0xbc9e0b2d, 0x61b1c6a9, 0x3c6ef372 };
+
+	private final AtomicIntegerArray[] linhas = new AtomicIntegerArray[SEMENTES.length];
+	private final AtomicInteger acessos = new AtomicInteger();
+	private final int mascara;
+	private final int amostra;
+	private volatile int envelhecimentos;
+
+	/**
+	 * @param largura quantidade de contadores por linha, arredondada para a próxima potência de dois.
+	 */
+	public FrequencySketch(int largura) {
+		int tamanho = Integer.highestOneBit(Math.max(largura - 1, 1) << 1);
+		for (int i = 0; i < this.linhas.length; i++)
+			this.linhas[i] = new AtomicIntegerArray(tamanho);
+		this.mascara = tamanho - 1;
+		this.amostra = tamanho * 10;
+	}
+
+	/**
+	 * Registra um acesso à chave.
+	 *
+	 * @param key chave acessada.
+	 * @return a frequência estimada da chave, já considerando este acesso.
+	 */
+	public int incrementar(Object key) {
+		int hash = this.espalhar(key.hashCode());
+		int frequencia = Integer.MAX_VALUE;
+		for (int i = 0; i < this.linhas.length; i++)
+			frequencia = Math.min(frequencia, this.linhas[i].incrementAndGet(this.indice(hash, i)));
+
+		if (this.acessos.incrementAndGet() >= this.amostra)
+			this.envelhecer();
+		return frequencia;
+	}
+
+	/**
+	 * @param key chave consultada.
+	 * @return a frequência estimada da chave, sem registrar um acesso.
+	 */
+	public int frequencia(Object key) {
+		int hash = this.espalhar(key.hashCode());
+		int frequencia = Integer.MAX_VALUE;
+		for (int i = 0; i < this.linhas.length; i++)
+			frequencia = Math.min(frequencia, this.linhas[i].get(this.indice(hash, i)));
+		return frequencia;
+	}
+
+	/**
+	 * @return quantas vezes os contadores foram divididos pela metade desde a criação do sketch.
+	 */
+	public int envelhecimentos() {
+		return this.envelhecimentos;
+	}
+
+	private synchronized void envelhecer() {
+		if (this.acessos.get() < this.amostra)
+			return;
+
+		for (AtomicIntegerArray linha : this.linhas) {
+			for (int i = 0; i < linha.length(); i++)
+				linha.set(i, linha.get(i) >>> 1);
+		}
+		this.acessos.set(0);
+		this.envelhecimentos++;
+	}
+
+	private int indice(int hash, int linha) {
+		int h = (hash + SEMENTES[linha]) * SEMENTES[linha];
+		h += h >>> 16;
+		return h & this.mascara;
+	}
+
+	private int espalhar(int hash) {
+		int h = hash * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,177 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Decorador de {@link Cache} que mantém em memória uma réplica das chaves mais acessadas.
+ *
+ * Cada leitura registra o acesso no {@link FrequencySketch} e, quando a frequência estimada da
+ * chave atinge o limite configurado, o valor lido do Redis é copiado para uma réplica local com
+ * tempo de expiração curto, evitando que as chaves quentes concentrem as requisições em um único
+ * nó do Redis.
+ *
+ * Gravações e remoções descartam a chave da réplica local, e as alterações feitas em outras instâncias
+ * são recebidas pelo {@link CacheInvalidation}. Um valor lido do Redis só é promovido se nenhuma
+ * invalidação ocorreu durante a leitura, e o tempo de expiração curto limita a defasagem caso uma
+ * notificação seja perdida.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class HotKeyCache implements Cache {
+
+	private final AtomicLong invalidacoes = new AtomicLong();
+	private final Cache delegate;
+	private final FrequencySketch sketch;
+	private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> replica;
+	private final int limite;
+
+	/**
+	 * @param delegate cache decorado.
+	 * @param sketch estimativa da frequência de acesso das chaves.
+	 * @param replica réplica local das chaves quentes.
+	 * @param limite frequência estimada a partir da qual a chave é considerada quente.
+	 */
+	public HotKeyCache(Cache delegate, FrequencySketch sketch, com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> replica,
+			int limite) {
+		this.delegate = delegate;
+		this.sketch = sketch;
+		this.replica = replica;
+		this.limite = limite;
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		boolean quente = this.sketch.incrementar(key) >= this.limite;
+		ValueWrapper replicado = this.replica.getIfPresent(key);
+		if (replicado != null)
+			return replicado;
+
+		long geracao = this.invalidacoes.get();
+		ValueWrapper wrapper = this.delegate.get(key);
+		if (quente && wrapper != null)
+			this.promover(key, wrapper, geracao);
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = this.get(key);
+		Object value = wrapper != null ? wrapper.get() : null;
+
+		if (value != null && type != null && !type.isInstance(value))
+			throw new IllegalStateException("O valor do cache não é do tipo " + type.getName() + ": " + value);
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		boolean quente = this.sketch.incrementar(key) >= this.limite;
+		ValueWrapper replicado = this.replica.getIfPresent(key);
+		if (replicado != null)
+			return (T) replicado.get();
+
+		long geracao = this.invalidacoes.get();
+		T value = this.delegate.get(key, valueLoader);
+		if (quente && value != null)
+			this.promover(key, new SimpleValueWrapper(value), geracao);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.delegate.put(key, value);
+		this.invalidar(key);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existente = this.delegate.putIfAbsent(key, value);
+		if (existente == null)
+			this.invalidar(key);
+		return existente;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.delegate.evict(key);
+		this.invalidar(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean removido = this.delegate.evictIfPresent(key);
+		this.invalidar(key);
+		return removido;
+	}
+
+	@Override
+	public void clear() {
+		this.delegate.clear();
+		this.invalidar(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean removido = this.delegate.invalidate();
+		this.invalidar(null);
+		return removido;
+	}
+
+	/**
+	 * Descarta da réplica local a chave alterada em outra instância.
+	 *
+	 * @param key representação textual da chave ou nula para descartar toda a réplica.
+	 */
+	public void invalidarReplica(String key) {
+		this.invalidacoes.incrementAndGet();
+		if (key == null)
+			this.replica.invalidateAll();
+		else
+			this.replica.asMap().keySet().removeIf(chave -> key.equals(String.valueOf(chave)));
+	}
+
+	/**
+	 * @return as chaves presentes na réplica local e a sua frequência estimada, da mais acessada para a menos acessada.
+	 */
+	public Map<String, Integer> chavesQuentes() {
+		Map<String, Integer> chaves = new LinkedHashMap<>();
+		this.replica.asMap().keySet().stream()
+				.sorted(Comparator.comparingInt(this.sketch::frequencia).reversed())
+				.forEach(chave -> chaves.put(String.valueOf(chave), this.sketch.frequencia(chave)));
+		return chaves;
+	}
+
+	private void promover(Object key, ValueWrapper wrapper, long geracao) {
+		this.replica.put(key, wrapper);
+		if (this.invalidacoes.get() != geracao)
+			this.replica.invalidate(key);
+	}
+
+	private void invalidar(Object key) {
+		this.invalidacoes.incrementAndGet();
+		if (key == null)
+			this.replica.invalidateAll();
+		else
+			this.replica.invalidate(key);
+	}
+
+}
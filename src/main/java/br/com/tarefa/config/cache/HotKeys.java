@@ -0,0 +1,88 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Configuração da detecção de chaves quentes ({@link HotKeyCache}).
+ *
+ * As réplicas locais são registradas no {@link CacheInvalidation} para descartar as chaves
+ * alteradas em outras instâncias da aplicação.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class HotKeys {
+
+	@Value("${application.cache.hot-keys.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.hot-keys.caches:usuarios,tarefas}")
+	private List<String> caches;
+	@Value("${application.cache.hot-keys.threshold:50}")
+	private int threshold;
+	@Value("${application.cache.hot-keys.sketch-width:4096}")
+	private int sketchWidth;
+	@Value("${application.cache.hot-keys.max-size:1000}")
+	private long maxSize;
+	@Value("${application.cache.hot-keys.expiration:2000}")
+	private long expiration;
+
+	private final ConcurrentMap<String, HotKeyCache> decorados = new ConcurrentHashMap<>();
+	private final CacheInvalidation cacheInvalidation;
+
+	public HotKeys(CacheInvalidation cacheInvalidation) {
+		this.cacheInvalidation = cacheInvalidation;
+	}
+
+	/**
+	 * Envolve o cache com o {@link HotKeyCache} quando a detecção de chaves quentes estiver
+	 * habilitada para o cache.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.enabled || !this.caches.contains(cache.getName()))
+			return cache;
+
+		HotKeyCache hotKeyCache = new HotKeyCache(cache, new FrequencySketch(this.sketchWidth),
+				Caffeine.newBuilder()
+						.maximumSize(this.maxSize)
+						.expireAfterWrite(this.expiration, TimeUnit.MILLISECONDS)
+						.build(),
+				this.threshold);
+		this.decorados.put(cache.getName(), hotKeyCache);
+		this.cacheInvalidation.registrar(cache.getName(), hotKeyCache::invalidarReplica);
+		return hotKeyCache;
+	}
+
+	/**
+	 * @return as chaves quentes de cada cache, da mais acessada para a menos acessada.
+	 */
+	public Map<String, Map<String, Integer>> chavesQuentes() {
+		Map<String, Map<String, Integer>> chaves = new LinkedHashMap<>();
+		this.decorados.forEach((cacheName, cache) -> chaves.put(cacheName, cache.chavesQuentes()));
+		return chaves;
+	}
+
+	/**
+	 * @param cacheName nome do cache.
+	 * @return as chaves quentes do cache, da mais acessada para a menos acessada.
+	 */
+	public Map<String, Integer> chavesQuentes(String cacheName) {
+		HotKeyCache cache = this.decorados.get(cacheName);
+		return cache != null ? cache.chavesQuentes() : Collections.emptyMap();
+	}
+
+}
@@ -0,0 +1,36 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint do actuator ('/actuator/hotkeys') que lista as chaves quentes replicadas em memória
+ * em cada cache, com a sua frequência estimada de acesso.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+	private final HotKeys hotKeys;
+
+	public HotKeysEndpoint(HotKeys hotKeys) {
+		this.hotKeys = hotKeys;
+	}
+
+	@ReadOperation
+	public Map<String, Map<String, Integer>> chavesQuentes() {
+		return this.hotKeys.chavesQuentes();
+	}
+
+	@ReadOperation
+	public Map<String, Integer> chavesQuentes(@Selector String cache) {
+		return this.hotKeys.chavesQuentes(cache);
+	}
+
+}
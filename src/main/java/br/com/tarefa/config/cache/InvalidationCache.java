@@ -0,0 +1,94 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Decorador de {@link Cache} que notifica as chaves gravadas ou removidas após a alteração no cache
+ * decorado, utilizado para que as demais instâncias descartem as suas cópias locais e para invalidar
+ * as respostas em cache.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class InvalidationCache implements Cache {
+
+	private final Cache delegate;
+	private final Consumer<Object> notificador;
+
+	/**
+	 * @param delegate cache decorado.
+	 * @param notificador recebe a chave alterada ou, quando nula, a limpeza do cache.
+	 */
+	public InvalidationCache(Cache delegate, Consumer<Object> notificador) {
+		this.delegate = delegate;
+		this.notificador = notificador;
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return this.delegate.get(key);
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return this.delegate.get(key, type);
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return this.delegate.get(key, valueLoader);
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.delegate.put(key, value);
+		this.notificador.accept(key);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existente = this.delegate.putIfAbsent(key, value);
+		if (existente == null)
+			this.notificador.accept(key);
+		return existente;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.delegate.evict(key);
+		this.notificador.accept(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean removido = this.delegate.evictIfPresent(key);
+		this.notificador.accept(key);
+		return removido;
+	}
+
+	@Override
+	public void clear() {
+		this.delegate.clear();
+		this.notificador.accept(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean removido = this.delegate.invalidate();
+		this.notificador.accept(null);
+		return removido;
+	}
+
+}
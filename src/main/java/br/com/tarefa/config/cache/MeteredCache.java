@@ -0,0 +1,116 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Decorador de {@link Cache} que registra hits, misses, gravações, remoções e a latência
+ * dos carregamentos no {@link CacheMetrics}.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class MeteredCache implements Cache {
+
+	private final Cache delegate;
+	private final CacheMetrics cacheMetrics;
+	private final CacheMetrics.Estatisticas estatisticas;
+
+	public MeteredCache(Cache delegate, CacheMetrics cacheMetrics) {
+		this.delegate = delegate;
+		this.cacheMetrics = cacheMetrics;
+		this.estatisticas = cacheMetrics.estatisticas(delegate);
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return this.registrarBusca(key, this.delegate.get(key));
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return this.registrarBusca(key, this.delegate.get(key, type));
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		boolean[] carregado = new boolean[1];
+		T value = this.delegate.get(key, () -> {
+			carregado[0] = true;
+			long inicio = System.nanoTime();
+			try {
+				return valueLoader.call();
+			} finally {
+				this.cacheMetrics.registrarCarregamento(this.getName(), System.nanoTime() - inicio);
+			}
+		});
+
+		if (carregado[0]) {
+			this.estatisticas.miss(key);
+			this.estatisticas.put();
+		} else {
+			this.estatisticas.hit(key);
+		}
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.delegate.put(key, value);
+		this.estatisticas.put();
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existente = this.delegate.putIfAbsent(key, value);
+		if (existente == null)
+			this.estatisticas.put();
+		return existente;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.delegate.evict(key);
+		this.estatisticas.eviction();
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean removido = this.delegate.evictIfPresent(key);
+		if (removido)
+			this.estatisticas.eviction();
+		return removido;
+	}
+
+	@Override
+	public void clear() {
+		this.delegate.clear();
+		this.estatisticas.eviction();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean removido = this.delegate.invalidate();
+		this.estatisticas.eviction();
+		return removido;
+	}
+
+	private <T> T registrarBusca(Object key, T value) {
+		if (value != null)
+			this.estatisticas.hit(key);
+		else
+			this.estatisticas.miss(key);
+		return value;
+	}
+
+}
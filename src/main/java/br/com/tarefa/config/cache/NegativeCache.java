@@ -0,0 +1,55 @@
+package br.com.tarefa.config.cache;
+
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache negativo (tombstones) para chaves que não existem no banco de dados.
+ *
+ * Quando uma consulta não encontra o registro, a chave é marcada como inexistente em um
+ * cache de expiração curta, fazendo com que as próximas buscas pela mesma chave consultem
+ * apenas o cache. A marcação deve ser removida quando o registro for criado.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class NegativeCache {
+
+	public static final String CACHE_TAREFAS_INEXISTENTES = "tarefasInexistentes";
+	public static final String CACHE_USUARIOS_INEXISTENTES = "usuariosInexistentes";
+	private static final String TOMBSTONE = "inexistente";
+
+	private final CacheManager cacheManager;
+
+	public NegativeCache(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Executa a consulta somente se a chave não estiver marcada como inexistente, marcando-a
+	 * caso a consulta não encontre o registro.
+	 *
+	 * @param cacheName nome do cache de chaves inexistentes.
+	 * @param key chave consultada.
+	 * @param loader consulta ao banco de dados.
+	 * @return o valor encontrado pela consulta, ou null se a chave não existir.
+	 */
+	public <T> T load(String cacheName, Object key, Supplier<T> loader) {
+		Cache cache = this.cacheManager.getCache(cacheName);
+		if (cache == null)
+			return loader.get();
+
+		if (cache.get(key) != null)
+			return null;
+
+		T value = loader.get();
+		if (value == null)
+			cache.put(key, TOMBSTONE);
+
+		return value;
+	}
+
+}
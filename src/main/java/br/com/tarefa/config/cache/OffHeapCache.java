@@ -0,0 +1,174 @@
+package br.com.tarefa.config.cache;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+/**
+ * Decorador de {@link Cache} que mantém uma cópia dos valores serializados no {@link OffHeapStore},
+ * consultada antes do Redis.
+ *
+ * Os valores são gravados com o mesmo serializador utilizado no Redis, de modo que apenas os bytes
+ * ocupam memória fora do heap e o objeto é reconstruído a cada leitura. Somente chaves UUID são
+ * armazenadas fora do heap; as demais são lidas diretamente do cache decorado.
+ *
+ * Gravações e remoções descartam a cópia local, e as alterações feitas em outras instâncias são
+ * recebidas pelo {@link CacheInvalidation}. Um valor lido do Redis só é copiado se nenhuma
+ * invalidação ocorreu durante a leitura.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class OffHeapCache implements Cache {
+
+	private final AtomicLong invalidacoes = new AtomicLong();
+	private final Cache delegate;
+	private final OffHeapStore store;
+	private final SerializationPair<Object> serializationPair;
+
+	public OffHeapCache(Cache delegate, OffHeapStore store, SerializationPair<Object> serializationPair) {
+		this.delegate = delegate;
+		this.store = store;
+		this.serializationPair = serializationPair;
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		if (!(key instanceof UUID))
+			return this.delegate.get(key);
+
+		Object value = this.buscarLocal((UUID) key);
+		if (value != null)
+			return new SimpleValueWrapper(value);
+
+		long geracao = this.invalidacoes.get();
+		ValueWrapper wrapper = this.delegate.get(key);
+		if (wrapper != null)
+			this.copiar((UUID) key, wrapper.get(), geracao);
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = this.get(key);
+		Object value = wrapper != null ? wrapper.get() : null;
+
+		if (value != null && type != null && !type.isInstance(value))
+			throw new IllegalStateException("O valor do cache não é do tipo " + type.getName() + ": " + value);
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		if (!(key instanceof UUID))
+			return this.delegate.get(key, valueLoader);
+
+		Object local = this.buscarLocal((UUID) key);
+		if (local != null)
+			return (T) local;
+
+		long geracao = this.invalidacoes.get();
+		T value = this.delegate.get(key, valueLoader);
+		this.copiar((UUID) key, value, geracao);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.delegate.put(key, value);
+		this.invalidar(key);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existente = this.delegate.putIfAbsent(key, value);
+		if (existente == null)
+			this.invalidar(key);
+		return existente;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.delegate.evict(key);
+		this.invalidar(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean removido = this.delegate.evictIfPresent(key);
+		this.invalidar(key);
+		return removido;
+	}
+
+	@Override
+	public void clear() {
+		this.delegate.clear();
+		this.invalidar(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean removido = this.delegate.invalidate();
+		this.invalidar(null);
+		return removido;
+	}
+
+	/**
+	 * Descarta a cópia local da chave alterada em outra instância.
+	 *
+	 * @param key representação textual da chave ou nula para descartar todas as cópias.
+	 */
+	public void invalidarCopia(String key) {
+		UUID id = null;
+		if (key != null) {
+			try {
+				id = UUID.fromString(key);
+			} catch (IllegalArgumentException e) {
+				return;
+			}
+		}
+		this.invalidar(id);
+	}
+
+	private Object buscarLocal(UUID key) {
+		byte[] bytes = this.store.get(key);
+		return bytes != null ? this.serializationPair.read(ByteBuffer.wrap(bytes)) : null;
+	}
+
+	private void copiar(UUID key, Object value, long geracao) {
+		if (value == null)
+			return;
+
+		ByteBuffer buffer = this.serializationPair.write(value);
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		this.store.put(key, bytes);
+		if (this.invalidacoes.get() != geracao)
+			this.store.remove(key);
+	}
+
+	private void invalidar(Object key) {
+		this.invalidacoes.incrementAndGet();
+		if (key == null)
+			this.store.clear();
+		else if (key instanceof UUID)
+			this.store.remove((UUID) key);
+	}
+
+}
@@ -0,0 +1,383 @@
+package br.com.tarefa.config.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Armazenamento de valores serializados fora do heap, indexados por chaves UUID.
+ *
+ * Os valores são gravados em páginas de memória direta ({@link ByteBuffer#allocateDirect(int)})
+ * divididas em slots de tamanho fixo, agrupados em classes de tamanho que dobram a partir de 128
+ * bytes até o tamanho da página (alocador por slabs). Cada slot guarda a chave, o instante de
+ * expiração, o tamanho e os bytes do valor. O índice no heap é uma tabela de endereçamento aberto
+ * com a chave armazenada como dois longs, sem criar objetos por entrada.
+ *
+ * As páginas são alocadas sob demanda até a capacidade configurada. Quando a capacidade se esgota,
+ * um slot da mesma classe é reaproveitado pelo algoritmo do relógio (segunda chance), descartando
+ * a entrada menos acessada recentemente. O armazenamento é dividido em segmentos com bloqueio
+ * próprio para reduzir a contenção entre threads.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class OffHeapStore {
+
+	private static final int SEGMENTOS = 16;
+	private static final int MENOR_SLOT = 128;
+	private static final int CABECALHO = 28;
+	private static final long VAZIO = -1L;
+	private static final long REMOVIDO = -2L;
+
+	private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+	private final AtomicInteger paginasDisponiveis;
+	private final int tamanhoPagina;
+	private final int classes;
+	private final long expiracao;
+
+	/**
+	 * @param capacidade quantidade máxima de bytes alocados fora do heap.
+	 * @param tamanhoPagina tamanho em bytes de cada página alocada, que também limita o tamanho dos valores.
+	 * @param expiracao tempo em milissegundos que um valor permanece armazenado.
+	 */
+	public OffHeapStore(long capacidade, int tamanhoPagina, long expiracao) {
+		this.tamanhoPagina = Math.max(tamanhoPagina, MENOR_SLOT);
+		this.paginasDisponiveis = new AtomicInteger((int) Math.min(Integer.MAX_VALUE, capacidade / this.tamanhoPagina));
+		this.classes = 32 - Integer.numberOfLeadingZeros(this.tamanhoPagina / MENOR_SLOT);
+		this.expiracao = expiracao;
+		for (int i = 0; i < this.segmentos.length; i++)
+			this.segmentos[i] = new Segmento();
+	}
+
+	/**
+	 * @param key chave do valor.
+	 * @return os bytes armazenados para a chave ou nulo quando ausentes ou expirados.
+	 */
+	public byte[] get(UUID key) {
+		long msb = key.getMostSignificantBits();
+		long lsb = key.getLeastSignificantBits();
+		return this.segmento(msb, lsb).get(msb, lsb);
+	}
+
+	/**
+	 * Armazena o valor para a chave, substituindo o valor anterior.
+	 *
+	 * @param key chave do valor.
+	 * @param valor bytes do valor.
+	 * @return falso quando o valor é maior que a página ou não há memória disponível para a sua classe de tamanho.
+	 */
+	public boolean put(UUID key, byte[] valor) {
+		long msb = key.getMostSignificantBits();
+		long lsb = key.getLeastSignificantBits();
+		return this.segmento(msb, lsb).put(msb, lsb, valor);
+	}
+
+	/**
+	 * @param key chave a ser removida.
+	 */
+	public void remove(UUID key) {
+		long msb = key.getMostSignificantBits();
+		long lsb = key.getLeastSignificantBits();
+		this.segmento(msb, lsb).remove(msb, lsb);
+	}
+
+	/**
+	 * Remove todos os valores, mantendo as páginas alocadas para reutilização.
+	 */
+	public void clear() {
+		for (Segmento segmento : this.segmentos)
+			segmento.clear();
+	}
+
+	/**
+	 * @return a quantidade de valores armazenados, incluindo os expirados ainda não descartados.
+	 */
+	public long size() {
+		long total = 0;
+		for (Segmento segmento : this.segmentos)
+			total += segmento.tamanho();
+		return total;
+	}
+
+	/**
+	 * @return a quantidade de bytes alocados fora do heap.
+	 */
+	public long bytesAlocados() {
+		long total = 0;
+		for (Segmento segmento : this.segmentos)
+			total += segmento.paginas() * (long) this.tamanhoPagina;
+		return total;
+	}
+
+	private Segmento segmento(long msb, long lsb) {
+		return this.segmentos[(int) (hash(msb, lsb) >>> 40) & (SEGMENTOS - 1)];
+	}
+
+	private static long hash(long msb, long lsb) {
+		long h = msb ^ Long.rotateLeft(lsb, 32);
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static long referencia(int classe, int slot) {
+		return ((long) classe << 32) | slot;
+	}
+
+	/**
+	 * Parte do armazenamento com índice e slabs próprios, protegida por um único bloqueio.
+	 */
+	private final class Segmento {
+
+		private final Slab[] slabs = new Slab[classes];
+		private long[] msbs;
+		private long[] lsbs;
+		private long[] referencias;
+		private int ocupados;
+		private int utilizados;
+
+		private Segmento() {
+			for (int i = 0; i < this.slabs.length; i++)
+				this.slabs[i] = new Slab(MENOR_SLOT << i);
+			this.criarIndice(1024);
+		}
+
+		private synchronized byte[] get(long msb, long lsb) {
+			int posicao = this.procurar(msb, lsb);
+			if (posicao < 0)
+				return null;
+
+			long referencia = this.referencias[posicao];
+			Slab slab = this.slabs[(int) (referencia >>> 32)];
+			int slot = (int) referencia;
+			ByteBuffer pagina = slab.pagina(slot);
+			int offset = slab.offset(slot);
+
+			if (pagina.getLong(offset + 16) < System.currentTimeMillis()) {
+				this.descartar(posicao);
+				return null;
+			}
+
+			byte[] valor = new byte[pagina.getInt(offset + 24)];
+			ByteBuffer leitura = pagina.duplicate();
+			leitura.position(offset + CABECALHO);
+			leitura.get(valor);
+			slab.referenciados[slot] = 1;
+			return valor;
+		}
+
+		private synchronized boolean put(long msb, long lsb, byte[] valor) {
+			int posicao = this.procurar(msb, lsb);
+			if (posicao >= 0)
+				this.descartar(posicao);
+
+			int classe = this.classe(CABECALHO + valor.length);
+			if (classe < 0)
+				return false;
+
+			Slab slab = this.slabs[classe];
+			int slot = slab.alocar(this);
+			if (slot < 0)
+				return false;
+
+			ByteBuffer pagina = slab.pagina(slot);
+			int offset = slab.offset(slot);
+			pagina.putLong(offset, msb);
+			pagina.putLong(offset + 8, lsb);
+			pagina.putLong(offset + 16, System.currentTimeMillis() + expiracao);
+			pagina.putInt(offset + 24, valor.length);
+			ByteBuffer escrita = pagina.duplicate();
+			escrita.position(offset + CABECALHO);
+			escrita.put(valor);
+			slab.referenciados[slot] = 0;
+
+			this.inserir(msb, lsb, referencia(classe, slot));
+			return true;
+		}
+
+		private synchronized void remove(long msb, long lsb) {
+			int posicao = this.procurar(msb, lsb);
+			if (posicao >= 0)
+				this.descartar(posicao);
+		}
+
+		private synchronized void clear() {
+			for (Slab slab : this.slabs)
+				slab.liberarTodos();
+			this.criarIndice(1024);
+		}
+
+		private synchronized int tamanho() {
+			return this.ocupados;
+		}
+
+		private synchronized int paginas() {
+			int total = 0;
+			for (Slab slab : this.slabs)
+				total += slab.paginas.size();
+			return total;
+		}
+
+		private int classe(int tamanho) {
+			for (int i = 0; i < this.slabs.length; i++) {
+				if (tamanho <= this.slabs[i].tamanhoSlot)
+					return i;
+			}
+			return -1;
+		}
+
+		private int procurar(long msb, long lsb) {
+			int mascara = this.referencias.length - 1;
+			for (int i = (int) hash(msb, lsb) & mascara;; i = (i + 1) & mascara) {
+				long referencia = this.referencias[i];
+				if (referencia == VAZIO)
+					return -1;
+				if (referencia != REMOVIDO && this.msbs[i] == msb && this.lsbs[i] == lsb)
+					return i;
+			}
+		}
+
+		private void inserir(long msb, long lsb, long referencia) {
+			if ((this.utilizados + 1) * 2 > this.referencias.length)
+				this.redimensionar();
+
+			int mascara = this.referencias.length - 1;
+			int i = (int) hash(msb, lsb) & mascara;
+			while (this.referencias[i] >= 0)
+				i = (i + 1) & mascara;
+
+			if (this.referencias[i] == VAZIO)
+				this.utilizados++;
+			this.msbs[i] = msb;
+			this.lsbs[i] = lsb;
+			this.referencias[i] = referencia;
+			this.ocupados++;
+		}
+
+		/**
+		 * Remove a entrada do índice e devolve o seu slot para a lista de slots livres.
+		 */
+		private void descartar(int posicao) {
+			long referencia = this.referencias[posicao];
+			this.slabs[(int) (referencia >>> 32)].liberar((int) referencia);
+			this.remover(posicao);
+		}
+
+		private void remover(int posicao) {
+			this.referencias[posicao] = REMOVIDO;
+			this.ocupados--;
+		}
+
+		private void redimensionar() {
+			long[] antigosMsbs = this.msbs;
+			long[] antigosLsbs = this.lsbs;
+			long[] antigasReferencias = this.referencias;
+			this.criarIndice(Math.max(1024, Integer.highestOneBit(Math.max(this.ocupados, 1)) << 2));
+
+			for (int i = 0; i < antigasReferencias.length; i++) {
+				if (antigasReferencias[i] >= 0)
+					this.inserir(antigosMsbs[i], antigosLsbs[i], antigasReferencias[i]);
+			}
+		}
+
+		private void criarIndice(int capacidade) {
+			this.msbs = new long[capacidade];
+			this.lsbs = new long[capacidade];
+			this.referencias = new long[capacidade];
+			Arrays.fill(this.referencias, VAZIO);
+			this.ocupados = 0;
+			this.utilizados = 0;
+		}
+
+	}
+
+	/**
+	 * Páginas de uma classe de tamanho, divididas em slots de tamanho fixo.
+	 */
+	private final class Slab {
+
+		private final List<ByteBuffer> paginas = new ArrayList<>();
+		private final int tamanhoSlot;
+		private final int slotsPorPagina;
+		private int[] livres = new int[0];
+		private int quantidadeLivres;
+		private byte[] referenciados = new byte[0];
+		private int totalSlots;
+		private int relogio;
+
+		private Slab(int tamanhoSlot) {
+			this.tamanhoSlot = tamanhoSlot;
+			this.slotsPorPagina = tamanhoPagina / tamanhoSlot;
+		}
+
+		/**
+		 * Retorna um slot livre, alocando uma nova página ou reaproveitando o slot de uma entrada
+		 * pouco acessada quando a capacidade estiver esgotada.
+		 */
+		private int alocar(Segmento segmento) {
+			if (this.quantidadeLivres == 0 && !this.novaPagina())
+				return this.reaproveitar(segmento);
+			return this.livres[--this.quantidadeLivres];
+		}
+
+		private boolean novaPagina() {
+			if (paginasDisponiveis.getAndUpdate(paginas -> paginas > 0 ? paginas - 1 : paginas) <= 0)
+				return false;
+
+			this.paginas.add(ByteBuffer.allocateDirect(tamanhoPagina));
+			int inicio = this.totalSlots;
+			this.totalSlots += this.slotsPorPagina;
+			this.livres = Arrays.copyOf(this.livres, this.totalSlots);
+			this.referenciados = Arrays.copyOf(this.referenciados, this.totalSlots);
+			for (int slot = this.totalSlots - 1; slot >= inicio; slot--)
+				this.livres[this.quantidadeLivres++] = slot;
+			return true;
+		}
+
+		private int reaproveitar(Segmento segmento) {
+			if (this.totalSlots == 0)
+				return -1;
+
+			while (true) {
+				int slot = this.relogio;
+				this.relogio = (this.relogio + 1) % this.totalSlots;
+				if (this.referenciados[slot] == 1) {
+					this.referenciados[slot] = 0;
+					continue;
+				}
+
+				ByteBuffer pagina = this.pagina(slot);
+				int offset = this.offset(slot);
+				int posicao = segmento.procurar(pagina.getLong(offset), pagina.getLong(offset + 8));
+				if (posicao >= 0)
+					segmento.remover(posicao);
+				return slot;
+			}
+		}
+
+		private void liberar(int slot) {
+			this.livres[this.quantidadeLivres++] = slot;
+		}
+
+		private void liberarTodos() {
+			this.quantidadeLivres = 0;
+			for (int slot = this.totalSlots - 1; slot >= 0; slot--)
+				this.livres[this.quantidadeLivres++] = slot;
+			Arrays.fill(this.referenciados, (byte) 0);
+			this.relogio = 0;
+		}
+
+		private ByteBuffer pagina(int slot) {
+			return this.paginas.get(slot / this.slotsPorPagina);
+		}
+
+		private int offset(int slot) {
+			return (slot % this.slotsPorPagina) * this.tamanhoSlot;
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package br.com.tarefa.config.cache;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuração da camada fora do heap ({@link OffHeapCache}) para os caches cujos valores
+ * serializados devem ser mantidos em memória em grande quantidade sem aumentar o heap.
+ *
+ * A camada utiliza o serializador e o tempo de expiração configurados para o cache no Redis e
+ * publica a quantidade de entradas e de bytes alocados ('cache.offheap.size' e
+ * 'cache.offheap.bytes').
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class OffHeapTier {
+
+	@Value("${application.cache.off-heap.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.off-heap.caches:tarefas}")
+	private List<String> caches;
+	@Value("${application.cache.off-heap.capacity:268435456}")
+	private long capacity;
+	@Value("${application.cache.off-heap.page-size:1048576}")
+	private int pageSize;
+
+	private final CacheInvalidation cacheInvalidation;
+	private final MeterRegistry meterRegistry;
+
+	public OffHeapTier(CacheInvalidation cacheInvalidation, MeterRegistry meterRegistry) {
+		this.cacheInvalidation = cacheInvalidation;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Envolve o cache com o {@link OffHeapCache} quando a camada estiver habilitada para o cache
+	 * e o cache original estiver no Redis.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @param original cache original, sem os decoradores, de onde são obtidos o serializador e a expiração.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache, Cache original) {
+		if (!this.enabled || !this.caches.contains(cache.getName()) || !(original instanceof RedisCache))
+			return cache;
+
+		String cacheName = cache.getName();
+		OffHeapStore store = new OffHeapStore(this.capacity, this.pageSize,
+				((RedisCache) original).getCacheConfiguration().getTtl().toMillis());
+		OffHeapCache offHeapCache = new OffHeapCache(cache, store,
+				((RedisCache) original).getCacheConfiguration().getValueSerializationPair());
+
+		Gauge.builder("cache.offheap.size", store, OffHeapStore::size)
+				.tag("cache", cacheName)
+				.description("Quantidade de entradas armazenadas fora do heap")
+				.register(this.meterRegistry);
+		Gauge.builder("cache.offheap.bytes", store, OffHeapStore::bytesAlocados)
+				.tag("cache", cacheName)
+				.baseUnit("bytes")
+				.description("Bytes alocados fora do heap")
+				.register(this.meterRegistry);
+
+		this.cacheInvalidation.registrar(cacheName, offHeapCache::invalidarCopia);
+		return offHeapCache;
+	}
+
+}
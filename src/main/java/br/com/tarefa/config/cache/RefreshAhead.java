@@ -0,0 +1,103 @@
+package br.com.tarefa.config.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.repositories.UsuarioRepository;
+
+/**
+ * Configuração do refresh-ahead dos caches cujas entradas mais acessadas devem ser recarregadas
+ * do banco de dados antes de expirarem.
+ *
+ * Quando uma entrada é lida após ultrapassar a fração configurada do tempo de expiração,
+ * o recarregamento é agendado em um pool de threads limitado e a requisição recebe o valor
+ * atual do cache. Se o pool estiver ocupado, o recarregamento é rejeitado e a entrada segue
+ * o fluxo normal de expiração, podendo ser agendada novamente na próxima leitura.
+ *
+ * O valor recarregado é comparado pela versão (a data da última atualização, no caso dos usuários):
+ * sem alteração, apenas a expiração é renovada; com alteração, o valor é gravado pelo cache obtido
+ * do {@link CacheManager}, com todos os decoradores.
+ *
+ * Atualmente apenas o cache 'usuarios', consultado a cada requisição autenticada, é recarregado.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class RefreshAhead implements DisposableBean {
+
+	private static final String CACHE_USUARIOS = "usuarios";
+
+	@Value("${application.cache.refresh-ahead.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.refresh-ahead.fraction:0.8}")
+	private double fraction;
+	@Value("${spring.cache.redis.time-to-live}")
+	private long cacheExpiration;
+
+	private final Map<String, Function<Object, Object>> loaders = new HashMap<>();
+	private final Map<String, Function<Object, Object>> versoes = new HashMap<>();
+	private final ObjectProvider<CacheManager> cacheManager;
+	private final StringRedisTemplate redisTemplate;
+	private final CacheCircuitBreaker circuitBreaker;
+	private final ThreadPoolExecutor executor;
+
+	public RefreshAhead(UsuarioRepository usuarioRepository, ObjectProvider<CacheManager> cacheManager,
+			StringRedisTemplate redisTemplate, CacheCircuitBreaker circuitBreaker, @Value("${application.cache.refresh-ahead.threads:2}") int threads,
+			@Value("${application.cache.refresh-ahead.queue-capacity:1000}") int queueCapacity) {
+		this.cacheManager = cacheManager;
+		this.redisTemplate = redisTemplate;
+		this.circuitBreaker = circuitBreaker;
+
+		AtomicInteger contador = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "cache-refresh-ahead-" + contador.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+
+		this.loaders.put(CACHE_USUARIOS, key -> key instanceof UUID
+				? usuarioRepository.findById((UUID) key).orElse(null)
+				: usuarioRepository.findByNomeUsuario(String.valueOf(key)).orElse(null));
+		this.versoes.put(CACHE_USUARIOS, usuario -> usuario instanceof Usuario ? ((Usuario) usuario).getDataAtualizacao() : null);
+	}
+
+	/**
+	 * Envolve o cache com o {@link RefreshAheadCache} quando o refresh-ahead estiver habilitado
+	 * e houver uma consulta de recarregamento para o cache.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		Function<Object, Object> loader = this.loaders.get(cache.getName());
+		if (!this.enabled || loader == null)
+			return cache;
+
+		String name = cache.getName();
+		return new RefreshAheadCache(cache, () -> this.cacheManager.getObject().getCache(name), loader,
+				this.versoes.get(name), this.executor, this.redisTemplate, this.circuitBreaker, this.cacheExpiration,
+				(long) (this.cacheExpiration * this.fraction));
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,279 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorador de {@link Cache} que recarrega em segundo plano as entradas lidas após o
+ * limite de refresh, devolvendo à requisição o valor atual do cache.
+ *
+ * O momento em que cada entrada foi gravada é registrado localmente nas gravações feitas por
+ * esta instância. Para entradas gravadas por outra instância, o tempo restante é consultado
+ * no Redis (PTTL) pela própria tarefa de recarregamento, fora da requisição.
+ *
+ * Antes da consulta, o recarregamento obtém a assinatura (SHA-1) do valor armazenado no Redis, e só
+ * altera a entrada se ela continuar a mesma, de modo que uma gravação feita por qualquer instância
+ * enquanto a consulta era executada não é sobrescrita. Se a versão consultada for a mesma do valor
+ * em cache, apenas a expiração da entrada é renovada, por um script que compara a assinatura. Caso
+ * contrário, a entrada é removida e gravada com {@link Cache#putIfAbsent(Object, Object)} pelo cache
+ * decorado por completo, para que os demais decoradores e instâncias sejam notificados; uma gravação
+ * concorrente entre a remoção e a gravação prevalece sobre o valor recarregado.
+ *
+ * As consultas ao Redis só são enviadas com o {@link CacheCircuitBreaker} fechado, e as falhas são
+ * registradas nele; sem o Redis, o recarregamento é abandonado e a entrada segue o fluxo normal
+ * de expiração.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+public class RefreshAheadCache implements Cache {
+
+	private static final int LIMITE_CHAVES = 100_000;
+	private static final RedisScript<String> SCRIPT_ASSINATURA = new DefaultRedisScript<>(
+			"local valor = redis.call('GET', KEYS[1]) "
+			+ "if valor then return redis.sha1hex(valor) end "
+			+ "return false", String.class);
+	private static final RedisScript<Long> SCRIPT_RENOVAR = new DefaultRedisScript<>(
+			"local valor = redis.call('GET', KEYS[1]) "
+			+ "if valor and redis.sha1hex(valor) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+			+ "return 0", Long.class);
+
+	private final ConcurrentMap<Object, Long> gravacoes = new ConcurrentHashMap<>();
+	private final Set<Object> recarregando = ConcurrentHashMap.newKeySet();
+	private final Cache delegate;
+	private final Supplier<Cache> decorado;
+	private final Function<Object, Object> loader;
+	private final Function<Object, Object> versao;
+	private final Executor executor;
+	private final StringRedisTemplate redisTemplate;
+	private final CacheCircuitBreaker circuitBreaker;
+	private final long expiration;
+	private final long refreshAfter;
+
+	/**
+	 * @param delegate cache envolvido.
+	 * @param decorado fornece o cache com todos os decoradores, usado na gravação do valor recarregado.
+	 * @param loader consulta do valor atual da chave no banco de dados.
+	 * @param versao versão de um valor, comparada para decidir se a entrada foi alterada.
+	 */
+	public RefreshAheadCache(Cache delegate, Supplier<Cache> decorado, Function<Object, Object> loader,
+			Function<Object, Object> versao, Executor executor, StringRedisTemplate redisTemplate,
+			CacheCircuitBreaker circuitBreaker, long expiration, long refreshAfter) {
+		this.delegate = delegate;
+		this.decorado = decorado;
+		this.loader = loader;
+		this.versao = versao;
+		this.executor = executor;
+		this.redisTemplate = redisTemplate;
+		this.circuitBreaker = circuitBreaker;
+		this.expiration = expiration;
+		this.refreshAfter = refreshAfter;
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return this.verificar(key, this.delegate.get(key));
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return this.verificar(key, this.delegate.get(key, type));
+	}
+
+	@Override
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		return this.verificar(key, this.delegate.get(key, valueLoader));
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.delegate.put(key, value);
+		this.registrarGravacao(key, System.currentTimeMillis());
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		ValueWrapper existente = this.delegate.putIfAbsent(key, value);
+		if (existente == null)
+			this.registrarGravacao(key, System.currentTimeMillis());
+		return existente;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.delegate.evict(key);
+		this.gravacoes.remove(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		this.gravacoes.remove(key);
+		return this.delegate.evictIfPresent(key);
+	}
+
+	@Override
+	public void clear() {
+		this.delegate.clear();
+		this.gravacoes.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		this.gravacoes.clear();
+		return this.delegate.invalidate();
+	}
+
+	private <T> T verificar(Object key, T value) {
+		if (value == null)
+			return value;
+
+		Long gravacao = this.gravacoes.get(key);
+		if (gravacao != null && System.currentTimeMillis() - gravacao < this.refreshAfter)
+			return value;
+
+		Object atual = value instanceof ValueWrapper ? ((ValueWrapper) value).get() : value;
+		if (this.recarregando.add(key)) {
+			try {
+				this.executor.execute(() -> this.recarregar(key, atual, gravacao == null));
+			} catch (RejectedExecutionException e) {
+				this.recarregando.remove(key);
+			}
+		}
+		return value;
+	}
+
+	private void recarregar(Object key, Object atual, boolean semGravacaoLocal) {
+		try {
+			if (semGravacaoLocal && this.registrarTempoRestante(key))
+				return;
+
+			Object assinatura = this.assinatura(key);
+			if (assinatura == null)
+				return;
+
+			Object value = this.loader.apply(key);
+			if (value != null && Objects.equals(this.versao.apply(value), this.versao.apply(atual))) {
+				if (this.renovar(key, assinatura))
+					this.registrarGravacao(key, System.currentTimeMillis());
+				return;
+			}
+
+			if (!assinatura.equals(this.assinatura(key)))
+				return;
+
+			Cache cache = this.decorado.get();
+			cache.evict(key);
+			if (value != null)
+				cache.putIfAbsent(key, value);
+		} catch (DataAccessException e) {
+			log.debug("Redis indisponível para recarregar a chave {} do cache {}", key, this.getName());
+		} catch (RuntimeException e) {
+			log.warn("Falha ao recarregar a chave {} do cache {}", key, this.getName(), e);
+		} finally {
+			this.recarregando.remove(key);
+		}
+	}
+
+	/**
+	 * @return a assinatura do valor armazenado no Redis ou, sem o Redis, o próprio valor; nulo se a
+	 *         entrada não existir mais.
+	 */
+	private Object assinatura(Object key) {
+		if (this.redisTemplate == null) {
+			ValueWrapper wrapper = this.delegate.get(key);
+			return wrapper != null ? wrapper.get() : null;
+		}
+		return this.executarNoRedis(() -> this.redisTemplate.execute(SCRIPT_ASSINATURA, Collections.singletonList(this.chaveRedis(key))));
+	}
+
+	/**
+	 * Renova a expiração da entrada se o valor armazenado ainda tiver a assinatura informada.
+	 *
+	 * @return true se a expiração foi renovada.
+	 */
+	private boolean renovar(Object key, Object assinatura) {
+		if (this.redisTemplate == null)
+			return assinatura.equals(this.assinatura(key));
+
+		Long renovado = this.executarNoRedis(() -> this.redisTemplate.execute(SCRIPT_RENOVAR,
+				Collections.singletonList(this.chaveRedis(key)), String.valueOf(assinatura), String.valueOf(this.expiration)));
+		return renovado != null && renovado == 1;
+	}
+
+	/**
+	 * Executa a operação no Redis se o circuito estiver fechado, registrando as falhas no circuit breaker.
+	 *
+	 * @return o resultado da operação ou nulo se o circuito não estiver fechado.
+	 */
+	private <T> T executarNoRedis(Supplier<T> operacao) {
+		if (!this.circuitBreaker.isFechado())
+			return null;
+
+		try {
+			return operacao.get();
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			throw e;
+		}
+	}
+
+	private String chaveRedis(Object key) {
+		return this.getName() + "::" + key;
+	}
+
+	/**
+	 * Registra o momento aproximado da gravação de uma entrada feita por outra instância a partir
+	 * do tempo restante no Redis.
+	 *
+	 * @return true se a entrada ainda não atingiu o limite de refresh.
+	 */
+	private boolean registrarTempoRestante(Object key) {
+		if (this.redisTemplate == null)
+			return false;
+
+		Long restante = this.executarNoRedis(() -> this.redisTemplate.getExpire(this.chaveRedis(key), TimeUnit.MILLISECONDS));
+		if (restante == null || restante <= 0)
+			return false;
+
+		long idade = this.expiration - restante;
+		if (idade >= this.refreshAfter)
+			return false;
+
+		this.registrarGravacao(key, System.currentTimeMillis() - idade);
+		return true;
+	}
+
+	private void registrarGravacao(Object key, long gravacao) {
+		if (this.gravacoes.size() >= LIMITE_CHAVES)
+			this.gravacoes.clear();
+		this.gravacoes.put(key, gravacao);
+	}
+
+}
@@ -0,0 +1,295 @@
+package br.com.tarefa.config.cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorador de {@link Cache} que protege as operações no Redis com tempo máximo de resposta e
+ * circuit breaker, utilizando um cache Caffeine em memória enquanto o Redis estiver indisponível.
+ *
+ * Cada operação é executada na própria thread da requisição; o tempo máximo de resposta é o timeout
+ * de comando do Lettuce, configurado em {@link CacheConfig}. Falhas de acesso ao Redis, incluindo o
+ * tempo esgotado, são registradas no {@link CacheCircuitBreaker}. Enquanto o circuito estiver aberto, leituras e gravações usam apenas
+ * a memória local e as chaves gravadas ou removidas são registradas para que, quando o circuito
+ * fechar, sejam removidas do Redis (evitando valores desatualizados) ou, nos caches espelhados,
+ * regravadas no Redis.
+ *
+ * Nos caches espelhados (como o 'blacklistedTokens'), todas as gravações também são mantidas na
+ * memória local mesmo com o Redis disponível, e a memória local é consultada antes do Redis.
+ * As chaves regravadas no Redis quando o circuito fecha são informadas ao ouvinte de sincronização,
+ * ou nulo quando toda a memória local precisou ser regravada.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+public class ResilientCache implements Cache {
+
+	private static final Object REMOVER = new Object();
+	private static final int LIMITE_PENDENTES = 10_000;
+
+	private final ConcurrentMap<Object, Object> pendentes = new ConcurrentHashMap<>();
+	private final AtomicBoolean limparAoFechar = new AtomicBoolean();
+	private final AtomicBoolean reenviarEspelho = new AtomicBoolean();
+	private final Cache delegate;
+	private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+	private final boolean espelhado;
+	private final Function<Object, Object> valorIndisponivel;
+	private final Consumer<Object> sincronizado;
+	private final CacheCircuitBreaker circuitBreaker;
+	private final Executor sincronizacao;
+
+	public ResilientCache(Cache delegate, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, boolean espelhado,
+			Function<Object, Object> valorIndisponivel, Consumer<Object> sincronizado, CacheCircuitBreaker circuitBreaker,
+			Executor sincronizacao) {
+		this.delegate = delegate;
+		this.local = local;
+		this.espelhado = espelhado;
+		this.valorIndisponivel = valorIndisponivel;
+		this.sincronizado = sincronizado;
+		this.circuitBreaker = circuitBreaker;
+		this.sincronizacao = sincronizacao;
+
+		circuitBreaker.aoFechar(() -> this.sincronizacao.execute(this::sincronizar));
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		if (this.espelhado) {
+			Object value = this.local.getIfPresent(key);
+			if (value != null)
+				return new SimpleValueWrapper(value);
+		}
+
+		if (this.circuitBreaker.permitirChamada()) {
+			try {
+				return this.executar(() -> this.delegate.get(key));
+			} catch (RedisIndisponivelException e) {
+				log.debug("Redis indisponível na leitura da chave {} do cache {}", key, this.getName());
+			}
+		}
+
+		return this.buscarLocal(key);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Class<T> type) {
+		ValueWrapper wrapper = this.get(key);
+		Object value = wrapper != null ? wrapper.get() : null;
+
+		if (value != null && type != null && !type.isInstance(value))
+			throw new IllegalStateException("O valor do cache não é do tipo " + type.getName() + ": " + value);
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.get(key);
+		if (wrapper != null)
+			return (T) wrapper.get();
+
+		T value;
+		try {
+			value = valueLoader.call();
+		} catch (Exception e) {
+			throw new ValueRetrievalException(key, valueLoader, e);
+		}
+		this.put(key, value);
+		return value;
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		if (this.espelhado)
+			this.local.put(key, value);
+
+		if (this.circuitBreaker.permitirChamada()) {
+			try {
+				this.executar(() -> {
+					this.delegate.put(key, value);
+					return null;
+				});
+				return;
+			} catch (RedisIndisponivelException e) {
+				log.debug("Redis indisponível na gravação da chave {} do cache {}", key, this.getName());
+			}
+		}
+
+		if (!this.espelhado)
+			this.local.put(key, value);
+		this.registrarPendente(key, this.espelhado ? value : REMOVER);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		if (this.espelhado) {
+			Object existente = this.local.asMap().putIfAbsent(key, value);
+			if (existente != null)
+				return new SimpleValueWrapper(existente);
+		}
+
+		if (this.circuitBreaker.permitirChamada()) {
+			try {
+				return this.executar(() -> this.delegate.putIfAbsent(key, value));
+			} catch (RedisIndisponivelException e) {
+				log.debug("Redis indisponível na gravação da chave {} do cache {}", key, this.getName());
+			}
+		}
+
+		if (!this.espelhado) {
+			Object existente = this.local.asMap().putIfAbsent(key, value);
+			if (existente != null)
+				return new SimpleValueWrapper(existente);
+		}
+		this.registrarPendente(key, this.espelhado ? value : REMOVER);
+		return null;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.evictIfPresent(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean removidoLocal = this.local.asMap().remove(key) != null;
+
+		if (this.circuitBreaker.permitirChamada()) {
+			try {
+				return this.executar(() -> this.delegate.evictIfPresent(key)) || removidoLocal;
+			} catch (RedisIndisponivelException e) {
+				log.debug("Redis indisponível na remoção da chave {} do cache {}", key, this.getName());
+			}
+		}
+
+		this.registrarPendente(key, REMOVER);
+		return removidoLocal;
+	}
+
+	@Override
+	public void clear() {
+		this.invalidate();
+	}
+
+	@Override
+	public boolean invalidate() {
+		this.local.invalidateAll();
+		this.pendentes.clear();
+
+		if (this.circuitBreaker.permitirChamada()) {
+			try {
+				return this.executar(this.delegate::invalidate);
+			} catch (RedisIndisponivelException e) {
+				log.debug("Redis indisponível na limpeza do cache {}", this.getName());
+			}
+		}
+
+		this.limparAoFechar.set(true);
+		return false;
+	}
+
+	private ValueWrapper buscarLocal(Object key) {
+		Object value = this.local.getIfPresent(key);
+		if (value == null && this.valorIndisponivel != null)
+			value = this.valorIndisponivel.apply(key);
+		return value != null ? new SimpleValueWrapper(value) : null;
+	}
+
+	private void registrarPendente(Object key, Object acao) {
+		if (this.pendentes.size() >= LIMITE_PENDENTES && !this.pendentes.containsKey(key)) {
+			if (this.espelhado) {
+				this.reenviarEspelho.set(true);
+			} else {
+				this.limparAoFechar.set(true);
+			}
+			return;
+		}
+		this.pendentes.put(key, acao);
+	}
+
+	/**
+	 * Aplica no Redis as alterações feitas enquanto o circuito estava aberto.
+	 */
+	private void sincronizar() {
+		try {
+			if (this.limparAoFechar.getAndSet(false))
+				this.delegate.clear();
+
+			if (this.reenviarEspelho.getAndSet(false)) {
+				this.local.asMap().forEach(this.delegate::put);
+				this.notificarSincronizado(null);
+			}
+
+			for (Map.Entry<Object, Object> pendente : this.pendentes.entrySet()) {
+				if (pendente.getValue() == REMOVER)
+					this.delegate.evict(pendente.getKey());
+				else
+					this.delegate.put(pendente.getKey(), pendente.getValue());
+				this.pendentes.remove(pendente.getKey(), pendente.getValue());
+				this.notificarSincronizado(pendente.getKey());
+			}
+
+			if (!this.espelhado)
+				this.local.invalidateAll();
+			log.info("Cache {} sincronizado com o Redis após a indisponibilidade", this.getName());
+		} catch (RuntimeException e) {
+			log.warn("Falha ao sincronizar o cache {} com o Redis", this.getName(), e);
+		}
+	}
+
+	private void notificarSincronizado(Object key) {
+		if (this.sincronizado != null)
+			this.sincronizado.accept(key);
+	}
+
+	private <T> T executar(Supplier<T> operacao) {
+		T resultado;
+		try {
+			resultado = operacao.get();
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			throw new RedisIndisponivelException();
+		} catch (RuntimeException e) {
+			this.circuitBreaker.registrarSucesso();
+			throw e;
+		}
+
+		this.circuitBreaker.registrarSucesso();
+		return resultado;
+	}
+
+	private static final class RedisIndisponivelException extends RuntimeException {
+
+		private static final long serialVersionUID = -2618154781269542216L;
+
+		private RedisIndisponivelException() {
+			super(null, null, false, false);
+		}
+
+	}
+
+}
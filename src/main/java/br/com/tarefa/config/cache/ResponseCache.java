@@ -0,0 +1,261 @@
+package br.com.tarefa.config.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache das respostas HTTP já serializadas em JSON, servidas pelo {@link ResponseCacheFilter}.
+ *
+ * Cada recurso (uma tarefa ou a lista de tarefas) é um hash no Redis cujos campos são as variantes
+ * da resposta (URL base dos links e content type negociado) e cujos valores são o content type e os bytes
+ * do corpo. Cada recurso também possui uma versão, incrementada a cada invalidação: a resposta só é
+ * gravada se a versão lida antes de executar a requisição ainda for a atual, evitando gravar uma
+ * resposta gerada antes de uma alteração concorrente.
+ *
+ * As respostas são invalidadas pelo {@link InvalidationCache} aplicado aos caches 'tarefas' e
+ * 'listarTarefas', logo após as alterações feitas pelas anotações de cache do TarefaService: a
+ * gravação ou remoção de uma tarefa invalida a sua resposta e a limpeza do cache 'listarTarefas'
+ * invalida a resposta da lista. Invalidar depois da alteração nos caches garante que uma requisição
+ * concorrente não grave uma resposta montada com o valor antigo.
+ *
+ * Com o circuito do Redis aberto ou em caso de falha, as respostas não são lidas nem gravadas, e os
+ * recursos alterados nesse período são invalidados quando o circuito fechar.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+	public static final String LISTA_TAREFAS = "tarefas";
+
+	private static final String CACHE_TAREFAS = "tarefas";
+	private static final String CACHE_LISTAR_TAREFAS = "listarTarefas";
+	private static final String PREFIXO = "respostas::";
+	private static final String PREFIXO_VERSAO = "respostas::versao::";
+	private static final byte SEPARADOR = '\n';
+	private static final byte[] GRAVAR_SE_VERSAO_ATUAL = (
+			"if (redis.call('get', KEYS[2]) or '0') == ARGV[1] then "
+			+ "redis.call('hset', KEYS[1], ARGV[2], ARGV[3]) "
+			+ "redis.call('pexpire', KEYS[1], ARGV[4]) "
+			+ "return 1 end return 0").getBytes(StandardCharsets.UTF_8);
+
+	@Value("${application.cache.responses.enabled:false}")
+	private boolean enabled;
+	@Value("${spring.cache.redis.time-to-live}")
+	private long expiration;
+
+	private final Set<String> pendentes = ConcurrentHashMap.newKeySet();
+	private final StringRedisTemplate redisTemplate;
+	private final CacheCircuitBreaker circuitBreaker;
+
+	public ResponseCache(StringRedisTemplate redisTemplate, CacheCircuitBreaker circuitBreaker) {
+		this.redisTemplate = redisTemplate;
+		this.circuitBreaker = circuitBreaker;
+		if (circuitBreaker != null)
+			circuitBreaker.aoFechar(this::invalidarPendentes);
+	}
+
+	/**
+	 * Resposta armazenada no cache.
+	 */
+	public static final class Resposta {
+
+		private final String contentType;
+		private final byte[] corpo;
+
+		public Resposta(String contentType, byte[] corpo) {
+			this.contentType = contentType;
+			this.corpo = corpo;
+		}
+
+		public String getContentType() {
+			return this.contentType;
+		}
+
+		public byte[] getCorpo() {
+			return this.corpo;
+		}
+
+	}
+
+	/**
+	 * Envolve os caches 'tarefas' e 'listarTarefas' com o {@link InvalidationCache} que invalida
+	 * as respostas correspondentes.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.enabled)
+			return cache;
+
+		if (CACHE_TAREFAS.equals(cache.getName()))
+			return new InvalidationCache(cache, key -> {
+				if (key instanceof UUID)
+					this.invalidar(tarefa((UUID) key));
+			});
+		if (CACHE_LISTAR_TAREFAS.equals(cache.getName()))
+			return new InvalidationCache(cache, key -> {
+				if (key == null)
+					this.invalidar(LISTA_TAREFAS);
+			});
+		return cache;
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * @param id ID da tarefa.
+	 * @return o nome do recurso da tarefa no cache de respostas.
+	 */
+	public static String tarefa(UUID id) {
+		return "tarefa:" + id;
+	}
+
+	/**
+	 * @param recurso nome do recurso.
+	 * @param variante variante da resposta.
+	 * @return a resposta armazenada ou nula quando ausente ou com o Redis indisponível.
+	 */
+	public Resposta buscar(String recurso, String variante) {
+		if (!this.disponivel())
+			return null;
+
+		try {
+			byte[] valor = this.redisTemplate.execute((RedisCallback<byte[]>) connection ->
+					connection.hashCommands().hGet(bytes(PREFIXO + recurso), bytes(variante)));
+			return valor != null ? this.ler(valor) : null;
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			return null;
+		}
+	}
+
+	/**
+	 * @param recurso nome do recurso.
+	 * @return a versão atual do recurso, a ser informada na gravação da resposta, ou nula com o Redis indisponível.
+	 */
+	public String versao(String recurso) {
+		if (!this.disponivel())
+			return null;
+
+		try {
+			String versao = this.redisTemplate.opsForValue().get(PREFIXO_VERSAO + recurso);
+			return versao != null ? versao : "0";
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			return null;
+		}
+	}
+
+	/**
+	 * Grava a resposta se a versão do recurso ainda for a informada.
+	 *
+	 * @param recurso nome do recurso.
+	 * @param versao versão do recurso lida antes de gerar a resposta.
+	 * @param variante variante da resposta.
+	 * @param contentType content type da resposta.
+	 * @param corpo bytes do corpo da resposta.
+	 */
+	public void gravar(String recurso, String versao, String variante, String contentType, byte[] corpo) {
+		if (versao == null || !this.disponivel())
+			return;
+
+		byte[] tipo = bytes(contentType);
+		byte[] valor = new byte[tipo.length + 1 + corpo.length];
+		System.arraycopy(tipo, 0, valor, 0, tipo.length);
+		valor[tipo.length] = SEPARADOR;
+		System.arraycopy(corpo, 0, valor, tipo.length + 1, corpo.length);
+
+		try {
+			this.redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+					GRAVAR_SE_VERSAO_ATUAL, ReturnType.INTEGER, 2,
+					bytes(PREFIXO + recurso), bytes(PREFIXO_VERSAO + recurso),
+					bytes(versao), bytes(variante), valor, bytes(String.valueOf(this.expiration))));
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+		}
+	}
+
+	/**
+	 * Remove as respostas dos recursos e incrementa as suas versões.
+	 *
+	 * @param recursos nomes dos recursos alterados.
+	 */
+	public void invalidar(String... recursos) {
+		if (!this.enabled || this.redisTemplate == null)
+			return;
+
+		if (!this.circuitBreaker.isFechado()) {
+			this.registrarPendentes(recursos);
+			return;
+		}
+
+		try {
+			this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				for (String recurso : recursos) {
+					byte[] versao = bytes(PREFIXO_VERSAO + recurso);
+					connection.stringCommands().incr(versao);
+					connection.keyCommands().pExpire(versao, this.expiration * 2);
+					connection.keyCommands().del(bytes(PREFIXO + recurso));
+				}
+				return null;
+			});
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			this.registrarPendentes(recursos);
+			log.warn("Falha ao invalidar as respostas em cache dos recursos {}", String.join(", ", recursos), e);
+		}
+	}
+
+	private void registrarPendentes(String... recursos) {
+		for (String recurso : recursos)
+			this.pendentes.add(recurso);
+	}
+
+	private void invalidarPendentes() {
+		if (this.pendentes.isEmpty())
+			return;
+
+		List<String> recursos = new ArrayList<>(this.pendentes);
+		this.pendentes.removeAll(recursos);
+		this.invalidar(recursos.toArray(new String[0]));
+	}
+
+	private boolean disponivel() {
+		return this.enabled && this.redisTemplate != null && this.circuitBreaker.isFechado();
+	}
+
+	private Resposta ler(byte[] valor) {
+		for (int i = 0; i < valor.length; i++) {
+			if (valor[i] == SEPARADOR) {
+				byte[] corpo = new byte[valor.length - i - 1];
+				System.arraycopy(valor, i + 1, corpo, 0, corpo.length);
+				return new Resposta(new String(valor, 0, i, StandardCharsets.UTF_8), corpo);
+			}
+		}
+		return null;
+	}
+
+	private static byte[] bytes(String valor) {
+		return valor.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
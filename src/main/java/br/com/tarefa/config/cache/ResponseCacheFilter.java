@@ -0,0 +1,109 @@
+package br.com.tarefa.config.cache;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Filtro que serve as respostas de 'GET /v1/tarefas/{id}' e 'GET /v1/tarefas' a partir do
+ * {@link ResponseCache}, escrevendo os bytes do JSON diretamente na resposta, sem mapear a
+ * entidade, montar os links ou serializar o DTO.
+ *
+ * O filtro é executado após o Spring Security, de modo que apenas requisições autenticadas são
+ * servidas pelo cache. As respostas não variam por usuário, pois qualquer usuário pode visualizar
+ * as tarefas de outros usuários; a variante considera a URL base dos links e o content type negociado
+ * da resposta, e não o cabeçalho Accept informado pelo cliente, para que valores distintos do cabeçalho
+ * não gravem novas cópias da resposta. O content type negociado para cada cabeçalho Accept é mantido
+ * em memória, em um cache limitado, após a primeira resposta gerada para ele.
+ * Em uma ausência no cache, a requisição segue normalmente e a resposta com status 200 é gravada.
+ *
+ * Com o streaming de 'GET /v1/tarefas' habilitado, a lista não é servida pelo cache, para que a
+ * resposta seja escrita à medida que as tarefas são lidas, e não acumulada em memória para ser gravada.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+	private static final Pattern TAREFA = Pattern.compile("^/v1/tarefas/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})$");
+	private static final String LISTA_TAREFAS = "/v1/tarefas";
+	private static final int LIMITE_ACCEPT = 1000;
+
+	@Value("${application.tarefas.streaming.enabled:false}")
+	private boolean streaming;
+	private final ResponseCache responseCache;
+	private final Cache<String, String> tiposNegociados = Caffeine.newBuilder().maximumSize(LIMITE_ACCEPT).build();
+
+	public ResponseCacheFilter(ResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		String recurso = this.responseCache.isEnabled() ? this.recurso(request) : null;
+		if (recurso == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String base = ServletUriComponentsBuilder.fromContextPath(request).toUriString() + "|";
+		String accept = (ResponseCache.LISTA_TAREFAS.equals(recurso) ? "lista|" : "tarefa|")
+				+ (request.getHeader(HttpHeaders.ACCEPT) != null ? request.getHeader(HttpHeaders.ACCEPT) : "");
+		String tipo = this.tiposNegociados.getIfPresent(accept);
+
+		ResponseCache.Resposta resposta = tipo != null ? this.responseCache.buscar(recurso, base + tipo) : null;
+		if (resposta != null) {
+			response.setStatus(HttpServletResponse.SC_OK);
+			response.setContentType(resposta.getContentType());
+			response.setContentLength(resposta.getCorpo().length);
+			response.getOutputStream().write(resposta.getCorpo());
+			return;
+		}
+
+		String versao = this.responseCache.versao(recurso);
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		try {
+			filterChain.doFilter(request, wrapper);
+
+			if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null
+					&& wrapper.getContentSize() > 0) {
+				this.tiposNegociados.put(accept, wrapper.getContentType());
+				this.responseCache.gravar(recurso, versao, base + wrapper.getContentType(), wrapper.getContentType(),
+						wrapper.getContentAsByteArray());
+			}
+		} finally {
+			wrapper.copyBodyToResponse();
+		}
+	}
+
+	private String recurso(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod()) || request.getQueryString() != null)
+			return null;
+
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (LISTA_TAREFAS.equals(path))
+			return this.streaming ? null : ResponseCache.LISTA_TAREFAS;
+
+		Matcher matcher = TAREFA.matcher(path);
+		return matcher.matches() ? ResponseCache.tarefa(UUID.fromString(matcher.group(1))) : null;
+	}
+
+}
@@ -0,0 +1,195 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro local dos tokens revogados, para que a validação de um token só consulte o Redis quando
+ * ele possivelmente estiver no cache 'blacklistedTokens'.
+ *
+ * Cada instância mantém um {@link BloomFilter} com os identificadores dos tokens revogados. As
+ * revogações feitas na instância são adicionadas ao filtro pelo decorador do cache, e as feitas em
+ * outras instâncias são recebidas pelo {@link CacheInvalidation}. O filtro é reconstruído a partir
+ * das chaves do Redis na inicialização, periodicamente (descartando as revogações já expiradas) e
+ * quando o circuito do Redis fecha, recuperando as notificações perdidas durante a indisponibilidade.
+ *
+ * Enquanto o filtro não tiver sido construído, todos os tokens são consultados no Redis. Com a
+ * política REJECT do {@link CacheResilience}, o filtro também é ignorado enquanto o circuito do Redis
+ * não estiver fechado, para que os tokens que não puderem ser verificados continuem rejeitados.
+ *
+ * Uma limpeza recebida de outra instância, enviada quando ela precisou regravar todas as suas
+ * revogações no Redis, agenda a reconstrução do filtro.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class RevokedTokens implements ApplicationRunner, DisposableBean {
+
+	public static final String CACHE_BLACKLISTED_TOKENS = "blacklistedTokens";
+
+	private static final String PREFIXO = CACHE_BLACKLISTED_TOKENS + "::";
+
+	@Value("${application.cache.revoked-tokens.enabled:false}")
+	private boolean enabled;
+	@Value("${application.cache.revoked-tokens.expected-insertions:100000}")
+	private long expectedInsertions;
+	@Value("${application.cache.revoked-tokens.false-positive-probability:0.001}")
+	private double falsePositiveProbability;
+	@Value("${application.cache.revoked-tokens.rebuild-interval:3600000}")
+	private long rebuildInterval;
+
+	private final Object lock = new Object();
+	private final StringRedisTemplate redisTemplate;
+	private final CacheInvalidation cacheInvalidation;
+	private final CacheCircuitBreaker circuitBreaker;
+	private final CacheResilience cacheResilience;
+	private volatile BloomFilter filtro;
+	private BloomFilter emConstrucao;
+	private ScheduledExecutorService executor;
+
+	public RevokedTokens(StringRedisTemplate redisTemplate, CacheInvalidation cacheInvalidation, CacheCircuitBreaker circuitBreaker,
+			CacheResilience cacheResilience) {
+		this.redisTemplate = redisTemplate;
+		this.cacheInvalidation = cacheInvalidation;
+		this.circuitBreaker = circuitBreaker;
+		this.cacheResilience = cacheResilience;
+		if (circuitBreaker != null)
+			circuitBreaker.aoFechar(this::agendarReconstrucao);
+	}
+
+	/**
+	 * Envolve o cache 'blacklistedTokens' para adicionar ao filtro as revogações feitas nesta
+	 * instância e registra o filtro para receber as revogações das demais instâncias.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.enabled || !CACHE_BLACKLISTED_TOKENS.equals(cache.getName()))
+			return cache;
+
+		this.cacheInvalidation.registrar(CACHE_BLACKLISTED_TOKENS, id -> {
+			if (id != null)
+				this.adicionar(id);
+			else
+				this.agendarReconstrucao();
+		});
+		return new InvalidationCache(cache, id -> {
+			if (id != null)
+				this.adicionar(String.valueOf(id));
+		});
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * @param id identificador do token.
+	 * @return falso se o token certamente não foi revogado; verdadeiro se ele precisa ser consultado no Redis.
+	 */
+	public boolean talvezRevogado(String id) {
+		if (this.cacheResilience != null && this.cacheResilience.isRejeitarTokensNaoVerificados()
+				&& !this.circuitBreaker.isFechado())
+			return true;
+
+		BloomFilter atual = this.filtro;
+		return atual == null || atual.talvezContenha(id);
+	}
+
+	/**
+	 * Constrói o filtro na inicialização e agenda a sua reconstrução periódica.
+	 *
+	 * @param args argumentos da aplicação.
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		if (!this.enabled || this.redisTemplate == null)
+			return;
+
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "revoked-tokens-rebuild");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.reconstruir();
+		this.executor.scheduleWithFixedDelay(this::reconstruir, this.rebuildInterval, this.rebuildInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor != null)
+			this.executor.shutdownNow();
+	}
+
+	/**
+	 * Reconstrói o filtro a partir das chaves do cache 'blacklistedTokens' no Redis. As revogações
+	 * recebidas durante a varredura são adicionadas aos dois filtros. Com o circuito do Redis aberto,
+	 * o filtro atual é mantido até o fechamento do circuito, que agenda uma nova reconstrução.
+	 */
+	public void reconstruir() {
+		if (!this.circuitBreaker.isFechado()) {
+			log.debug("Circuito do Redis aberto, a reconstrução do filtro de tokens revogados será feita no seu fechamento");
+			return;
+		}
+
+		BloomFilter novo = new BloomFilter(this.expectedInsertions, this.falsePositiveProbability);
+		synchronized (this.lock) {
+			this.emConstrucao = novo;
+		}
+
+		long quantidade = 0;
+		try (Cursor<String> cursor = this.redisTemplate.scan(ScanOptions.scanOptions().match(PREFIXO + "*").count(1000).build())) {
+			while (cursor.hasNext()) {
+				novo.adicionar(cursor.next().substring(PREFIXO.length()));
+				quantidade++;
+			}
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			synchronized (this.lock) {
+				this.emConstrucao = null;
+			}
+			log.warn("Falha ao reconstruir o filtro de tokens revogados, o filtro atual será mantido", e);
+			return;
+		}
+
+		synchronized (this.lock) {
+			this.filtro = novo;
+			this.emConstrucao = null;
+		}
+		if (quantidade > this.expectedInsertions)
+			log.warn("{} tokens revogados excedem a capacidade de {} do filtro, a taxa de falsos positivos será maior",
+					quantidade, this.expectedInsertions);
+		log.debug("Filtro de tokens revogados reconstruído com {} tokens", quantidade);
+	}
+
+	private void adicionar(String id) {
+		synchronized (this.lock) {
+			if (this.filtro != null)
+				this.filtro.adicionar(id);
+			if (this.emConstrucao != null)
+				this.emConstrucao.adicionar(id);
+		}
+	}
+
+	private void agendarReconstrucao() {
+		if (this.executor != null)
+			this.executor.execute(this::reconstruir);
+	}
+
+}
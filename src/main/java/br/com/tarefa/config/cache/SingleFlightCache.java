@@ -0,0 +1,84 @@
+package br.com.tarefa.config.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Decorador de {@link Cache} que coordena pelo {@link SingleFlightLoader} os carregamentos feitos
+ * pelo {@code @Cacheable(sync = true)}, de modo que requisições concorrentes pela mesma chave
+ * resultem em uma única consulta e uma única gravação no cache decorado.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class SingleFlightCache implements Cache {
+
+	private final Cache delegate;
+	private final SingleFlightLoader loader;
+
+	public SingleFlightCache(Cache delegate, SingleFlightLoader loader) {
+		this.delegate = delegate;
+		this.loader = loader;
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.delegate.getNativeCache();
+	}
+
+	@Override
+	public ValueWrapper get(Object key) {
+		return this.delegate.get(key);
+	}
+
+	@Override
+	public <T> T get(Object key, Class<T> type) {
+		return this.delegate.get(key, type);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.delegate.get(key);
+		if (wrapper != null)
+			return (T) wrapper.get();
+
+		return this.loader.load(this.delegate, key, valueLoader);
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		this.delegate.put(key, value);
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		return this.delegate.putIfAbsent(key, value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.delegate.evict(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		return this.delegate.evictIfPresent(key);
+	}
+
+	@Override
+	public void clear() {
+		this.delegate.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		return this.delegate.invalidate();
+	}
+
+}
@@ -0,0 +1,203 @@
+package br.com.tarefa.config.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coordena o carregamento dos valores que não foram encontrados no cache, garantindo
+ * que apenas um carregamento e uma gravação por chave sejam executados ao mesmo tempo.
+ *
+ * Os caches são envolvidos pelo {@link SingleFlightCache}, acima do proxy do {@code @Cacheable(sync = true)}.
+ * Dentro da mesma instância, a primeira requisição executa a consulta e grava o valor no cache,
+ * e as demais aguardam o seu resultado sem gravar novamente. Quando o lease no Redis está habilitado,
+ * a instância que obtiver o lease executa a consulta e as outras instâncias aguardam o valor ser
+ * gravado no cache, consultando o banco de dados apenas se o lease for liberado ou expirar sem
+ * que o valor apareça. O lease só é usado com o {@link CacheCircuitBreaker} fechado, e as falhas
+ * do Redis são registradas nele.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Component
+public class SingleFlightLoader {
+
+	private static final String PREFIXO_LEASE = "lease::";
+	private static final long INTERVALO_ESPERA_LEASE = 20;
+	private static final RedisScript<Long> SCRIPT_LIBERAR_LEASE = new DefaultRedisScript<>(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+	@Value("${application.cache.single-flight.lease.enabled:false}")
+	private boolean leaseEnabled;
+	@Value("${application.cache.single-flight.lease.expiration:2000}")
+	private long leaseExpiration;
+
+	private final ConcurrentMap<String, CompletableFuture<Object>> carregamentos = new ConcurrentHashMap<>();
+	private final String instanceId = UUID.randomUUID().toString();
+	private final StringRedisTemplate redisTemplate;
+	private final CacheCircuitBreaker circuitBreaker;
+
+	public SingleFlightLoader(StringRedisTemplate redisTemplate, CacheCircuitBreaker circuitBreaker) {
+		this.redisTemplate = redisTemplate;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Envolve o cache com o {@link SingleFlightCache}.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado.
+	 */
+	public Cache decorate(Cache cache) {
+		return new SingleFlightCache(cache, this);
+	}
+
+	/**
+	 * Executa o carregamento do valor correspondente à chave no cache informado, compartilhando
+	 * o resultado com as requisições concorrentes para a mesma chave.
+	 *
+	 * Apenas a requisição que obtiver o carregamento grava o valor no cache, e o faz antes de liberar
+	 * as demais, de modo que uma nova requisição encontre o valor no cache em vez de iniciar outro
+	 * carregamento. Valores nulos não são gravados.
+	 *
+	 * @param cache cache no qual o valor é consultado e gravado.
+	 * @param key chave do valor no cache.
+	 * @param valueLoader consulta executada apenas pela requisição que obtiver o carregamento.
+	 * @return o valor carregado, podendo ser null.
+	 * @throws ValueRetrievalException se a consulta falhar.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T load(Cache cache, Object key, Callable<T> valueLoader) {
+		String id = cache.getName() + "::" + key;
+		CompletableFuture<Object> carregamento = new CompletableFuture<>();
+		CompletableFuture<Object> emAndamento = this.carregamentos.putIfAbsent(id, carregamento);
+
+		if (emAndamento != null)
+			return (T) this.aguardar(emAndamento);
+
+		try {
+			ValueWrapper gravado = cache.get(key);
+			T value = gravado != null ? (T) gravado.get() : this.carregarComLease(cache, key, valueLoader);
+			carregamento.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			carregamento.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.carregamentos.remove(id, carregamento);
+		}
+	}
+
+	private Object aguardar(CompletableFuture<Object> emAndamento) {
+		try {
+			return emAndamento.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	private <T> T carregar(Cache cache, Object key, Callable<T> valueLoader) {
+		T value;
+		try {
+			value = valueLoader.call();
+		} catch (ValueRetrievalException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ValueRetrievalException(key, valueLoader, e);
+		}
+
+		if (value != null)
+			cache.put(key, value);
+		return value;
+	}
+
+	private <T> T carregarComLease(Cache cache, Object key, Callable<T> valueLoader) {
+		if (!this.leaseEnabled || this.redisTemplate == null || !this.circuitBreaker.isFechado())
+			return this.carregar(cache, key, valueLoader);
+
+		String leaseKey = PREFIXO_LEASE + cache.getName() + "::" + key;
+		Boolean obtido;
+		try {
+			obtido = this.redisTemplate.opsForValue()
+					.setIfAbsent(leaseKey, this.instanceId, Duration.ofMillis(this.leaseExpiration));
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			log.debug("Redis indisponível para o lease {}, carregando localmente", leaseKey);
+			return this.carregar(cache, key, valueLoader);
+		}
+
+		if (Boolean.TRUE.equals(obtido)) {
+			try {
+				return this.carregar(cache, key, valueLoader);
+			} finally {
+				this.liberarLease(leaseKey);
+			}
+		}
+
+		return this.aguardarOutraInstancia(cache, key, leaseKey, valueLoader);
+	}
+
+	private void liberarLease(String leaseKey) {
+		if (!this.circuitBreaker.isFechado())
+			return;
+
+		try {
+			this.redisTemplate.execute(SCRIPT_LIBERAR_LEASE, Collections.singletonList(leaseKey), this.instanceId);
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			log.debug("Redis indisponível para liberar o lease {}, ele expirará sozinho", leaseKey);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T aguardarOutraInstancia(Cache cache, Object key, String leaseKey, Callable<T> valueLoader) {
+		long limite = System.currentTimeMillis() + this.leaseExpiration;
+
+		while (System.currentTimeMillis() < limite) {
+			ValueWrapper valor = cache.get(key);
+			if (valor != null)
+				return (T) valor.get();
+
+			if (!this.circuitBreaker.isFechado())
+				break;
+
+			try {
+				if (!Boolean.TRUE.equals(this.redisTemplate.hasKey(leaseKey)))
+					break;
+				TimeUnit.MILLISECONDS.sleep(INTERVALO_ESPERA_LEASE);
+			} catch (DataAccessException e) {
+				this.circuitBreaker.registrarFalha();
+				break;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		log.debug("Lease {} liberado sem valor no cache, carregando localmente", leaseKey);
+		return this.carregar(cache, key, valueLoader);
+	}
+
+}
@@ -0,0 +1,116 @@
+package br.com.tarefa.config.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serializador dos valores armazenados no Redis que converte a entidade em um snapshot
+ * imutável antes de gravar e reconstrói a entidade a partir do snapshot na leitura.
+ *
+ * O snapshot é gravado no formato do {@link ObjectMapper} informado, JSON ou Smile (JSON
+ * binário, com os nomes dos campos repetidos referenciados em vez de reescritos), e o primeiro
+ * byte do valor indica o formato e se ele está compactado com Deflate (valores maiores que o
+ * limite configurado). Valores em outro formato, como os gravados anteriormente com a
+ * serialização padrão do JDK ou com o JSON antes da troca para Smile, são tratados como
+ * ausentes no cache e recarregados do banco de dados.
+ *
+ * @param <T> tipo armazenado pela aplicação no cache.
+ * @param <S> tipo do snapshot gravado no Redis.
+ */
+@Slf4j
+public class SnapshotRedisSerializer<T, S> implements RedisSerializer<Object> {
+
+	private static final byte FORMATO_JSON = 1;
+	private static final byte FORMATO_JSON_DEFLATE = 2;
+	private static final byte FORMATO_SMILE = 3;
+	private static final byte FORMATO_SMILE_DEFLATE = 4;
+
+	private final ObjectMapper objectMapper;
+	private final JavaType snapshotType;
+	private final Function<T, S> toSnapshot;
+	private final Function<S, T> fromSnapshot;
+	private final int compressionThreshold;
+	private final byte formato;
+	private final byte formatoDeflate;
+
+	public SnapshotRedisSerializer(ObjectMapper objectMapper, JavaType snapshotType, Function<T, S> toSnapshot,
+			Function<S, T> fromSnapshot, int compressionThreshold) {
+		this.objectMapper = objectMapper;
+		this.snapshotType = snapshotType;
+		this.toSnapshot = toSnapshot;
+		this.fromSnapshot = fromSnapshot;
+		this.compressionThreshold = compressionThreshold;
+
+		boolean smile = objectMapper.getFactory() instanceof SmileFactory;
+		this.formato = smile ? FORMATO_SMILE : FORMATO_JSON;
+		this.formatoDeflate = smile ? FORMATO_SMILE_DEFLATE : FORMATO_JSON_DEFLATE;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public byte[] serialize(Object value) throws SerializationException {
+		try {
+			byte[] snapshot = this.objectMapper.writeValueAsBytes(this.toSnapshot.apply((T) value));
+
+			if (this.compressionThreshold < 0 || snapshot.length < this.compressionThreshold)
+				return this.withFormat(this.formato, snapshot);
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length / 2);
+			out.write(this.formatoDeflate);
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+				deflate.write(snapshot);
+			} finally {
+				deflater.end();
+			}
+			return out.toByteArray();
+		} catch (IOException e) {
+			throw new SerializationException("Não foi possível serializar o valor do cache", e);
+		}
+	}
+
+	@Override
+	public Object deserialize(byte[] bytes) throws SerializationException {
+		if (bytes == null || bytes.length == 0)
+			return null;
+
+		try {
+			if (bytes[0] == this.formato)
+				return this.fromSnapshot.apply(this.objectMapper.readValue(bytes, 1, bytes.length - 1, this.snapshotType));
+
+			if (bytes[0] == this.formatoDeflate) {
+				try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+					return this.fromSnapshot.apply(this.objectMapper.readValue(in, this.snapshotType));
+				}
+			}
+
+			log.debug("Valor do cache em formato desconhecido foi ignorado");
+			return null;
+		} catch (IOException e) {
+			throw new SerializationException("Não foi possível desserializar o valor do cache", e);
+		}
+	}
+
+	private byte[] withFormat(byte format, byte[] snapshot) {
+		byte[] bytes = new byte[snapshot.length + 1];
+		bytes[0] = format;
+		System.arraycopy(snapshot, 0, bytes, 1, snapshot.length);
+		return bytes;
+	}
+
+}
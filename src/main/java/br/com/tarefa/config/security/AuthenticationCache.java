@@ -0,0 +1,210 @@
+package br.com.tarefa.config.security;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import br.com.tarefa.config.cache.CacheCircuitBreaker;
+import br.com.tarefa.config.cache.CacheInvalidation;
+import br.com.tarefa.config.cache.InvalidationCache;
+import br.com.tarefa.config.cache.RevokedTokens;
+
+/**
+ * Cache em memória dos usuários autenticados por access token, para que as requisições repetidas
+ * com o mesmo token não verifiquem novamente a assinatura, a lista negra e o usuário.
+ *
+ * A chave é o identificador do token ({@code JwtService#extractTokenId}), o mesmo usado na lista
+ * negra, e cada entrada expira no tempo configurado ou na expiração do token, o que ocorrer antes.
+ * As entradas são descartadas quando o token é revogado (cache 'blacklistedTokens') e quando o
+ * usuário é alterado ou excluído (cache 'usuarios'), nesta instância pelos decoradores dos caches
+ * e nas demais pelo {@link CacheInvalidation}; e todas são descartadas quando o circuito do Redis
+ * fecha, já que as notificações podem ter sido perdidas.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class AuthenticationCache {
+
+	private static final String CACHE_USUARIOS = "usuarios";
+
+	@Value("${application.security.jwt.authentication-cache.enabled:false}")
+	private boolean enabled;
+	@Value("${application.security.jwt.authentication-cache.max-size:10000}")
+	private long maxSize;
+	@Value("${application.security.jwt.authentication-cache.expiration:60000}")
+	private long expiration;
+
+	private final CacheInvalidation cacheInvalidation;
+	private final AtomicLong geracao = new AtomicLong();
+	private volatile com.github.benmanes.caffeine.cache.Cache<String, Entrada> autenticacoes;
+
+	public AuthenticationCache(CacheInvalidation cacheInvalidation, CacheCircuitBreaker circuitBreaker) {
+		this.cacheInvalidation = cacheInvalidation;
+		if (circuitBreaker != null)
+			circuitBreaker.aoFechar(this::invalidarTodos);
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Envolve os caches 'blacklistedTokens' e 'usuarios' para descartar as autenticações dos tokens
+	 * revogados e dos usuários alterados.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.enabled)
+			return cache;
+
+		if (RevokedTokens.CACHE_BLACKLISTED_TOKENS.equals(cache.getName())) {
+			this.cacheInvalidation.registrar(cache.getName(), this::invalidarToken);
+			return new InvalidationCache(cache, id -> this.invalidarToken(id != null ? String.valueOf(id) : null));
+		}
+		if (CACHE_USUARIOS.equals(cache.getName())) {
+			this.cacheInvalidation.registrar(cache.getName(), this::invalidarUsuario);
+			return new InvalidationCache(cache, key -> this.invalidarUsuario(key != null ? String.valueOf(key) : null));
+		}
+		return cache;
+	}
+
+	/**
+	 * @param tokenId identificador do token.
+	 * @return o usuário autenticado pelo token ou nulo se ausente.
+	 */
+	public UserDetails buscar(String tokenId) {
+		Entrada entrada = this.autenticacoes().getIfPresent(tokenId);
+		return entrada != null ? entrada.usuario : null;
+	}
+
+	/**
+	 * @return a marca a ser informada em {@link #armazenar}, obtida antes de validar o token.
+	 */
+	public long marca() {
+		return this.geracao.get();
+	}
+
+	/**
+	 * Armazena o usuário autenticado pelo token. Se alguma invalidação ocorreu desde a marca obtida
+	 * antes da validação, a entrada é descartada, pois o token pode ter sido revogado durante a validação.
+	 *
+	 * @param tokenId identificador do token.
+	 * @param usuario usuário autenticado.
+	 * @param expiracao expiração do token.
+	 * @param marca marca obtida por {@link #marca()} antes da validação do token.
+	 */
+	public void armazenar(String tokenId, UserDetails usuario, Date expiracao, long marca) {
+		if (expiracao == null || expiracao.getTime() <= System.currentTimeMillis())
+			return;
+
+		this.autenticacoes().put(tokenId, new Entrada(usuario, expiracao.getTime()));
+		if (this.geracao.get() != marca)
+			this.autenticacoes().invalidate(tokenId);
+	}
+
+	private void invalidarToken(String tokenId) {
+		this.geracao.incrementAndGet();
+		if (tokenId == null)
+			this.autenticacoes().invalidateAll();
+		else
+			this.autenticacoes().invalidate(tokenId);
+	}
+
+	private void invalidarUsuario(String key) {
+		this.geracao.incrementAndGet();
+		if (key == null) {
+			this.autenticacoes().invalidateAll();
+			return;
+		}
+
+		UUID id = this.parseId(key);
+		this.autenticacoes().asMap().values().removeIf(entrada -> entrada.pertenceA(id, key));
+	}
+
+	private void invalidarTodos() {
+		this.geracao.incrementAndGet();
+		this.autenticacoes().invalidateAll();
+	}
+
+	private UUID parseId(String key) {
+		try {
+			return UUID.fromString(key);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private com.github.benmanes.caffeine.cache.Cache<String, Entrada> autenticacoes() {
+		com.github.benmanes.caffeine.cache.Cache<String, Entrada> cache = this.autenticacoes;
+		if (cache == null) {
+			synchronized (this) {
+				if (this.autenticacoes == null)
+					this.autenticacoes = Caffeine.newBuilder()
+							.maximumSize(this.maxSize)
+							.expireAfter(new ExpiracaoDoToken(TimeUnit.MILLISECONDS.toNanos(this.expiration)))
+							.build();
+				cache = this.autenticacoes;
+			}
+		}
+		return cache;
+	}
+
+	private static final class Entrada {
+
+		private final UserDetails usuario;
+		private final long expiracao;
+
+		private Entrada(UserDetails usuario, long expiracao) {
+			this.usuario = usuario;
+			this.expiracao = expiracao;
+		}
+
+		private boolean pertenceA(UUID id, String nomeUsuario) {
+			if (id != null)
+				return this.usuario instanceof UsuarioAutenticado && id.equals(((UsuarioAutenticado) this.usuario).getId());
+			return nomeUsuario.equals(this.usuario.getUsername());
+		}
+
+	}
+
+	/**
+	 * Expira cada entrada no tempo configurado, limitado à expiração do token.
+	 */
+	private static final class ExpiracaoDoToken implements Expiry<String, Entrada> {
+
+		private final long maximo;
+
+		private ExpiracaoDoToken(long maximo) {
+			this.maximo = maximo;
+		}
+
+		@Override
+		public long expireAfterCreate(String key, Entrada entrada, long currentTime) {
+			long restante = TimeUnit.MILLISECONDS.toNanos(entrada.expiracao - System.currentTimeMillis());
+			return Math.max(Math.min(this.maximo, restante), 0);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Entrada entrada, long currentTime, long currentDuration) {
+			return this.expireAfterCreate(key, entrada, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Entrada entrada, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
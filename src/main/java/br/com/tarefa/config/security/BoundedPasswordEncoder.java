@@ -0,0 +1,121 @@
+package br.com.tarefa.config.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.tarefa.exceptions.PasswordHashingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link PasswordEncoder} que executa a criptografia e a verificação das senhas em um pool de
+ * threads dedicado, com quantidade de threads e tamanho da fila limitados.
+ *
+ * O BCrypt é intencionalmente caro; executado diretamente nas threads do Tomcat, um pico de logins
+ * ocupa todas as threads e impede o atendimento dos demais endpoints. Com o pool dedicado, no máximo
+ * 'threads' senhas são processadas ao mesmo tempo e apenas 'queue-capacity' requisições aguardam na
+ * fila; as demais são recusadas imediatamente com {@link PasswordHashingException}, mantendo as
+ * threads livres para as requisições de tarefas.
+ *
+ * Métricas: 'password.hash.duration' (tempo de processamento, por operação), 'password.hash.wait'
+ * (tempo na fila), 'password.hash.queue' (tamanho da fila), 'password.hash.active' (threads em uso)
+ * e 'password.hash.rejected' (requisições recusadas).
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Timer waitTimer;
+	private final Counter rejected;
+
+	/**
+	 * @param delegate encoder que efetivamente criptografa e verifica as senhas.
+	 * @param registry registro das métricas.
+	 * @param threads quantidade de threads do pool.
+	 * @param queueCapacity quantidade máxima de operações aguardando na fila.
+	 */
+	public BoundedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry, int threads, int queueCapacity) {
+		this.delegate = delegate;
+		AtomicInteger sequencia = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)), runnable -> {
+					Thread thread = new Thread(runnable, "password-hashing-" + sequencia.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+
+		this.encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode").register(registry);
+		this.matchesTimer = Timer.builder("password.hash.duration").tag("operation", "matches").register(registry);
+		this.waitTimer = Timer.builder("password.hash.wait").register(registry);
+		this.rejected = Counter.builder("password.hash.rejected").register(registry);
+		Gauge.builder("password.hash.queue", this.executor, executor -> executor.getQueue().size()).register(registry);
+		Gauge.builder("password.hash.active", this.executor, ThreadPoolExecutor::getActiveCount).register(registry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return this.executar(this.encodeTimer, () -> this.delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return this.executar(this.matchesTimer, () -> this.delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return this.delegate.upgradeEncoding(encodedPassword);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	private <T> T executar(Timer timer, Callable<T> operacao) {
+		long enfileirado = System.nanoTime();
+		Future<T> future;
+		try {
+			future = this.executor.submit(() -> {
+				long inicio = System.nanoTime();
+				this.waitTimer.record(inicio - enfileirado, TimeUnit.NANOSECONDS);
+				try {
+					return operacao.call();
+				} finally {
+					timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			this.rejected.increment();
+			throw new PasswordHashingException("Muitas requisições de autenticação em andamento, tente novamente em instantes");
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingException("A verificação da senha foi interrompida", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+}
@@ -18,16 +18,22 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import br.com.tarefa.exceptions.RevokeTokenException;
 import br.com.tarefa.services.security.CustomUserDetailsService;
 import br.com.tarefa.services.security.JwtService;
+import io.jsonwebtoken.Claims;
 
 @Configuration
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final SecurityVersions securityVersions;
+    private final AuthenticationCache authenticationCache;
 
-    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService, SecurityVersions securityVersions,
+            AuthenticationCache authenticationCache) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.securityVersions = securityVersions;
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
@@ -45,10 +51,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        String tokenId = this.authenticationCache.isEnabled() ? this.jwtService.extractTokenId(token) : null;
+        if (tokenId != null && this.authenticateFromCache(request, tokenId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         try {
+            long marca = this.authenticationCache.marca();
             this.validateTokenRevoke(token);
-            String username = this.jwtService.extractUsername(token);
-            this.authenticateUserIfNecessary(request, username, token);
+            Claims claims = this.jwtService.extractClaims(token);
+            UserDetails usuario = this.authenticateUserIfNecessary(request, claims);
+            if (usuario != null && tokenId != null)
+                this.authenticationCache.armazenar(tokenId, usuario, claims.getExpiration(), marca);
 
         } catch (RevokeTokenException e) {
             this.handleErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, e.getLocalizedMessage());
@@ -76,13 +91,48 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     	 this.jwtService.validTokenRevoke(token);
     }
 
-    private void authenticateUserIfNecessary(HttpServletRequest request, String username, String token) {
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails =  this.userDetailsService.loadUserByUsername(username);
-            if (this.jwtService.isTokenValid(token, userDetails)) {
-            	this.setAuthentication(request, userDetails);
+    /**
+     * Autentica o usuário já autenticado anteriormente pelo mesmo token, sem verificar novamente o token.
+     */
+    private boolean authenticateFromCache(HttpServletRequest request, String tokenId) {
+        UserDetails usuario = this.authenticationCache.buscar(tokenId);
+        if (usuario == null)
+            return false;
+
+        if (SecurityContextHolder.getContext().getAuthentication() == null)
+            this.setAuthentication(request, usuario);
+        return true;
+    }
+
+    /**
+     * Autentica o usuário pelas claims do token quando ele contiver o ID e a versão de segurança do
+     * usuário, sem carregá-lo; caso contrário, o usuário é carregado pelo nome de usuário. Refresh
+     * tokens não autenticam requisições.
+     *
+     * @return o usuário autenticado pelo token ou nulo se o token não autenticou a requisição.
+     */
+    private UserDetails authenticateUserIfNecessary(HttpServletRequest request, Claims claims) {
+        if (claims == null || claims.getSubject() == null || this.jwtService.isRefreshToken(claims)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return null;
+        }
+
+        UsuarioAutenticado usuario = this.jwtService.extractUsuarioAutenticado(claims);
+        if (usuario != null) {
+            if (this.securityVersions.isVersaoAtual(usuario.getId(), usuario.getVersaoSeguranca())
+                    && this.jwtService.isTokenValid(claims, usuario)) {
+            	this.setAuthentication(request, usuario);
+            	return usuario;
             }
+            return null;
+        }
+
+        UserDetails userDetails =  this.userDetailsService.loadUserByUsername(claims.getSubject());
+        if (this.jwtService.isTokenValid(claims, userDetails)) {
+        	this.setAuthentication(request, userDetails);
+        	return userDetails;
         }
+        return null;
     }
 
     private void setAuthentication(HttpServletRequest request, UserDetails userDetails) {
@@ -0,0 +1,37 @@
+package br.com.tarefa.config.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuração do {@link PasswordEncoder} da aplicação, usado no login e na criação e atualização
+ * dos usuários. Mantida fora do {@link SecurityConfig}, que depende dos serviços que usam o encoder.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+	@Value("${application.security.password-hashing.threads:0}")
+	private int threads;
+
+	@Value("${application.security.password-hashing.queue-capacity:32}")
+	private int queueCapacity;
+
+	/**
+	 * @param registry registro das métricas.
+	 * @return o BCrypt executado em pool dedicado; sem quantidade de threads configurada, é usada
+	 *         metade dos processadores disponíveis.
+	 */
+	@Bean
+	PasswordEncoder passwordEncoder(MeterRegistry registry) {
+		int quantidade = this.threads > 0 ? this.threads : Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+		return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), registry, quantidade, this.queueCapacity);
+	}
+
+}
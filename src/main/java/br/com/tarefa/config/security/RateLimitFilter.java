@@ -0,0 +1,246 @@
+package br.com.tarefa.config.security;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.tarefa.config.cache.CacheCircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Filtro de limite de requisições por rota, executado na cadeia do Spring Security logo após a
+ * autenticação pelo token, de modo que as requisições recusadas não chegam à base de dados nem ao
+ * BCrypt do login.
+ *
+ * Cada rota configurada possui um token bucket por usuário autenticado ou, sem autenticação, por
+ * IP. Os baldes são {@link TokenBucket} sem bloqueio mantidos em um cache limitado, e a verificação
+ * custa uma consulta ao cache e um compare-and-set. Com o modo global habilitado, os baldes são
+ * mantidos no Redis por um script com o mesmo algoritmo, dividindo o limite entre as instâncias; se
+ * o Redis estiver indisponível, os baldes locais são usados.
+ *
+ * As rotas são configuradas em 'application.rate-limit.routes' no formato
+ * 'padrão:capacidade:tokens por segundo', separadas por vírgula. O padrão é um caminho exato ou
+ * terminado em '/**'; a primeira rota correspondente é aplicada. As requisições que excedem o limite
+ * recebem o status 429 com o cabeçalho Retry-After.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final String PREFIXO = "ratelimit::";
+	private static final String SUFIXO_CURINGA = "/**";
+	private static final RedisScript<Long> SCRIPT_CONSUMIR = new DefaultRedisScript<>(
+			"if redis.replicate_commands then redis.replicate_commands() end "
+			+ "local tempo = redis.call('TIME') "
+			+ "local agora = tonumber(tempo[1]) * 1000 + tonumber(tempo[2]) / 1000 "
+			+ "local cheioEm = tonumber(redis.call('GET', KEYS[1]) or agora) "
+			+ "if cheioEm < agora then cheioEm = agora end "
+			+ "local novo = cheioEm + tonumber(ARGV[1]) "
+			+ "local espera = novo - agora - tonumber(ARGV[2]) "
+			+ "if espera > 0 then return math.ceil(espera) end "
+			+ "redis.call('SET', KEYS[1], tostring(novo), 'PX', math.ceil(novo - agora)) "
+			+ "return 0", Long.class);
+
+	@Value("${application.rate-limit.enabled:false}")
+	private boolean enabled;
+	@Value("${application.rate-limit.routes:}")
+	private String routes;
+	@Value("${application.rate-limit.global:false}")
+	private boolean global;
+	@Value("${application.rate-limit.max-keys:100000}")
+	private long maxKeys;
+
+	private final StringRedisTemplate redisTemplate;
+	private final CacheCircuitBreaker circuitBreaker;
+	private final MeterRegistry registry;
+	private volatile Limites limites;
+
+	public RateLimitFilter(StringRedisTemplate redisTemplate, CacheCircuitBreaker circuitBreaker, MeterRegistry registry) {
+		this.redisTemplate = redisTemplate;
+		this.circuitBreaker = circuitBreaker;
+		this.registry = registry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		Limites atuais = this.enabled ? this.limites() : null;
+		Rota rota = atuais != null ? atuais.rota(request.getServletPath()) : null;
+		if (rota == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		String chave = rota.padrao + '|' + this.cliente(request);
+		long espera = this.global ? this.consumirGlobal(rota, chave) : -1;
+		if (espera < 0)
+			espera = atuais.balde(chave, rota).consumir(System.nanoTime());
+
+		if (espera > 0) {
+			rota.recusadas.increment();
+			long segundos = Math.max(TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1), 1);
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+			response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+					String.format("Limite de requisições excedido, tente novamente em %d segundo(s)", segundos));
+			return;
+		}
+
+		filterChain.doFilter(request, response);
+	}
+
+	/**
+	 * @return o usuário autenticado ou, sem autenticação, o IP de origem da requisição.
+	 */
+	private String cliente(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken))
+			return "usuario:" + authentication.getName();
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	/**
+	 * @return o tempo de espera em nanossegundos, zero se permitida, ou -1 para usar o balde local.
+	 */
+	private long consumirGlobal(Rota rota, String chave) {
+		if (this.redisTemplate == null || !this.circuitBreaker.isFechado())
+			return -1;
+
+		try {
+			Long espera = this.redisTemplate.execute(SCRIPT_CONSUMIR, Collections.singletonList(PREFIXO + chave),
+					rota.intervaloMs, rota.limiteMs);
+			return espera != null ? TimeUnit.MILLISECONDS.toNanos(espera) : -1;
+		} catch (DataAccessException e) {
+			this.circuitBreaker.registrarFalha();
+			return -1;
+		}
+	}
+
+	private Limites limites() {
+		Limites atuais = this.limites;
+		if (atuais == null) {
+			synchronized (this) {
+				if (this.limites == null)
+					this.limites = new Limites(this.parse(this.routes), this.maxKeys);
+				atuais = this.limites;
+			}
+		}
+		return atuais;
+	}
+
+	private List<Rota> parse(String configuracao) {
+		List<Rota> rotas = new ArrayList<>();
+		if (configuracao == null || configuracao.trim().isEmpty())
+			return rotas;
+
+		for (String definicao : configuracao.split(",")) {
+			String[] partes = definicao.trim().split(":");
+			if (partes.length != 3)
+				throw new IllegalArgumentException(String.format(
+						"Rota '%s' inválida em 'application.rate-limit.routes', o formato é 'padrão:capacidade:tokens por segundo'",
+						definicao.trim()));
+			rotas.add(new Rota(partes[0].trim(), Long.parseLong(partes[1].trim()), Double.parseDouble(partes[2].trim()),
+					this.registry));
+		}
+		return rotas;
+	}
+
+	private static final class Limites {
+
+		private final Rota[] rotas;
+		private final Cache<String, TokenBucket> baldes;
+
+		private Limites(List<Rota> rotas, long maxKeys) {
+			this.rotas = rotas.toArray(new Rota[0]);
+			this.baldes = Caffeine.newBuilder()
+					.maximumSize(maxKeys)
+					.expireAfterAccess(this.maiorTempoParaEncher(), TimeUnit.NANOSECONDS)
+					.build();
+		}
+
+		private Rota rota(String caminho) {
+			for (Rota rota : this.rotas) {
+				if (rota.corresponde(caminho))
+					return rota;
+			}
+			return null;
+		}
+
+		private TokenBucket balde(String chave, Rota rota) {
+			TokenBucket balde = this.baldes.getIfPresent(chave);
+			return balde != null ? balde : this.baldes.get(chave, k -> new TokenBucket(rota.intervalo, rota.capacidade, System.nanoTime()));
+		}
+
+		/**
+		 * Um balde sem acesso por mais tempo do que o necessário para encher é equivalente a um balde
+		 * novo, e pode ser descartado.
+		 */
+		private long maiorTempoParaEncher() {
+			long maior = TimeUnit.SECONDS.toNanos(1);
+			for (Rota rota : this.rotas)
+				maior = Math.max(maior, rota.intervalo * rota.capacidade);
+			return maior;
+		}
+
+	}
+
+	private static final class Rota {
+
+		private final String padrao;
+		private final String prefixo;
+		private final long capacidade;
+		private final long intervalo;
+		private final String intervaloMs;
+		private final String limiteMs;
+		private final Counter recusadas;
+
+		private Rota(String padrao, long capacidade, double porSegundo, MeterRegistry registry) {
+			if (capacidade < 1 || porSegundo <= 0)
+				throw new IllegalArgumentException(String.format(
+						"Rota '%s' inválida em 'application.rate-limit.routes', a capacidade e os tokens por segundo devem ser positivos",
+						padrao));
+
+			this.padrao = padrao;
+			this.prefixo = padrao.endsWith(SUFIXO_CURINGA) ? padrao.substring(0, padrao.length() - SUFIXO_CURINGA.length()) : null;
+			this.capacidade = capacidade;
+			this.intervalo = Math.max(Math.round(TimeUnit.SECONDS.toNanos(1) / porSegundo), 1);
+			this.intervaloMs = String.valueOf(1000 / porSegundo);
+			this.limiteMs = String.valueOf(1000 / porSegundo * capacidade);
+			this.recusadas = Counter.builder("rate.limit.rejected").tag("route", padrao).register(registry);
+		}
+
+		private boolean corresponde(String caminho) {
+			if (this.prefixo == null)
+				return this.padrao.equals(caminho);
+			return caminho.startsWith(this.prefixo)
+					&& (caminho.length() == this.prefixo.length() || caminho.charAt(this.prefixo.length()) == '/');
+		}
+
+	}
+
+}
@@ -11,7 +11,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.SecurityFilterChain;
@@ -24,22 +23,22 @@ public class SecurityConfig {
 	
 	private final JwtAuthFilter jwtAuthFilter;
 	private final CustomUserDetailsService userDetailsService;
+	private final PasswordEncoder passwordEncoder;
+	private final RateLimitFilter rateLimitFilter;
 	
-	public SecurityConfig(JwtAuthFilter jwtAuthFilter, CustomUserDetailsService userDetailsService) {
+	public SecurityConfig(JwtAuthFilter jwtAuthFilter, CustomUserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+			RateLimitFilter rateLimitFilter) {
 		this.jwtAuthFilter = jwtAuthFilter;
+		this.rateLimitFilter = rateLimitFilter;
 		this.userDetailsService = userDetailsService;
-	}
-	
-	@Bean
-	PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		this.passwordEncoder = passwordEncoder;
 	}
 	
 	@Bean
 	AuthenticationProvider authenticationProvider() {
 		DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 		authProvider.setUserDetailsService(userDetailsService);
-		authProvider.setPasswordEncoder(passwordEncoder());
+		authProvider.setPasswordEncoder(this.passwordEncoder);
 		return authProvider;
 	}
 	
@@ -59,12 +58,14 @@ public class SecurityConfig {
                         .antMatchers("/swagger-ui/**").permitAll()
                         .antMatchers("/v3/api-docs/**").permitAll()
                         .antMatchers("/auth/login").permitAll()
+                        .antMatchers("/auth/refresh").permitAll()
                         .antMatchers("/v1/usuarios/criar").permitAll()
                         .anyRequest().authenticated())
                 .exceptionHandling(handling -> handling
                 		.authenticationEntryPoint((request, response, authException) -> response.sendError(HttpServletResponse.SC_UNAUTHORIZED)))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
 		return defaultSecurityFilterChain;			
 		}
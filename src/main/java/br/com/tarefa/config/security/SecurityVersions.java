@@ -0,0 +1,153 @@
+package br.com.tarefa.config.security;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import br.com.tarefa.config.cache.CacheCircuitBreaker;
+import br.com.tarefa.config.cache.CacheInvalidation;
+import br.com.tarefa.config.cache.InvalidationCache;
+import br.com.tarefa.repositories.UsuarioRepository;
+import br.com.tarefa.repositories.UsuarioRepository.Versao;
+
+/**
+ * Versão de segurança dos usuários, incluída no access token para que as requisições sejam
+ * autenticadas pelas claims do token sem carregar o usuário.
+ *
+ * A versão é derivada da data da última atualização do usuário, alterada sempre que as suas
+ * credenciais são alteradas. As versões atuais são mantidas em memória e consultadas na base de
+ * dados apenas quando ausentes; usuários excluídos não possuem versão.
+ *
+ * As versões em memória são descartadas quando o usuário é gravado ou removido do cache 'usuarios',
+ * nesta instância pelo decorador do cache e nas demais pelo {@link CacheInvalidation}, quando o
+ * circuito do Redis fecha (notificações perdidas) e após o tempo de expiração configurado.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Component
+public class SecurityVersions {
+
+	private static final String CACHE_USUARIOS = "usuarios";
+	private static final long VERSAO_INEXISTENTE = -1;
+
+	@Value("${application.security.jwt.claims-authentication.enabled:false}")
+	private boolean enabled;
+	@Value("${application.security.jwt.claims-authentication.max-size:100000}")
+	private long maxSize;
+	@Value("${application.security.jwt.claims-authentication.expiration:300000}")
+	private long expiration;
+
+	private final UsuarioRepository repository;
+	private final CacheInvalidation cacheInvalidation;
+	private volatile LoadingCache<UUID, Long> versoes;
+
+	public SecurityVersions(UsuarioRepository repository, CacheInvalidation cacheInvalidation, CacheCircuitBreaker circuitBreaker) {
+		this.repository = repository;
+		this.cacheInvalidation = cacheInvalidation;
+		if (circuitBreaker != null)
+			circuitBreaker.aoFechar(() -> this.versoes().invalidateAll());
+	}
+
+	/**
+	 * @param dataAtualizacao data da última atualização do usuário.
+	 * @return a versão de segurança correspondente, com precisão de milissegundos.
+	 */
+	public static long versao(LocalDateTime dataAtualizacao) {
+		return dataAtualizacao != null ? dataAtualizacao.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+	}
+
+	/**
+	 * @param versao versão de segurança do usuário.
+	 * @return o instante da alteração correspondente à versão. A versão é a data da última atualização
+	 *         (horário local) lida como UTC, e por isso é convertida pelo fuso da aplicação antes de ser
+	 *         comparada com a emissão dos tokens.
+	 */
+	public static Instant instante(long versao) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(versao), ZoneOffset.UTC).atZone(ZoneId.systemDefault()).toInstant();
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Envolve o cache 'usuarios' para descartar as versões em memória dos usuários alterados.
+	 *
+	 * @param cache cache a ser decorado.
+	 * @return o cache decorado ou o próprio cache.
+	 */
+	public Cache decorate(Cache cache) {
+		if (!this.enabled || !CACHE_USUARIOS.equals(cache.getName()))
+			return cache;
+
+		this.cacheInvalidation.registrar(CACHE_USUARIOS, this::invalidar);
+		return new InvalidationCache(cache, key -> this.invalidar(key != null ? String.valueOf(key) : null));
+	}
+
+	/**
+	 * Verifica se a versão de segurança do token ainda é a versão atual do usuário. Uma versão mais
+	 * recente que a conhecida, gerada em outra instância antes da notificação chegar, é consultada
+	 * novamente na base de dados.
+	 *
+	 * @param id ID do usuário.
+	 * @param versao versão de segurança incluída no token.
+	 * @return falso se o usuário foi excluído ou se as suas credenciais foram alteradas após a emissão do token.
+	 */
+	public boolean isVersaoAtual(UUID id, long versao) {
+		LoadingCache<UUID, Long> cache = this.versoes();
+		long atual = cache.get(id);
+		if (versao > atual) {
+			cache.invalidate(id);
+			atual = cache.get(id);
+		}
+		return atual != VERSAO_INEXISTENTE && atual == versao;
+	}
+
+	private void invalidar(String key) {
+		if (key == null) {
+			this.versoes().invalidateAll();
+			return;
+		}
+
+		try {
+			this.versoes().invalidate(UUID.fromString(key));
+		} catch (IllegalArgumentException e) {
+			// Chaves por nome de usuário: a chave pelo ID é alterada junto.
+		}
+	}
+
+	private long carregar(UUID id) {
+		return this.repository.findVersoesByIdIn(Collections.singletonList(id)).stream()
+				.findFirst()
+				.map(Versao::getDataAtualizacao)
+				.map(SecurityVersions::versao)
+				.orElse(VERSAO_INEXISTENTE);
+	}
+
+	private LoadingCache<UUID, Long> versoes() {
+		LoadingCache<UUID, Long> cache = this.versoes;
+		if (cache == null) {
+			synchronized (this) {
+				if (this.versoes == null)
+					this.versoes = Caffeine.newBuilder()
+							.maximumSize(this.maxSize)
+							.expireAfterWrite(this.expiration, TimeUnit.MILLISECONDS)
+							.build(this::carregar);
+				cache = this.versoes;
+			}
+		}
+		return cache;
+	}
+
+}
@@ -0,0 +1,50 @@
+package br.com.tarefa.config.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem bloqueio, implementado pelo algoritmo GCRA (Generic Cell Rate Algorithm).
+ *
+ * Em vez de guardar a quantidade de tokens e o instante da última reposição, o balde guarda um
+ * único valor: o instante teórico em que ele estará cheio novamente. Cada requisição avança esse
+ * instante em um intervalo de reposição, e é recusada se ele ultrapassar o instante atual em mais
+ * do que a capacidade do balde. Assim o estado é atualizado com um único compare-and-set.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class TokenBucket {
+
+	private final long intervalo;
+	private final long limite;
+	private final AtomicLong cheioEm;
+
+	/**
+	 * @param intervalo intervalo de reposição de um token, em nanossegundos.
+	 * @param capacidade quantidade máxima de tokens do balde.
+	 * @param agora instante atual, em nanossegundos.
+	 */
+	public TokenBucket(long intervalo, long capacidade, long agora) {
+		this.intervalo = intervalo;
+		this.limite = intervalo * capacidade;
+		this.cheioEm = new AtomicLong(agora);
+	}
+
+	/**
+	 * Consome um token do balde.
+	 *
+	 * @param agora instante atual, em nanossegundos ({@link System#nanoTime()}).
+	 * @return zero se o token foi consumido ou o tempo de espera, em nanossegundos, até haver um token disponível.
+	 */
+	public long consumir(long agora) {
+		while (true) {
+			long atual = this.cheioEm.get();
+			long novo = Math.max(atual, agora) + this.intervalo;
+			long espera = novo - agora - this.limite;
+			if (espera > 0)
+				return espera;
+			if (this.cheioEm.compareAndSet(atual, novo))
+				return 0;
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package br.com.tarefa.config.security;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import br.com.tarefa.entities.Usuario;
+
+/**
+ * Usuário autenticado, com o ID e a versão de segurança incluídos no access token.
+ *
+ * Na autenticação por login é criado a partir do {@link Usuario}, com a senha para a verificação
+ * das credenciais. Nas requisições autenticadas pelo token é criado apenas a partir das claims,
+ * sem a senha.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class UsuarioAutenticado extends User {
+
+	private static final long serialVersionUID = 4237866417915618870L;
+	private static final String ROLE_USER = "ROLE_USER";
+
+	private final UUID id;
+	private final long versaoSeguranca;
+
+	public UsuarioAutenticado(UUID id, String nomeUsuario, String senha, long versaoSeguranca) {
+		super(nomeUsuario, senha != null ? senha : "", Collections.singletonList(new SimpleGrantedAuthority(ROLE_USER)));
+		this.id = id;
+		this.versaoSeguranca = versaoSeguranca;
+	}
+
+	/**
+	 * @param usuario usuário carregado da base de dados ou do cache.
+	 * @return o usuário autenticado com a senha e a versão de segurança atual do usuário.
+	 */
+	public static UsuarioAutenticado of(Usuario usuario) {
+		return new UsuarioAutenticado(usuario.getId(), usuario.getNomeUsuario(), usuario.getSenha(),
+				SecurityVersions.versao(usuario.getDataAtualizacao()));
+	}
+
+	public UUID getId() {
+		return this.id;
+	}
+
+	public long getVersaoSeguranca() {
+		return this.versaoSeguranca;
+	}
+
+}
@@ -0,0 +1,36 @@
+package br.com.tarefa.config.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Conversores dos formatos binários Smile ('application/x-jackson-smile') e CBOR ('application/cbor'),
+ * negociados pelos cabeçalhos Accept e Content-Type das requisições.
+ *
+ * Os formatos binários representam o mesmo modelo de dados do JSON, com menos bytes e menos custo de
+ * serialização, e são destinados aos consumidores internos. Sem estes beans o Spring MVC registraria
+ * conversores com um ObjectMapper próprio; aqui eles são criados pelo {@link Jackson2ObjectMapperBuilder}
+ * do Spring Boot, com as mesmas configurações e módulos do ObjectMapper usado no JSON.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Configuration
+public class MessageConvertersConfig {
+
+	@Bean
+	MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
+	@Bean
+	MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+}
@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -15,8 +16,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
 import br.com.tarefa.dtos.security.AuthenticationTokenDTO;
+import br.com.tarefa.dtos.security.RefreshTokenRequestDTO;
 import br.com.tarefa.exceptions.handlers.ApiRequestException;
+import br.com.tarefa.services.UsuarioService;
 import br.com.tarefa.services.security.JwtService;
+import br.com.tarefa.services.security.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -33,10 +37,15 @@ public class AutenticacaoController {
 	
 	private final JwtService jwtService;
     private final AuthenticationManager authManager;
+    private final RefreshTokenService refreshTokenService;
+    private final UsuarioService usuarioService;
    
-    public AutenticacaoController(JwtService jwtService, AuthenticationManager authManager) {
+    public AutenticacaoController(JwtService jwtService, AuthenticationManager authManager, RefreshTokenService refreshTokenService,
+    		UsuarioService usuarioService) {
 		this.jwtService = jwtService;
 		this.authManager = authManager;
+		this.refreshTokenService = refreshTokenService;
+		this.usuarioService = usuarioService;
     }
 	
 	@PostMapping("/login")
@@ -53,9 +62,29 @@ public class AutenticacaoController {
 	public ResponseEntity<AuthenticationTokenDTO> login(@RequestBody AuthenticationRequestDTO dto) {
 		log.info("Requisição recebida para autenticação do usuário: {}", dto.getUsername());
 		UsernamePasswordAuthenticationToken userPasswordToken = new UsernamePasswordAuthenticationToken(dto.getUsername(), dto.getPassword());
-		this.authManager.authenticate(userPasswordToken);
+		Authentication authentication = this.authManager.authenticate(userPasswordToken);
+		UserDetails usuario = authentication.getPrincipal() instanceof UserDetails ? (UserDetails) authentication.getPrincipal() : null;
 
-		return ResponseEntity.ok(jwtService.generateToken(dto));
+		return ResponseEntity.ok(jwtService.generateToken(dto, usuario));
+	}
+	
+	@PostMapping("/refresh")
+    @Operation(summary = "Renovação dos tokens do usuário", 
+               description = "Renovação dos tokens gera um novo par de tokens de autenticação "
+				    	    +"(access token e refresh token) a partir do refresh token, sem informar novamente as credenciais do usuário. "
+				    	    +"O refresh token utilizado é invalidado a cada renovação. A reutilização de um refresh token "
+				    		+"revoga todos os refresh tokens gerados a partir do mesmo login.")
+	@ApiResponse(responseCode = "200", description = "Renovação com sucesso",
+		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "400", description = "Requisição inválida", 
+		content = @Content(schema = @Schema(implementation = ApiRequestException.class), 
+		mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado ou revogado", 
+		content = @Content(schema = @Schema(implementation = ApiRequestException.class), 
+		mediaType = MediaType.APPLICATION_JSON_VALUE))
+	public ResponseEntity<AuthenticationTokenDTO> refresh(@RequestBody RefreshTokenRequestDTO dto) {
+		log.info("Requisição recebida para renovação dos tokens");
+		return ResponseEntity.ok(this.refreshTokenService.renovar(dto.getRefreshToken()));
 	}
 	
 	@PostMapping("/logout")
@@ -64,7 +93,8 @@ public class AutenticacaoController {
 	    					+"Este endpoint extrai o token do cabeçalho de autorização e verifica se o token está expirado. "
 	    					+"Se o token já tiver expirado, o logout não será realizado. " 
 	    					+"Caso contrário, o token é adicionado ao cache lista negra('blacklistedTokens') para "
-	    					+"impedir seu uso no futuro para acessar endpoints que exigem autenticação.",
+	    					+"impedir seu uso no futuro para acessar endpoints que exigem autenticação, e os refresh tokens "
+	    					+"da mesma sessão são revogados no cache 'refreshFamiliasRevogadas'.",
     		   security = @SecurityRequirement(name = "bearerAuth"))
 	@ApiResponse(responseCode = "204", description = "Logout com sucesso",
 		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
@@ -75,7 +105,27 @@ public class AutenticacaoController {
 		content = @Content(schema = @Schema(defaultValue = "")))
 	public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
 		log.info("Requisição recebida para logout do usuário");
-		this.jwtService.revokeToken(request.getHeader("Authorization"));
+		String authorization = request.getHeader("Authorization");
+		this.jwtService.revokeToken(authorization);
+		if (authorization != null && authorization.startsWith("Bearer "))
+			this.refreshTokenService.revogarFamilia(authorization.substring(7));
+        return ResponseEntity.noContent().build();
+	}
+	
+	@PostMapping("/logout-all")
+    @Operation(summary = "Logout do usuário em todas as sessões", 
+    		   description = "Logout do usuário em todas as sessões revoga todos os tokens JWT (access tokens e refresh tokens) "
+	    					+"emitidos para o usuário até o momento. "
+	    					+"Os tokens são revogados pela data da última atualização do usuário, sem adicionar cada token "
+	    					+"ao cache lista negra('blacklistedTokens').",
+    		   security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponse(responseCode = "204", description = "Logout com sucesso",
+		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "401", description = "Não autenticado", 
+		content = @Content(schema = @Schema(defaultValue = "")))
+	public ResponseEntity<Void> logoutAll() {
+		log.info("Requisição recebida para logout do usuário em todas as sessões");
+		this.usuarioService.revogarSessoes();
         return ResponseEntity.noContent().build();
 	}
 
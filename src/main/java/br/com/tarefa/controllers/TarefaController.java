@@ -3,12 +3,24 @@ package br.com.tarefa.controllers;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.persistence.Tuple;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -16,9 +28,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -33,13 +50,18 @@ import br.com.tarefa.dtos.AtualizarTarefaDTO;
 import br.com.tarefa.dtos.CriarTarefaDTO;
 import br.com.tarefa.dtos.FiltroTarefaDTO;
 import br.com.tarefa.dtos.TarefaDTO;
+import br.com.tarefa.dtos.TarefaParcialDTO;
 import br.com.tarefa.entities.Tarefa;
 import br.com.tarefa.entities.enums.StatusTarefa;
+import br.com.tarefa.exceptions.BusinessException;
 import br.com.tarefa.exceptions.handlers.ApiRequestException;
 import br.com.tarefa.mappers.TarefaMapper;
 import br.com.tarefa.services.TarefaService;
+import br.com.tarefa.utils.JsonArrayWriter;
+import br.com.tarefa.utils.TarefaLinks;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -53,12 +75,23 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/v1/tarefas")
 public class TarefaController {
 
+	private static final String CAMPO_LINKS = "links";
+	private static final String DESCRICAO_FIELDS = "Campos separados por vírgula, entre id, titulo, descricao, dataCriacao, "
+			+ "dataAtualizacao, status, usuarioId e links. Somente os campos informados são consultados e retornados";
+
+	@Value("${application.tarefas.streaming.enabled:false}")
+	private boolean streaming;
 	private final TarefaMapper mapper;
 	private final TarefaService service;
+	private final List<AbstractJackson2HttpMessageConverter> conversores;
 	
-	public TarefaController(TarefaMapper mapper, TarefaService service) {
+	public TarefaController(TarefaMapper mapper, TarefaService service, HttpMessageConverters httpMessageConverters) {
         this.mapper = mapper;
         this.service = service;
+        this.conversores = httpMessageConverters.getConverters().stream()
+        		.filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+        		.map(AbstractJackson2HttpMessageConverter.class::cast)
+        		.collect(Collectors.toList());
 	}   
 	
 	@PostMapping("/criar")
@@ -161,26 +194,104 @@ public class TarefaController {
 		Tarefa tarefa = this.service.buscarPeloId(id);
 		TarefaDTO tarefaDTO = this.mapper.tarefaToTarefaDTO(tarefa);
 		Optional<TarefaDTO> optTarefaDto = Optional.ofNullable(tarefaDTO);
-		optTarefaDto.ifPresent(t -> tarefaDTO.add(linkTo(methodOn(TarefaController.class).listarTarefas()).withRel(IanaLinkRelations.COLLECTION)));
+		optTarefaDto.ifPresent(t -> tarefaDTO.add(linkTo(methodOn(TarefaController.class).listarTarefas(null, null, null)).withRel(IanaLinkRelations.COLLECTION)));
 
 		return optTarefaDto.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).build());
 	}
 	
+	@GetMapping("/lote")
+	@Operation(summary = "Consultar tarefas pelos ids", 
+			   description = "Recupera as tarefas com base nos IDs fornecidos. Qualquer usuário pode visualizar as tarefas de outros usuários, "
+						    +"este endpoint busca todos os IDs no cache 'tarefas' em uma única consulta, os IDs que não estiverem "
+						    +"no cache são buscados no banco de dados em uma única consulta e armazenados em cache para futuras consultas. "
+						    +"IDs inexistentes são ignorados.",
+	           security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponse(responseCode = "200", description = "Busca realizada com sucesso", 
+		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "400", description = "Requisição inválida", 
+		content = @Content(schema = @Schema(implementation = ApiRequestException.class), 
+		mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "401", description = "Não autenticado", 
+		content = @Content(schema = @Schema(defaultValue = "")))
+	public ResponseEntity<List<TarefaDTO>> buscarPelosIds(
+			@RequestParam @Parameter(description = "IDs separados por vírgula") List<UUID> ids) {
+		List<Tarefa> tarefas = this.service.buscarPelosIds(ids);
+		Function<UUID, Link> self = TarefaLinks.self();
+		
+		List<TarefaDTO> tarefasDTO = tarefas.stream().map(tarefa -> TarefaDTO.create()
+						.withId(tarefa.getId())
+						.withTitulo(tarefa.getTitulo())
+						.withStatus(tarefa.getStatus())
+						.withUsuarioId(tarefa.getUsuario().getId())
+						.withDescricao(tarefa.getDescricao())
+						.withDataCriacao(tarefa.getDataCriacao())
+						.withDataAtualizacao(tarefa.getDataAtualizacao())
+						.add(self.apply(tarefa.getId())))
+					.collect(Collectors.toList());
+
+		return ResponseEntity.ok(tarefasDTO);
+	}
+	
+	@GetMapping("/minhas")
+	@Operation(summary = "Listar minhas tarefas", 
+			   description = "Recupera as tarefas do usuário logado ordenadas pela data de criação. Este endpoint mantém em cache "
+						    +"apenas os IDs das tarefas de cada usuário e busca as tarefas no cache 'tarefas' em uma única consulta, "
+						    +"de modo que criar ou excluir uma tarefa invalida somente o índice do seu usuário.",
+	           security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponse(responseCode = "200", description = "Busca realizada com sucesso", 
+		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "400", description = "Requisição inválida", 
+		content = @Content(schema = @Schema(implementation = ApiRequestException.class), 
+		mediaType = MediaType.APPLICATION_JSON_VALUE))
+	@ApiResponse(responseCode = "401", description = "Não autenticado", 
+		content = @Content(schema = @Schema(defaultValue = "")))
+	public ResponseEntity<List<TarefaDTO>> listarMinhasTarefas() {
+		List<Tarefa> tarefas = this.service.listarTarefasDoUsuarioLogado();
+		Function<UUID, Link> self = TarefaLinks.self();
+		
+		List<TarefaDTO> tarefasDTO = tarefas.stream().map(tarefa -> TarefaDTO.create()
+						.withId(tarefa.getId())
+						.withTitulo(tarefa.getTitulo())
+						.withStatus(tarefa.getStatus())
+						.withUsuarioId(tarefa.getUsuario().getId())
+						.withDescricao(tarefa.getDescricao())
+						.withDataCriacao(tarefa.getDataCriacao())
+						.withDataAtualizacao(tarefa.getDataAtualizacao())
+						.add(self.apply(tarefa.getId())))
+					.collect(Collectors.toList());
+
+		return ResponseEntity.ok(tarefasDTO);
+	}
+	
 	@GetMapping
     @Operation(summary = "Listar tarefas", 
 			   description = "Recupera uma lista de todas as tarefas armazenadas. Qualquer usuário pode visualizar as tarefas de outros usuários,"
 						    +"este endpoint busca todas as tarefas no banco de dados e, se encontrada, armazena o resultado em cache. "
-						    +"Isso melhora a performance em chamadas subsequentes, evitando consultas repetidas ao banco de dados.",
+						    +"Isso melhora a performance em chamadas subsequentes, evitando consultas repetidas ao banco de dados. "
+						    +"Com o streaming habilitado, as tarefas são lidas do banco de dados por um cursor e escritas na resposta "
+						    +"à medida que são lidas, sem cache, com o mesmo formato de JSON. Além do JSON, a resposta pode ser "
+						    +"negociada nos formatos binários Smile e CBOR pelo cabeçalho Accept. Com o parâmetro 'fields', somente "
+						    +"os campos informados são consultados no banco de dados e retornados, sem cache.",
     		   security = @SecurityRequirement(name = "bearerAuth"))
 	@ApiResponse(responseCode = "200", description = "Busca realizada com sucesso",
-		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
+		content = @Content(array = @ArraySchema(schema = @Schema(implementation = TarefaDTO.class)), 
+		mediaType = MediaType.APPLICATION_JSON_VALUE))
 	@ApiResponse(responseCode = "400", description = "Requisição inválida", 
 		content = @Content(schema = @Schema(implementation = ApiRequestException.class), 
 		mediaType = MediaType.APPLICATION_JSON_VALUE))
 	@ApiResponse(responseCode = "401", description = "Não autenticado", 
 	    content = @Content(schema = @Schema(defaultValue = "")))
-	public ResponseEntity<List<TarefaDTO>> listarTarefas() {
+	public ResponseEntity<List<TarefaDTO>> listarTarefas(
+			@RequestParam(required = false) @Parameter(description = DESCRICAO_FIELDS) List<String> fields,
+			HttpServletRequest request, HttpServletResponse response) {
+		if (fields != null)
+			return ResponseEntity.ok(this.listarTarefasParciais(new FiltroTarefaDTO(), fields));
+		
+		if (this.streaming && this.escreverTarefas(request, response))
+			return null;
+		
 		List<Tarefa> tarefas = this.service.listarTarefas();
+		Function<UUID, Link> self = TarefaLinks.self();
 		
 		List<TarefaDTO> tarefasDTO = tarefas.stream().map(tarefa -> TarefaDTO.create()
 						.withId(tarefa.getId())
@@ -190,18 +301,73 @@ public class TarefaController {
 						.withDescricao(tarefa.getDescricao())
 						.withDataCriacao(tarefa.getDataCriacao())
 						.withDataAtualizacao(tarefa.getDataAtualizacao())
-						.add(linkTo(methodOn(TarefaController.class).buscarPeloId(tarefa.getId())).withSelfRel()))
+						.add(self.apply(tarefa.getId())))
 					.collect(Collectors.toList());
 
 		return ResponseEntity.ok(tarefasDTO);
 	}
 	
+	/**
+	 * Escreve as tarefas na resposta à medida que são lidas do banco de dados, sem montar a lista de
+	 * entidades, a lista de DTOs e o corpo da resposta em memória, no formato negociado pelo cabeçalho
+	 * Accept entre os conversores Jackson (JSON, Smile e CBOR). Com a resposta já iniciada, um erro
+	 * durante a leitura interrompe o corpo, que não pode mais ser substituído por uma resposta de erro,
+	 * e o array não é fechado, para que o cliente identifique a resposta truncada.
+	 * 
+	 * @return false se nenhum dos formatos é aceito pela requisição, deixando a negociação para o Spring MVC.
+	 */
+	private boolean escreverTarefas(HttpServletRequest request, HttpServletResponse response) {
+		for (MediaType aceito : this.aceitos(request)) {
+			for (AbstractJackson2HttpMessageConverter conversor : this.conversores) {
+				Optional<MediaType> formato = conversor.getSupportedMediaTypes().stream()
+						.filter(aceito::isCompatibleWith)
+						.filter(tipo -> conversor.canWrite(TarefaDTO.class, tipo))
+						.findFirst();
+				
+				if (formato.isPresent()) {
+					this.escreverTarefas(response, conversor, formato.get());
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	private void escreverTarefas(HttpServletResponse response, AbstractJackson2HttpMessageConverter conversor, MediaType formato) {
+		Function<UUID, Link> self = TarefaLinks.self();
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(formato.toString());
+		
+		try (JsonArrayWriter<TarefaDTO> writer = new JsonArrayWriter<>(conversor.getObjectMapper(), TarefaDTO.class, 
+				response.getOutputStream())) {
+			this.service.percorrerTarefas(tarefa -> writer.escrever(tarefa.add(self.apply(tarefa.getId()))));
+			writer.concluir();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private List<MediaType> aceitos(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (!StringUtils.hasText(accept))
+			return Collections.singletonList(MediaType.ALL);
+		
+		try {
+			List<MediaType> aceitos = MediaType.parseMediaTypes(accept);
+			MediaType.sortBySpecificityAndQuality(aceitos);
+			return aceitos;
+		} catch (InvalidMediaTypeException e) {
+			return Collections.emptyList();
+		}
+	}
+	
 	@GetMapping("/paginado")
     @Operation(summary = "Listar tarefas com filtro", 
 			   description = "Recupera uma lista de tarefas aplicando os filtros especificados. Qualquer usuário pode visualizar as tarefas de outros usuários,"
 							+"este endpoint busca todas as tarefas conforme os argumentos aplicados ao filtro. "
-						    +"Somente em caso de existir tarefas, os resultados são armazenados em cache "
-							+"para melhorar a performance em chamadas subsequentes com os mesmos filtros.",
+						    +"Os resultados são armazenados em cache, inclusive quando nenhuma tarefa é encontrada, "
+							+"para melhorar a performance em chamadas subsequentes com os mesmos filtros. Com o parâmetro 'fields', "
+							+"somente os campos informados são consultados no banco de dados e retornados, sem cache.",
     		   security = @SecurityRequirement(name = "bearerAuth"))
 	@ApiResponse(responseCode = "200", description = "Busca realizada com sucesso",
 		content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE))
@@ -228,6 +394,7 @@ public class TarefaController {
 			@RequestParam(required = false) 
 				@Parameter(description = "Formato: yyyy-MM-dd'T'HH:mm:ss entre dataCriacaoInicio e dataCriacaoFim)")
 				@DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime dataCriacaoFim,
+			@RequestParam(required = false) @Parameter(description = DESCRICAO_FIELDS) List<String> fields,
 			@RequestParam(name = "Size", defaultValue = "10") Integer size,
 			@RequestParam(name = "Page", defaultValue = "1") Integer page) {
 		
@@ -245,7 +412,13 @@ public class TarefaController {
 				.dataAtualizacaoFim(dataAtualizacaoFim)
 				.build();
 		
+		if (fields != null) {
+			List<TarefaDTO> tarefasDTO = this.listarTarefasParciais(filtro, fields);
+			return ResponseEntity.ok(new PageImpl<>(tarefasDTO, pageable, tarefasDTO.size()));
+		}
+		
 		List<Tarefa> tarefas = this.service.listarTarefasComFiltro(filtro);
+		Function<UUID, Link> self = TarefaLinks.self();
 		
 		List<TarefaDTO> tarefasDTO = tarefas.stream().map(tarefa -> TarefaDTO.create()
 						.withId(tarefa.getId())
@@ -255,9 +428,48 @@ public class TarefaController {
 						.withUsuarioId(tarefa.getUsuario().getId())
 						.withDataCriacao(tarefa.getDataCriacao())
 						.withDataAtualizacao(tarefa.getDataAtualizacao())
-						.add(linkTo(methodOn(TarefaController.class).buscarPeloId(tarefa.getId())).withSelfRel()))
+						.add(self.apply(tarefa.getId())))
 					.collect(Collectors.toList());
 
 		return ResponseEntity.ok(new PageImpl<>(tarefasDTO, pageable, tarefasDTO.stream().count()));
 	}
+	
+	/**
+	 * Consulta somente as colunas dos campos informados no parâmetro 'fields' e monta as tarefas apenas
+	 * com esses campos. O ID é consultado também quando somente os links são informados, para gerar o link 'self'.
+	 */
+	private List<TarefaDTO> listarTarefasParciais(FiltroTarefaDTO filtro, List<String> fields) throws BusinessException {
+		Set<String> campos = fields.stream().map(String::trim).filter(StringUtils::hasText)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		boolean links = campos.remove(CAMPO_LINKS);
+		
+		Set<String> colunas = new LinkedHashSet<>(campos);
+		if (links)
+			colunas.add("id");
+		
+		List<Tuple> tuplas = this.service.listarCamposDasTarefas(filtro, colunas);
+		Function<UUID, Link> self = TarefaLinks.self();
+		
+		return tuplas.stream().map(tupla -> {
+			TarefaDTO tarefa = this.tarefaParcial(tupla, campos);
+			return links ? tarefa.add(self.apply(tupla.get("id", UUID.class))) : tarefa;
+		}).collect(Collectors.toList());
+	}
+	
+	private TarefaDTO tarefaParcial(Tuple tupla, Set<String> campos) {
+		TarefaParcialDTO tarefa = new TarefaParcialDTO();
+		for (String campo : campos) {
+			switch (campo) {
+				case "id": tarefa.setId(tupla.get(campo, UUID.class)); break;
+				case "titulo": tarefa.setTitulo(tupla.get(campo, String.class)); break;
+				case "descricao": tarefa.setDescricao(tupla.get(campo, String.class)); break;
+				case "dataCriacao": tarefa.setDataCriacao(tupla.get(campo, LocalDateTime.class)); break;
+				case "dataAtualizacao": tarefa.setDataAtualizacao(tupla.get(campo, LocalDateTime.class)); break;
+				case "status": tarefa.setStatus(tupla.get(campo, StatusTarefa.class)); break;
+				case "usuarioId": tarefa.setUsuarioId(tupla.get(campo, UUID.class)); break;
+				default: break;
+			}
+		}
+		return tarefa;
+	}
 }
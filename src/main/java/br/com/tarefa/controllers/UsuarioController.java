@@ -70,7 +70,8 @@ public class UsuarioController {
 							 +"já exista e pertença a um usuário diferente. "
 							 +"As informações do usuário, como nome, nome de usuário e senha, são atualizadas "
 							 +"com base nos dados fornecidos na requisição. A senha é criptografada "
-							 +"utilizando o BCryptPasswordEncoder antes de ser armazenada. "
+							 +"utilizando o BCryptPasswordEncoder antes de ser armazenada, somente se for informada; "
+							 +"quando ausente, a senha atual é mantida. "
 							 +"Se todas as verificações forem bem-sucedidas, os dados do usuário na base de dados serão atualizados "
 							 +"e o cache correspondente ao usuário será atualizado.",
 			   security = @SecurityRequirement(name = "bearerAuth"))
@@ -122,7 +123,7 @@ public class UsuarioController {
 			   description = "Permite consultar o usuário correspondente ao ID especificado."
 							 +"* Além disso, o verifica se o nome de usuário do usuário encontrado corresponde ao usuário "
 							 +"* atualmente logado. Se não corresponder, será proibido a visualização indicando que apenas o "
-							 +"usuário pode visualizar seus próprios dados. "
+							 +"usuário pode visualizar seus próprios dados, verificação feita a cada consulta, inclusive quando o usuário está em cache. "
 							 +"O resultado da busca é armazenado em cache com a chave igual ao ID do usuário. "
 							 +"*Se o resultado for null, ele não será armazenado no cache.",
 			   security = @SecurityRequirement(name = "bearerAuth"))
@@ -138,6 +139,7 @@ public class UsuarioController {
 		content = @Content(schema = @Schema(implementation = ApiRequestException.class), mediaType = MediaType.APPLICATION_JSON_VALUE))
 	public ResponseEntity<UsuarioDTO> buscarPeloId(@PathVariable UUID id) {
 		Usuario usuario = this.service.buscarPeloId(id);
+		this.service.validarVisualizacao(usuario);
 		UsuarioDTO usuarioDTO = this.mapper.usuarioToUsuarioDTO(usuario);
 		Optional<UsuarioDTO> optUsuarioDto = Optional.ofNullable(usuarioDTO);
 		
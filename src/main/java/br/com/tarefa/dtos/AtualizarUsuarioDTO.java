@@ -30,7 +30,6 @@ public class AtualizarUsuarioDTO implements Serializable {
 	@Size(max = 50, message = "O campo 'nomeUsuario' é permitido um máximo de 50 caracteres")
 	private String nomeUsuario;
 	
-	@NotBlank(message = "Campo 'senha' é obrigatório")
 	@Size(min = 8, max = 11, message = "O campo 'senha' é deve conter no mínimo 8 e no máximo de 11 caracteres")
 	private String senha;
 
@@ -0,0 +1,31 @@
+package br.com.tarefa.dtos;
+
+import org.springframework.hateoas.Links;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Tarefa com apenas os campos selecionados pelo parâmetro 'fields' das listagens. Os campos não
+ * selecionados ficam nulos e não são serializados, assim como os links quando não selecionados.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@JsonInclude(Include.NON_NULL)
+public class TarefaParcialDTO extends TarefaDTO {
+
+	private static final long serialVersionUID = 2204925311547371402L;
+
+	public TarefaParcialDTO() {
+		super(null, null, null, null, null, null, null);
+	}
+
+	@Override
+	@JsonProperty("links")
+	@JsonInclude(Include.NON_EMPTY)
+	public Links getLinks() {
+		return super.getLinks();
+	}
+
+}
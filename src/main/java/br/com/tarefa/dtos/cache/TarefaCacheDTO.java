@@ -0,0 +1,33 @@
+package br.com.tarefa.dtos.cache;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import br.com.tarefa.entities.enums.StatusTarefa;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Snapshot imutável de uma {@link br.com.tarefa.entities.Tarefa} armazenado no cache.
+ * 
+ * Guarda apenas as colunas da tarefa e o id do usuário, sem referência ao proxy
+ * lazy de {@link br.com.tarefa.entities.Usuario}.
+ */
+@Value
+@Builder
+@Jacksonized
+public class TarefaCacheDTO implements Serializable {
+
+	private static final long serialVersionUID = 2650417238940672163L;
+
+	UUID id;
+	String titulo;
+	String descricao;
+	LocalDateTime dataCriacao;
+	LocalDateTime dataAtualizacao;
+	StatusTarefa status;
+	UUID usuarioId;
+
+}
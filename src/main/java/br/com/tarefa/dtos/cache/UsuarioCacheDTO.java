@@ -0,0 +1,30 @@
+package br.com.tarefa.dtos.cache;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Snapshot imutável de um {@link br.com.tarefa.entities.Usuario} armazenado no cache.
+ * 
+ * A coleção de tarefas do usuário não faz parte do snapshot.
+ */
+@Value
+@Builder
+@Jacksonized
+public class UsuarioCacheDTO implements Serializable {
+
+	private static final long serialVersionUID = -5043391846127560518L;
+
+	UUID id;
+	String nome;
+	String nomeUsuario;
+	String senha;
+	LocalDateTime dataCriacao;
+	LocalDateTime dataAtualizacao;
+
+}
@@ -0,0 +1,28 @@
+package br.com.tarefa.dtos.security;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotBlank;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequestDTO implements Serializable {
+
+	private static final long serialVersionUID = 5630442781929716032L;
+	
+	@NotBlank(message = "Campo 'refresh_token' é obrigatório")
+	@JsonProperty("refresh_token")
+	private String refreshToken;
+
+}
@@ -0,0 +1,19 @@
+package br.com.tarefa.exceptions;
+
+public class PasswordHashingException extends RuntimeException {
+
+	private static final long serialVersionUID = 4406135212836021457L;
+
+	public PasswordHashingException(String message) {
+		super(message);
+	}
+
+	public PasswordHashingException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public PasswordHashingException(String message, Object ...args) {
+		super(String.format(message, args));
+	}
+
+}
@@ -0,0 +1,19 @@
+package br.com.tarefa.exceptions;
+
+public class RefreshTokenException extends RuntimeException {
+
+	private static final long serialVersionUID = -2718326146904315027L;
+
+	public RefreshTokenException(String message) {
+		super(message);
+	}
+
+	public RefreshTokenException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public RefreshTokenException(String message, Object ...args) {
+		super(String.format(message, args));
+	}
+
+}
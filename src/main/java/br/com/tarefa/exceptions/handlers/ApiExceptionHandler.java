@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolationException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -13,6 +14,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import br.com.tarefa.exceptions.AuthorizationException;
 import br.com.tarefa.exceptions.BusinessException;
+import br.com.tarefa.exceptions.PasswordHashingException;
+import br.com.tarefa.exceptions.RefreshTokenException;
 import br.com.tarefa.exceptions.ResourceNotFoundException;
 import br.com.tarefa.exceptions.RevokeTokenException;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +39,34 @@ public class ApiExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiException);
     }
 	
+    @ExceptionHandler(value = {RefreshTokenException.class})
+    public ResponseEntity<ApiRequestException> haddlerRefreshTokenException(RefreshTokenException e, HttpServletRequest request) {
+
+        ApiRequestException apiException = ApiRequestException.builder()
+                .title("Unauthorized")
+                .message(e.getMessage())
+                .httpStatus(HttpStatus.UNAUTHORIZED.value())
+                .timestamp(LocalDateTime.now()).build();
+
+        this.logError(HttpStatus.UNAUTHORIZED, e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(apiException);
+    }
+	
+    @ExceptionHandler(value = {PasswordHashingException.class})
+    public ResponseEntity<ApiRequestException> haddlerPasswordHashingException(PasswordHashingException e, HttpServletRequest request) {
+
+        ApiRequestException apiException = ApiRequestException.builder()
+                .title("Service Unavailable")
+                .message(e.getMessage())
+                .httpStatus(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now()).build();
+
+        this.logError(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(apiException);
+    }
+	
     @ExceptionHandler(value = {AuthorizationException.class})
     public ResponseEntity<ApiRequestException> haddlerAuthorizationException(AuthorizationException e, HttpServletRequest request) {
 
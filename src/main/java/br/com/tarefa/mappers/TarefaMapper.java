@@ -1,10 +1,13 @@
 package br.com.tarefa.mappers;
 
+import java.util.List;
+
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 import br.com.tarefa.dtos.CriarTarefaDTO;
 import br.com.tarefa.dtos.TarefaDTO;
+import br.com.tarefa.dtos.cache.TarefaCacheDTO;
 import br.com.tarefa.entities.Tarefa;
 
 @Mapper(componentModel = "spring")
@@ -22,5 +25,15 @@ public interface TarefaMapper {
 	@Mapping(target = "dataCriacao", ignore = true)
 	@Mapping(target = "dataAtualizacao", ignore = true)
 	Tarefa criarTarefaDTOToTarefa(CriarTarefaDTO dto);
+	
+	@Mapping(target = "usuarioId", source = "usuario.id")
+	TarefaCacheDTO tarefaToTarefaCacheDTO(Tarefa tarefa);
+	
+	@Mapping(target = "usuario.id", source = "usuarioId")
+	Tarefa tarefaCacheDTOToTarefa(TarefaCacheDTO dto);
+	
+	List<TarefaCacheDTO> tarefasToTarefasCacheDTO(List<Tarefa> tarefas);
+	
+	List<Tarefa> tarefasCacheDTOToTarefas(List<TarefaCacheDTO> dtos);
 
 }
@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 
 import br.com.tarefa.dtos.CriarUsuarioDTO;
 import br.com.tarefa.dtos.UsuarioDTO;
+import br.com.tarefa.dtos.cache.UsuarioCacheDTO;
 import br.com.tarefa.entities.Usuario;
 
 @Mapper(componentModel = "spring")
@@ -20,5 +21,10 @@ public interface UsuarioMapper {
 	@Mapping(target = "dataAtualizacao", ignore = true)
 	@Mapping(target = "tarefas", ignore = true)
 	Usuario criarUsuarioDTOToUsuario(CriarUsuarioDTO dto);
+	
+	UsuarioCacheDTO usuarioToUsuarioCacheDTO(Usuario entity);
+	
+	@Mapping(target = "tarefas", ignore = true)
+	Usuario usuarioCacheDTOToUsuario(UsuarioCacheDTO dto);
 
 }
@@ -1,10 +1,21 @@
 package br.com.tarefa.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import br.com.tarefa.dtos.TarefaDTO;
 import br.com.tarefa.entities.Tarefa;
 import br.com.tarefa.repositories.custom.TarefaRepositoryCustom;
 
@@ -12,5 +23,34 @@ import br.com.tarefa.repositories.custom.TarefaRepositoryCustom;
 public interface TarefaRepository extends JpaRepository<Tarefa, UUID>, TarefaRepositoryCustom {
 	
 	Optional<Tarefa> findByTitulo(String titulo);
+	
+	List<Tarefa> findAllByOrderByDataAtualizacaoDesc(Pageable pageable);
+	
+	@Query("select t.id from Tarefa t where t.usuario.id = :usuarioId order by t.dataCriacao")
+	List<UUID> findIdsByUsuarioIdOrderByDataCriacao(@Param("usuarioId") UUID usuarioId);
+	
+	@Query("select t.id as id, t.dataAtualizacao as dataAtualizacao from Tarefa t where t.id in :ids")
+	List<Versao> findVersoesByIdIn(@Param("ids") Collection<UUID> ids);
+	
+	/**
+	 * Percorre todas as tarefas por um cursor, lendo as linhas do banco de dados em blocos. As tarefas
+	 * são projetadas diretamente no DTO, sem entidades no contexto de persistência, para que a memória
+	 * não cresça com a quantidade de linhas. Deve ser consumido dentro de uma transação e fechado ao final.
+	 */
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select new br.com.tarefa.dtos.TarefaDTO(t.id, t.titulo, t.descricao, t.dataCriacao, t.dataAtualizacao, t.status, t.usuario.id) "
+			+ "from Tarefa t")
+	Stream<TarefaDTO> streamAllAsDTO();
+	
+	/**
+	 * Projeção com a data da última atualização da tarefa, usada para verificar as cópias em cache.
+	 */
+	interface Versao {
+		
+		UUID getId();
+		
+		LocalDateTime getDataAtualizacao();
+		
+	}
 
 }
@@ -1,14 +1,41 @@
 package br.com.tarefa.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.tarefa.entities.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, UUID>{
 	
 	Optional<Usuario> findByNomeUsuario(String nomeUsuario);
+	
+	List<Usuario> findAllByOrderByDataAtualizacaoDesc(Pageable pageable);
+	
+	@Query("select u.id as id, u.nomeUsuario as nomeUsuario, u.dataAtualizacao as dataAtualizacao from Usuario u where u.id in :ids")
+	List<Versao> findVersoesByIdIn(@Param("ids") Collection<UUID> ids);
+	
+	@Query("select u.id as id, u.nomeUsuario as nomeUsuario, u.dataAtualizacao as dataAtualizacao from Usuario u where u.nomeUsuario in :nomes")
+	List<Versao> findVersoesByNomeUsuarioIn(@Param("nomes") Collection<String> nomes);
+	
+	/**
+	 * Projeção com o nome de usuário e a data da última atualização, usada para verificar as cópias em cache.
+	 */
+	interface Versao {
+		
+		UUID getId();
+		
+		String getNomeUsuario();
+		
+		LocalDateTime getDataAtualizacao();
+		
+	}
 
 }
\ No newline at end of file
@@ -1,12 +1,30 @@
 package br.com.tarefa.repositories.custom;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import javax.persistence.Tuple;
 
 import br.com.tarefa.dtos.FiltroTarefaDTO;
 import br.com.tarefa.entities.Tarefa;
 
 public interface TarefaRepositoryCustom {
 
+	/**
+	 * Campos da tarefa que podem ser selecionados em {@link #findFieldsByFilter}.
+	 */
+	Set<String> CAMPOS = Collections.unmodifiableSet(new LinkedHashSet<>(
+			Arrays.asList("id", "titulo", "descricao", "dataCriacao", "dataAtualizacao", "status", "usuarioId")));
+
 	List<Tarefa> findAllByFilter(FiltroTarefaDTO filtro);
 
+	/**
+	 * Consulta apenas as colunas dos campos informados, com os mesmos filtros e ordenação de
+	 * {@link #findAllByFilter}. Cada valor da tupla tem como alias o nome do seu campo.
+	 */
+	List<Tuple> findFieldsByFilter(FiltroTarefaDTO filtro, Set<String> campos);
+
 }
@@ -4,13 +4,17 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.commons.lang3.StringUtils;
@@ -39,11 +43,39 @@ public class TarefaRepositoryCustomImpl implements TarefaRepositoryCustom {
 		return this.entityManager.createQuery(query).getResultList();
 	}
 
+	@Override
+	public List<Tuple> findFieldsByFilter(FiltroTarefaDTO filtro, Set<String> campos) {
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Tarefa> root = query.from(Tarefa.class);
+
+		List<Selection<?>> selections = campos.stream()
+				.map(campo -> this.selection(root, campo).alias(campo))
+				.collect(Collectors.toList());
+
+		query.multiselect(selections).where(this.where(cb, root, filtro));
+		query.orderBy(cb.desc(root.get(Tarefa_.dataCriacao)));
+		return this.entityManager.createQuery(query).getResultList();
+	}
+
+	private Selection<?> selection(Root<Tarefa> root, String campo) {
+		switch (campo) {
+			case "id": return root.get(Tarefa_.id);
+			case "titulo": return root.get(Tarefa_.titulo);
+			case "descricao": return root.get(Tarefa_.descricao);
+			case "dataCriacao": return root.get(Tarefa_.dataCriacao);
+			case "dataAtualizacao": return root.get(Tarefa_.dataAtualizacao);
+			case "status": return root.get(Tarefa_.status);
+			case "usuarioId": return root.get(Tarefa_.usuario).get(Usuario_.id);
+			default: throw new IllegalArgumentException(String.format("Campo '%s' inexistente na tarefa", campo));
+		}
+	}
+
 	private Predicate[] where(CriteriaBuilder cb, Root<Tarefa> root, FiltroTarefaDTO filtro) {
 		List<Predicate> predicates = new ArrayList<>();
 
 		if (filtro == null)
-			return null;
+			return new Predicate[0];
 
 		this.expressionEquals(cb, root, predicates, Tarefa_.id, filtro.getId());
 		this.expressionEquals(cb, root, predicates, Tarefa_.status, filtro.getStatus());
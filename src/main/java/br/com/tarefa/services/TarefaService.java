@@ -1,23 +1,39 @@
 package br.com.tarefa.services;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.Tuple;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import br.com.tarefa.config.cache.BatchCache;
+import br.com.tarefa.config.cache.NegativeCache;
 import br.com.tarefa.dtos.AtualizarTarefaDTO;
 import br.com.tarefa.dtos.CriarTarefaDTO;
 import br.com.tarefa.dtos.FiltroTarefaDTO;
+import br.com.tarefa.dtos.TarefaDTO;
 import br.com.tarefa.entities.Tarefa;
 import br.com.tarefa.entities.Usuario;
 import br.com.tarefa.entities.enums.StatusTarefa;
@@ -26,6 +42,7 @@ import br.com.tarefa.exceptions.BusinessException;
 import br.com.tarefa.exceptions.ResourceNotFoundException;
 import br.com.tarefa.mappers.TarefaMapper;
 import br.com.tarefa.repositories.TarefaRepository;
+import br.com.tarefa.repositories.custom.TarefaRepositoryCustom;
 import br.com.tarefa.utils.UsuarioUtils;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,7 +52,8 @@ import lombok.extern.slf4j.Slf4j;
  * Esta classe fornece métodos para criar, atualizar, excluir e listar tarefas,
  * além de aplicar filtros na busca de tarefas. As operações de busca são
  * otimizadas através de caching, melhorando a performance das chamadas
- * subsequentes. 
+ * subsequentes. Quando uma entrada não está no cache, requisições concorrentes
+ * para a mesma chave compartilham uma única consulta ao banco de dados.
  * 
  * @author Daniel Henrique Cavalcante da Silva
  */
@@ -46,21 +64,33 @@ public class TarefaService {
 
 	private final static String CACHE_TAREFAS = "tarefas";
 	private final static String CACHE_LISTAR_TAREFAS = "listarTarefas";
+	private final static String CACHE_TAREFAS_POR_USUARIO = "tarefasPorUsuario";
+	@Value("${application.tarefas.lote.max-ids:100}")
+	private int maxIdsLote = 100;
 	private final TarefaRepository repository;
 	private final UsuarioService usuarioService;
 	private final TarefaMapper mapper;
+	private final CacheManager cacheManager;
+	private final NegativeCache negativeCache;
+	private final BatchCache batchCache;
 	
-	public TarefaService(TarefaRepository repository, UsuarioService usuarioService, TarefaMapper mapper) {
+	public TarefaService(TarefaRepository repository, UsuarioService usuarioService, TarefaMapper mapper, CacheManager cacheManager,
+			NegativeCache negativeCache, BatchCache batchCache) {
 		this.repository = repository;
 		this.usuarioService = usuarioService;
 		this.mapper = mapper;
+		this.cacheManager = cacheManager;
+		this.negativeCache = negativeCache;
+		this.batchCache = batchCache;
 	}
 
 	/**
 	 * Recupera uma tarefa com base no ID fornecido.
 	 * 
 	 * Este método verifica se a tarefa existe no banco de dados e, se encontrada, a armazena em cache 
-	 * para futuras consultas. Se a tarefa não existir, não será armazenada no cache.
+	 * para futuras consultas. Se a tarefa não existir, o ID é marcado por um curto período no cache
+	 * "tarefasInexistentes", evitando novas consultas ao banco de dados pelo mesmo ID.
+	 * Requisições concorrentes pelo mesmo ID aguardam uma única consulta ao banco de dados.
 	 * 
 	 * @param id O UUID que representa o ID da tarefa a ser buscada.
 	 * @return A tarefa correspondente ao ID fornecido, ou null se não houver tarefa com esse ID.
@@ -69,15 +99,61 @@ public class TarefaService {
 	 *             sob a chave correspondente ao ID da tarefa, permitindo acesso rápido em
 	 *             futuras solicitações para a mesma tarefa.
 	 */
-	@Cacheable(value = CACHE_TAREFAS, key = "#id", unless = "#result == null")
+	@Cacheable(value = CACHE_TAREFAS, key = "#id", sync = true)
 	public Tarefa buscarPeloId(@NotNull @Valid UUID id) {
-		return this.repository.findById(id).orElse(null);
+		return this.negativeCache
+				.load(NegativeCache.CACHE_TAREFAS_INEXISTENTES, id, () -> this.repository.findById(id).orElse(null));
+	}
+	
+	/**
+	 * Recupera as tarefas correspondentes aos IDs fornecidos.
+	 * 
+	 * Este método busca todos os IDs no cache "tarefas" em uma única ida ao Redis. Os IDs que não
+	 * estiverem no cache são consultados no banco de dados em uma única consulta e gravados no cache
+	 * para futuras consultas. Assim como na busca pelo ID, qualquer usuário pode visualizar as tarefas
+	 * de outros usuários. IDs repetidos são considerados uma única vez e IDs inexistentes são ignorados.
+	 * 
+	 * @param ids Os UUIDs que representam os IDs das tarefas a serem buscadas.
+	 * @throws BusinessException Se a quantidade de IDs ultrapassar o máximo permitido por consulta.
+	 * @return As tarefas encontradas, na ordem dos IDs fornecidos.
+	 */
+	public List<Tarefa> buscarPelosIds(@NotNull @Valid Collection<UUID> ids) throws BusinessException {
+		Set<UUID> idsUnicos = new LinkedHashSet<>(ids);
+		if (idsUnicos.size() > this.maxIdsLote)
+			throw new BusinessException("É permitido consultar no máximo %s tarefas por vez", this.maxIdsLote);
+		
+		return this.buscarTarefasNoCache(idsUnicos);
+	}
+	
+	/**
+	 * Recupera as tarefas do usuário logado, ordenadas pela data de criação.
+	 * 
+	 * Este método utiliza um índice por usuário armazenado no cache "tarefasPorUsuario", contendo apenas
+	 * os IDs das tarefas do usuário ordenados pela data de criação. As tarefas são buscadas no cache
+	 * "tarefas" em uma única ida ao Redis e somente as ausentes são consultadas no banco de dados.
+	 * O índice de um usuário só é removido quando ele cria ou exclui uma tarefa, sem afetar os
+	 * índices dos demais usuários.
+	 * 
+	 * @return As tarefas do usuário logado.
+	 */
+	public List<Tarefa> listarTarefasDoUsuarioLogado() {
+		Usuario usuario = this.usuarioService.buscarPeloNomeUsuario(UsuarioUtils.getUsuarioLogado());
+		if (usuario == null)
+			return new ArrayList<>();
+		
+		UUID usuarioId = usuario.getId();
+		Cache indice = this.cacheManager.getCache(CACHE_TAREFAS_POR_USUARIO);
+		List<UUID> ids = indice != null 
+				? indice.get(usuarioId, () -> this.repository.findIdsByUsuarioIdOrderByDataCriacao(usuarioId))
+				: this.repository.findIdsByUsuarioIdOrderByDataCriacao(usuarioId);
+		
+		return this.buscarTarefasNoCache(ids);
 	}
 	
 	/**
 	 * Recupera uma lista de todas as tarefas armazenadas.
 	 * 
-	 * Este método busca todas as tarefas no banco de dados e, se encontrada, armazena o resultado em cache.
+	 * Este método busca todas as tarefas no banco de dados e armazena o resultado em cache.
 	 * Isso melhora a performance em chamadas subsequentes, evitando consultas repetidas ao banco de dados.
 	 * 
 	 * @return Uma lista de todas as tarefas disponíveis.
@@ -86,16 +162,32 @@ public class TarefaService {
 	 *             sob a chave padrão, facilitando acessos futuros às tarefas sem necessidade
 	 *             de nova consulta no banco de dados.
 	 */
-	@Cacheable(value = CACHE_LISTAR_TAREFAS, unless = "#result.isEmpty()")
+	@Cacheable(value = CACHE_LISTAR_TAREFAS, sync = true)
 	public List<Tarefa> listarTarefas() {
 		return this.repository.findAll();
 	}
 	
+	/**
+	 * Percorre todas as tarefas armazenadas, entregando cada uma ao consumidor assim que é lida do banco de dados.
+	 * 
+	 * Diferente de {@link #listarTarefas()}, as tarefas não são reunidas em uma lista nem armazenadas em cache:
+	 * as linhas são lidas por um cursor e projetadas diretamente no DTO, mantendo em memória apenas o bloco
+	 * atual de linhas. A transação e a conexão permanecem abertas até o consumidor processar a última tarefa.
+	 * 
+	 * @param consumidor O consumidor que recebe cada tarefa, na ordem em que são lidas.
+	 */
+	@Transactional(readOnly = true)
+	public void percorrerTarefas(Consumer<TarefaDTO> consumidor) {
+		try (Stream<TarefaDTO> tarefas = this.repository.streamAllAsDTO()) {
+			tarefas.forEach(consumidor);
+		}
+	}
+	
 	/**
 	 * Recupera uma lista de tarefas aplicando os filtros especificados no DTO.
 	 * 
 	 * Este método busca todas as tarefas conforme definidos no objeto {@link FiltroTarefaDTO}. 
-	 * Somente em caso de existir tarefas, os resultados são armazenados em cache
+	 * Os resultados são armazenados em cache, inclusive quando nenhuma tarefa é encontrada,
 	 * para melhorar a performance em chamadas subsequentes com os mesmos filtros.
 	 * 
 	 * @param filtro O objeto {@link FiltroTarefaDTO} que contém os critérios de filtragem
@@ -105,11 +197,35 @@ public class TarefaService {
 	 * @Cacheable Anotação que indica que o resultado deste método deve ser armazenado em cache
 	 *             sob a chave gerada a partir da representação em string do objeto filtro.
 	 */
-	@Cacheable(value = CACHE_LISTAR_TAREFAS, key="#filtro.toString()",  unless = "#result.isEmpty()")
+	@Cacheable(value = CACHE_LISTAR_TAREFAS, key="#filtro.toString()", sync = true)
 	public List<Tarefa> listarTarefasComFiltro(FiltroTarefaDTO filtro) {
 		return this.repository.findAllByFilter(filtro);
 	}
 	
+	/**
+	 * Recupera apenas os campos informados das tarefas, aplicando os filtros especificados no DTO.
+	 * 
+	 * Somente as colunas dos campos informados são consultadas no banco de dados, reduzindo os bytes
+	 * lidos e transferidos quando poucos campos são necessários. Como cada combinação de campos gera um
+	 * resultado diferente, o resultado não é armazenado no cache "listarTarefas".
+	 * 
+	 * @param filtro O objeto {@link FiltroTarefaDTO} que contém os critérios de filtragem para a busca das tarefas.
+	 * @param campos Os campos a serem consultados, entre {@link TarefaRepositoryCustom#CAMPOS}.
+	 * @throws BusinessException Se nenhum campo for informado ou se algum campo não existir.
+	 * @return As tuplas com os valores dos campos, cada um com o nome do campo como alias.
+	 */
+	public List<Tuple> listarCamposDasTarefas(FiltroTarefaDTO filtro, Set<String> campos) throws BusinessException {
+		if (campos.isEmpty())
+			throw new BusinessException("Informe ao menos um campo, os campos permitidos são %s", TarefaRepositoryCustom.CAMPOS);
+		
+		for (String campo : campos) {
+			if (!TarefaRepositoryCustom.CAMPOS.contains(campo))
+				throw new BusinessException("Campo '%s' inválido, os campos permitidos são %s", campo, TarefaRepositoryCustom.CAMPOS);
+		}
+		
+		return this.repository.findFieldsByFilter(filtro, campos);
+	}
+	
 	/**
 	 * Cria uma nova tarefa com base nas informações fornecidas no DTO.
 	 * 
@@ -124,10 +240,16 @@ public class TarefaService {
 	 * @throws BusinessException Se já existir uma tarefa com o mesmo título.
 	 * @return A nova tarefa criada como um objeto {@link Tarefa}.
 	 * 
-	 * @CacheEvict Anotação que indica que todas as entradas do cache "listarTarefas" devem ser removidas
+	 * @CacheEvict A primeira anotação indica que todas as entradas do cache "listarTarefas" devem ser removidas
 	 *              após a execução deste método, garantindo que as informações em cache estejam sempre atualizadas.
+	 *              A segunda remove apenas o índice de tarefas do usuário no cache "tarefasPorUsuario".
+	 *              O cache "tarefasInexistentes" não é alterado, pois o ID da nova tarefa é gerado na
+	 *              criação e nunca pode ter sido consultado antes.
 	 */
-	@CacheEvict(value = CACHE_LISTAR_TAREFAS, allEntries = true)
+	@Caching(evict = { 
+			@CacheEvict(value = CACHE_LISTAR_TAREFAS, allEntries = true), 
+			@CacheEvict(value = CACHE_TAREFAS_POR_USUARIO, key = "#result.usuario.id")
+	})
 	public Tarefa criarTarefa(@NotNull @Valid CriarTarefaDTO dto) throws BusinessException {
 		Optional<Tarefa> optTituloOutraTarefa = this.repository.findByTitulo(dto.getTitulo());		
 		if (optTituloOutraTarefa.isPresent())
@@ -174,7 +296,7 @@ public class TarefaService {
 	@CacheEvict(value = CACHE_LISTAR_TAREFAS, allEntries = true)
 	@CachePut(value = CACHE_TAREFAS, key = "#dto.id")
 	public Tarefa atualizarTarefa(@NotNull @Valid AtualizarTarefaDTO dto) throws ResourceNotFoundException, AuthorizationException {
-		Tarefa tarefaEntity = this.buscarPeloId(dto.getId());
+		Tarefa tarefaEntity = this.repository.findById(dto.getId()).orElse(null);
 		if(tarefaEntity == null)
 			throw new ResourceNotFoundException("Tarefa pelo id %s não existe", dto.getId());
 		
@@ -202,9 +324,9 @@ public class TarefaService {
 	 * Este método verifica se a tarefa existe e se o usuário que está tentando
 	 * excluí-la é o mesmo que a criou. Se a tarefa não existir, ou se o usuário
 	 * não tiver permissão para excluí-la, exceções apropriadas serão lançadas.
-	 * Após a exclusão, a tarefa conforme seu ID é removida do cache "tarefas"
-	 * e também todas as entradas do cache "listarTarefas" são removidas,
-	 * garantindo que a próxima consulta reflita as mudanças.
+	 * Após a exclusão, a tarefa conforme seu ID é removida do cache "tarefas", o índice de tarefas
+	 * do usuário é removido do cache "tarefasPorUsuario" e também todas as entradas do cache
+	 * "listarTarefas" são removidas, garantindo que a próxima consulta reflita as mudanças.
 	 * 
 	 * @param id O UUID que representa o ID da tarefa a ser excluída.
 	 * @throws ResourceNotFoundException Se a tarefa com o ID fornecido não for encontrada.
@@ -219,7 +341,7 @@ public class TarefaService {
 			@CacheEvict(value = CACHE_TAREFAS, key = "#id")
 	})
 	public void excluirTarefaPeloId(@NotNull @Valid UUID id) throws ResourceNotFoundException, AuthorizationException {
-		Tarefa tarefaEntity = this.buscarPeloId(id);	
+		Tarefa tarefaEntity = this.repository.findById(id).orElse(null);
 		if(tarefaEntity == null)
 			throw new ResourceNotFoundException("Tarefa pelo id %s não existe", id);
 		
@@ -227,7 +349,31 @@ public class TarefaService {
 			throw new AuthorizationException("Apenas o usuário que criou a tarefa tem permissão para excluí-la");
 		
 		this.repository.deleteById(id); 
+		
+		Cache indice = this.cacheManager.getCache(CACHE_TAREFAS_POR_USUARIO);
+		if (indice != null)
+			indice.evict(tarefaEntity.getUsuario().getId());
 		log.info("Tarefa pelo id {} foi excluída", id);
 	}
+	
+	private List<Tarefa> buscarTarefasNoCache(Collection<UUID> ids) {
+		Map<UUID, Tarefa> tarefas = this.batchCache.getAll(CACHE_TAREFAS, ids, Tarefa.class);
+		
+		List<UUID> idsAusentes = ids.stream().filter(id -> !tarefas.containsKey(id)).collect(Collectors.toList());
+		if (!idsAusentes.isEmpty()) {
+			Map<UUID, Tarefa> carregadas = this.repository.findAllById(idsAusentes).stream()
+					.collect(Collectors.toMap(Tarefa::getId, tarefa -> tarefa));
+			this.batchCache.putAll(CACHE_TAREFAS, carregadas);
+			tarefas.putAll(carregadas);
+		}
+		
+		List<Tarefa> encontradas = new ArrayList<>(tarefas.size());
+		for (UUID id : ids) {
+			Tarefa tarefa = tarefas.get(id);
+			if (tarefa != null)
+				encontradas.add(tarefa);
+		}
+		return encontradas;
+	}
 
 }
@@ -1,17 +1,21 @@
 package br.com.tarefa.services;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import br.com.tarefa.config.cache.NegativeCache;
 import br.com.tarefa.dtos.AtualizarUsuarioDTO;
 import br.com.tarefa.dtos.CriarUsuarioDTO;
 import br.com.tarefa.entities.Usuario;
@@ -19,6 +23,7 @@ import br.com.tarefa.exceptions.AuthorizationException;
 import br.com.tarefa.exceptions.BusinessException;
 import br.com.tarefa.exceptions.ResourceNotFoundException;
 import br.com.tarefa.mappers.UsuarioMapper;
+import br.com.tarefa.repositories.TarefaRepository;
 import br.com.tarefa.repositories.UsuarioRepository;
 import br.com.tarefa.utils.UsuarioUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +31,8 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Serviço responsável pela gestão de usuários, incluindo operações como busca, criação,
  * atualização e exclusão. Este serviço utiliza um repositório para persistência de dados e
- * implementa caching para otimizar o acesso a informações de usuários.
+ * implementa caching para otimizar o acesso a informações de usuários. Requisições concorrentes
+ * por um usuário que não está no cache compartilham uma única consulta ao banco de dados.
  * 
  * @author Daniel Henrique Cavalcante da Silva
  */
@@ -36,14 +42,25 @@ import lombok.extern.slf4j.Slf4j;
 public class UsuarioService {
 	
 	private final static String CACHE_USUARIOS = "usuarios";
+	private final static String CACHE_TAREFAS_POR_USUARIO = "tarefasPorUsuario";
+	private final static String CACHE_TAREFAS = "tarefas";
+	private final static String CACHE_LISTAR_TAREFAS = "listarTarefas";
 	private final UsuarioRepository repository;
+	private final TarefaRepository tarefaRepository;
 	private final UsuarioMapper mapper;
 	private final CacheManager cacheManager;
+	private final NegativeCache negativeCache;
+	private final PasswordEncoder passwordEncoder;
 
-	public UsuarioService(UsuarioRepository repository, UsuarioMapper mapper, CacheManager cacheManager) {
+	public UsuarioService(UsuarioRepository repository, TarefaRepository tarefaRepository, UsuarioMapper mapper,
+			CacheManager cacheManager, NegativeCache negativeCache,
+			PasswordEncoder passwordEncoder) {
 		this.repository = repository;
+		this.tarefaRepository = tarefaRepository;
 		this.mapper = mapper;
 		this.cacheManager = cacheManager;
+		this.negativeCache = negativeCache;
+		this.passwordEncoder = passwordEncoder;
 	}
 	
 	/**
@@ -52,24 +69,33 @@ public class UsuarioService {
 	 * Este método consulta o banco de dados para encontrar um usuário correspondente ao ID especificado.
 	 * Se o usuário for encontrado, o objeto {@link Usuario} correspondente é retornado. Caso contrário,
 	 * o método retornará null. O resultado da busca é armazenado em cache com a chave igual ao ID
-	 * do usuário. Se o resultado for null, ele não será armazenado no cache.
+	 * do usuário. Se o resultado for null, ele não será armazenado no cache, e o ID é marcado por um
+	 * curto período no cache "usuariosInexistentes".
 	 *
-	 * Além disso, o método verifica se o nome de usuário do usuário encontrado corresponde ao usuário
-	 * atualmente logado. Se não corresponder, será proibido a visualização indicando que apenas o 
-	 * usuário pode visualizar seus próprios dados.
+	 * A permissão de visualização não é verificada por este método, pois a sua execução é
+	 * compartilhada entre as requisições concorrentes e não ocorre quando o usuário está em cache;
+	 * ela é verificada a cada consulta por {@link #validarVisualizacao(Usuario)}.
 	 *
 	 * @param o ID do usuário a ser buscado, não pode ser null.
 	 * @return o usuário correspondente ao ID fornecido, ou null se não for encontrado.
-	 * @throws AuthorizationException se o usuário logado não for o mesmo que o usuário encontrado.
 	 */
-	@Cacheable(value = CACHE_USUARIOS, key = "#id", unless = "#result == null")
+	@Cacheable(value = CACHE_USUARIOS, key = "#id", sync = true)
 	public Usuario buscarPeloId(@NotNull @Valid UUID id) {
-		Usuario usuario = this.repository.findById(id).orElse(null);
-		
+		return this.negativeCache
+				.load(NegativeCache.CACHE_USUARIOS_INEXISTENTES, id, () -> this.repository.findById(id).orElse(null));
+	}
+	
+	/**
+	 * Verifica se o nome de usuário do usuário encontrado corresponde ao usuário atualmente logado.
+	 * Se não corresponder, será proibido a visualização indicando que apenas o usuário pode
+	 * visualizar seus próprios dados.
+	 *
+	 * @param usuario o usuário encontrado por {@link #buscarPeloId(UUID)}, ou null.
+	 * @throws AuthorizationException se o usuário logado não for o mesmo que o usuário encontrado.
+	 */
+	public void validarVisualizacao(Usuario usuario) throws AuthorizationException {
 		if(usuario != null && !usuario.getNomeUsuario().equals(UsuarioUtils.getUsuarioLogado()))
 			throw new AuthorizationException("Apenas o usuário tem permissão para visualizar seus dados");
-
-		return usuario;
 	}
 	
 	/**
@@ -79,7 +105,9 @@ public class UsuarioService {
 	 * usuário especificado. Se o usuário for encontrado, o objeto {@link Usuario} correspondente
 	 * é retornado; caso contrário, o método retornará null. 
 	 * O resultado da busca é armazenado em cache com a chave igual ao nome de usuário. 
-	 * Se o resultado for null, ele não será armazenado no cache.
+	 * Se o resultado for null, ele não será armazenado no cache, e o nome de usuário é marcado
+	 * por um curto período no cache "usuariosInexistentes", evitando que tentativas de login
+	 * com usuários inexistentes consultem o banco de dados a cada requisição.
 	 *
 	 * @param nomeUsuario o nome de usuário a ser buscado.
 	 * @return o usuário correspondente ao nome de usuário fornecido.
@@ -88,9 +116,10 @@ public class UsuarioService {
 	 *             sob a chave correspondente ao nomeUsuario, permitindo acesso rápido em
 	 *             futuras solicitações para a mesmo usuário.
 	 */
-	@Cacheable(value = CACHE_USUARIOS, key = "#nomeUsuario", unless = "#result == null")
+	@Cacheable(value = CACHE_USUARIOS, key = "#nomeUsuario", sync = true)
 	public Usuario buscarPeloNomeUsuario(@NotNull @Valid String nomeUsuario) {
-		return this.repository.findByNomeUsuario(nomeUsuario).orElse(null);
+		return this.negativeCache
+				.load(NegativeCache.CACHE_USUARIOS_INEXISTENTES, nomeUsuario, () -> this.repository.findByNomeUsuario(nomeUsuario).orElse(null));
 	}
 	
 	/**
@@ -99,11 +128,14 @@ public class UsuarioService {
 	 * Este método verifica se o nome de usuário já está em uso antes de criar um novo registro.
 	 * Caso o nome de usuário já exista, não será permitida a operação.
 	 * Além disso, o método criptografa a senha do usuário antes de inserir na base de dados.
+	 * Após a criação, o nome de usuário é removido do cache "usuariosInexistentes". O ID não precisa
+	 * ser removido, pois é gerado na criação e nunca foi consultado.
 	 *
 	 * @param dto um objeto {@link CriarUsuarioDTO} contendo os dados necessários para criar um usuário.
 	 * @return o usuário recém-criado, representado por um objeto {@link Usuario}.
 	 * @throws BusinessException se o nome de usuário fornecido já estiver em uso.
 	 */
+	@CacheEvict(value = NegativeCache.CACHE_USUARIOS_INEXISTENTES, key = "#dto.nomeUsuario")
 	public Usuario criarUsuario(@NotNull @Valid CriarUsuarioDTO dto) throws BusinessException {
 		Usuario outroUsuario = this.buscarPeloNomeUsuario(dto.getNomeUsuario());
 		
@@ -112,7 +144,7 @@ public class UsuarioService {
 		
 		LocalDateTime dataAtual = LocalDateTime.now();
 		Usuario entity = this.mapper.criarUsuarioDTOToUsuario(dto);
-		entity.setSenha(new BCryptPasswordEncoder().encode(entity.getSenha()));
+		entity.setSenha(this.passwordEncoder.encode(entity.getSenha()));
 		entity.setDataCriacao(dataAtual);
 		entity.setDataAtualizacao(dataAtual);
 		
@@ -131,12 +163,15 @@ public class UsuarioService {
 	 *
 	 * As informações do usuário, como nome, nome de usuário e senha, são atualizadas
 	 * com base nos dados do objeto {@link AtualizarUsuarioDTO}. A senha é criptografada
-	 * utilizando o {@link BCryptPasswordEncoder} antes de ser armazenada.
+	 * utilizando o {@link PasswordEncoder} antes de ser armazenada, somente se for informada; quando
+	 * ausente, o hash atual é mantido sem executar o algoritmo de criptografia.
 	 * 
 	 * Se todas as verificações forem bem-sucedidas, os dados do usuário na base de dados serão atualizados
 	 * e o cache correspondente será atualizado usando a key "id". 
-	 * Caso o nome de usuário seja alterado, o cache existente sob a key "nomeUsuario" atual será invalidado, 
-	 * e uma nova key "nomeUsuario" com o valor atualizado será inserida.
+	 * Caso o nome de usuário seja alterado, uma nova key "nomeUsuario" com o valor atualizado será inserida,
+	 * sendo também removida do cache "usuariosInexistentes", e o cache existente sob a key "nomeUsuario"
+	 * anterior será invalidado. A invalidação ocorre somente após a gravação na base de dados, para que uma
+	 * leitura concorrente não volte a armazenar o usuário antigo sob o nome anterior.
 	 *
 	 * @param dto O objeto de transferência de dados que contém as novas informações do usuário.
 	 *            Este parâmetro não pode ser nulo e deve ser válido.
@@ -144,39 +179,66 @@ public class UsuarioService {
 	 *                                ou se ocorrer uma tentativa de atualização não autorizada.
 	 * @return O objeto {@link Usuario} atualizado.
 	 */
+	@CacheEvict(value = NegativeCache.CACHE_USUARIOS_INEXISTENTES, key = "#dto.nomeUsuario")
 	public Usuario atualizarUsuario(@NotNull @Valid AtualizarUsuarioDTO dto) throws AuthorizationException {
-		Usuario entity = this.buscarPeloNomeUsuario(UsuarioUtils.getUsuarioLogado());
+		Usuario entity = this.repository.findByNomeUsuario(UsuarioUtils.getUsuarioLogado()).orElse(null);
 		
 		if(!entity.getNomeUsuario().equals(dto.getNomeUsuario())) {
-			Usuario outroUsuario = this.buscarPeloNomeUsuario(dto.getNomeUsuario());
+			Usuario outroUsuario = this.repository.findByNomeUsuario(dto.getNomeUsuario()).orElse(null);
 			
 			if(outroUsuario != null && !outroUsuario.getId().equals(entity.getId()))
 				throw new AuthorizationException("O nome de usuário %s já está associado a outro usuário", dto.getNomeUsuario());
-			
-			this.cacheManager.getCache(CACHE_USUARIOS).evict(entity.getNomeUsuario());
 		}
 		
+		String nomeUsuarioAnterior = entity.getNomeUsuario();
 		entity.setNome(dto.getNome());
 		entity.setNomeUsuario(dto.getNomeUsuario());
-		entity.setSenha(new BCryptPasswordEncoder().encode(dto.getSenha()));
+		if (dto.getSenha() != null)
+			entity.setSenha(this.passwordEncoder.encode(dto.getSenha()));
 		entity.setDataAtualizacao(LocalDateTime.now());
 		
 		this.repository.save(entity);
-		this.cacheManager.getCache(CACHE_USUARIOS).put(entity.getId(), entity);
-		this.cacheManager.getCache(CACHE_USUARIOS).put(entity.getNomeUsuario(), entity);
+		Cache cache = this.cacheManager.getCache(CACHE_USUARIOS);
+		cache.put(entity.getId(), entity);
+		cache.put(entity.getNomeUsuario(), entity);
+		
+		if(!nomeUsuarioAnterior.equals(entity.getNomeUsuario()))
+			cache.evict(nomeUsuarioAnterior);
 	
 		log.info("Usuário do id {} foi atualizado", entity.getId());
 		
 		return entity;
 	}
 	
+	/**
+	 * Revoga todas as sessões do usuário logado.
+	 *
+	 * Os tokens emitidos antes da data da última atualização do usuário são recusados, por isso a
+	 * revogação apenas atualiza essa data e o usuário no cache "usuarios", sem registrar cada token
+	 * emitido na lista negra.
+	 *
+	 * @throws ResourceNotFoundException Se o usuário logado não existir mais na base de dados.
+	 */
+	public void revogarSessoes() throws ResourceNotFoundException {
+		Usuario entity = this.repository.findByNomeUsuario(UsuarioUtils.getUsuarioLogado())
+				.orElseThrow(() -> new ResourceNotFoundException("Usuário %s não existe", UsuarioUtils.getUsuarioLogado()));
+		
+		entity.setDataAtualizacao(LocalDateTime.now());
+		this.repository.save(entity);
+		Cache cache = this.cacheManager.getCache(CACHE_USUARIOS);
+		cache.put(entity.getId(), entity);
+		cache.put(entity.getNomeUsuario(), entity);
+		
+		log.info("Sessões do usuário do id {} foram revogadas", entity.getId());
+	}
+	
 	/**
 	 * Exclui um usuário pelo seu identificador único (UUID).
 	 *
 	 * Este método verifica se o usuário existe. Somente o próprio usuário pode se excluir, 
 	 * sendo proibido a exclusão de outro usuário que seja diferente do seu.
-	 * Se todas as verificações forem bem-sucedidas, exclui o usuário da base de dados e
-     * remove o usuário do cache.
+	 * Se todas as verificações forem bem-sucedidas, exclui o usuário e as suas tarefas da base de dados e
+     * remove do cache o usuário, o seu índice de tarefas, as suas tarefas e a listagem de tarefas.
 	 *
 	 * @param id O identificador único do usuário a ser excluído. Este parâmetro não pode ser nulo.
 	 * @throws ResourceNotFoundException Se o usuário com o ID fornecido não existir.
@@ -189,10 +251,24 @@ public class UsuarioService {
 		if(!usuarioEntity.getNomeUsuario().equals(UsuarioUtils.getUsuarioLogado()))
 			throw new AuthorizationException("Apenas o próprio usuário tem permissão para se excluir");
 		
+		List<UUID> idsTarefas = this.tarefaRepository.findIdsByUsuarioIdOrderByDataCriacao(id);
 		this.repository.deleteById(id);
 		this.cacheManager.getCache(CACHE_USUARIOS).evict(id);
 		this.cacheManager.getCache(CACHE_USUARIOS).evict(usuarioEntity.getNomeUsuario());
 		
+		Cache indiceTarefas = this.cacheManager.getCache(CACHE_TAREFAS_POR_USUARIO);
+		if (indiceTarefas != null)
+			indiceTarefas.evict(id);
+		
+		Cache tarefas = this.cacheManager.getCache(CACHE_TAREFAS);
+		if (tarefas != null && !idsTarefas.isEmpty()) {
+			idsTarefas.forEach(tarefas::evict);
+			
+			Cache listarTarefas = this.cacheManager.getCache(CACHE_LISTAR_TAREFAS);
+			if (listarTarefas != null)
+				listarTarefas.clear();
+		}
+		
 		log.info("Usuário pelo id {} foi excluído", id);
 	}
 
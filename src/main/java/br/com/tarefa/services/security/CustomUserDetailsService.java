@@ -1,11 +1,11 @@
 package br.com.tarefa.services.security;
 
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import br.com.tarefa.config.security.UsuarioAutenticado;
 import br.com.tarefa.entities.Usuario;
 import br.com.tarefa.services.UsuarioService;
 
@@ -28,13 +28,6 @@ public class CustomUserDetailsService implements UserDetailsService {
 					username));
         }
         
-        return User.withUsername(usuario.getNomeUsuario())
-                .password(usuario.getSenha())
-                .authorities("ROLE_USER")
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
+        return UsuarioAutenticado.of(usuario);
     }
 }
\ No newline at end of file
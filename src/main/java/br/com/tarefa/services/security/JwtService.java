@@ -1,9 +1,14 @@
 package br.com.tarefa.services.security;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
@@ -16,12 +21,16 @@ import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import br.com.tarefa.config.cache.RevokedTokens;
+import br.com.tarefa.config.security.SecurityVersions;
+import br.com.tarefa.config.security.UsuarioAutenticado;
 import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
 import br.com.tarefa.dtos.security.AuthenticationTokenDTO;
 import br.com.tarefa.exceptions.RevokeTokenException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -33,9 +42,24 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Esta classe oferece métodos para geração, revogação e validação de tokens de autenticação
  * e refresh tokens. Utiliza um cache para armazenar tokens revogados, garantindo que tokens
- * revogados não possam ser utilizados após o logout do usuário. 
+ * revogados não possam ser utilizados após o logout do usuário. Os tokens revogados são identificados
+ * no cache por um hash curto do token, e o Redis só é consultado quando o filtro local
+ * {@link RevokedTokens} indicar que o token possivelmente foi revogado. As revogações antigas, gravadas
+ * com o token completo como chave, só são consultadas com 'application.cache.revoked-tokens.legacy-keys'
+ * habilitado, durante a expiração dessas entradas após a migração.
  *
  * Os tokens são gerados com base em um segredo e têm tempos de expiração configuráveis.
+ * A chave de assinatura e o parser são criados uma única vez, e cada token é verificado uma
+ * única vez por requisição através de {@link #extractClaims(String)}, cujo resultado é reutilizado
+ * para obter o usuário, a expiração e validar o token.
+ *
+ * Com a autenticação por claims habilitada, o access token também inclui o ID e a versão de
+ * segurança do usuário ({@link SecurityVersions}), permitindo autenticar as requisições sem
+ * carregar o usuário. Os tokens emitidos antes da última atualização do usuário são recusados
+ * mesmo sem essas claims, de modo que revogar todas as sessões do usuário custa uma única gravação.
+ *
+ * Os refresh tokens possuem identificador (jti) e família próprios, usados na rotação feita pelo
+ * {@link RefreshTokenService}, e não são aceitos como access token.
  * 
  * @author Daniel Henrique Cavalcante da Silva
  */
@@ -43,18 +67,36 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class JwtService {
 
-	private static final String CACHE_BLACKLISTED_TOKENS = "blacklistedTokens";
-	@Value("${application.security.jwt.secret-key}")
-	private String secretKey;
+	private static final String CACHE_BLACKLISTED_TOKENS = RevokedTokens.CACHE_BLACKLISTED_TOKENS;
+	private static final int TAMANHO_ID_TOKEN = 16;
+	public static final String CLAIM_ID_USUARIO = "uid";
+	public static final String CLAIM_VERSAO_SEGURANCA = "sv";
+	public static final String CLAIM_FAMILIA = "fam";
+	public static final String CLAIM_EMISSAO = "iatms";
+	private static final String CLAIM_TIPO = "typ";
+	private static final String TIPO_REFRESH = "refresh";
 	@Value("${application.security.jwt.expiration}")
 	private long jwtExpiration;
 	@Value("${application.security.jwt.refresh-token.expiration}")
 	private long refreshExpiration;
+	@Value("${application.security.jwt.claims-authentication.enabled:false}")
+	private boolean claimsAuthentication;
+	@Value("${application.cache.revoked-tokens.legacy-keys:false}")
+	private boolean legacyKeys;
 	
 	private final CacheManager cacheManager;
+	private final RevokedTokens revokedTokens;
+	private final Key signInKey;
+	private final JwtParser parser;
 	
-	public JwtService(CacheManager cacheManager) {
+	public JwtService(CacheManager cacheManager, RevokedTokens revokedTokens,
+			@Value("${application.security.jwt.secret-key}") String secretKey) {
 		this.cacheManager = cacheManager;
+		this.revokedTokens = revokedTokens;
+		this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+		this.parser = Jwts.parserBuilder()
+				.setSigningKey(this.signInKey)
+				.build();
 	}
 	
 	/**
@@ -63,7 +105,7 @@ public class JwtService {
 	 * Este método extrai o token do cabeçalho de autorização passado como
 	 * parâmetro e verifica se o token está expirado. Se o token já tiver
 	 * expirado, uma exceção é lançada. 
-	 * Caso contrário, o token é adicionado à lista negra (cache) para
+	 * Caso contrário, o identificador do token é adicionado à lista negra (cache) para
 	 * impedir seu uso no futuro.
 	 *
 	 * @param authHeaderAuthorization o cabeçalho de autorização contendo o token JWT,
@@ -81,8 +123,9 @@ public class JwtService {
 				throw new RevokeTokenException("Não foi possível revogar o token JWT durante o logout, pois ele já está expirado");
 		}
 		
+		String id = token != null ? this.extractTokenId(token) : null;
 		Cache cacheBlackListedTokens = this.cacheManager.getCache(CACHE_BLACKLISTED_TOKENS);
-		cacheBlackListedTokens.putIfAbsent(token, token);
+		cacheBlackListedTokens.putIfAbsent(id, id);
 		log.info("Token revogado com sucesso");
 	}
 	
@@ -100,9 +143,44 @@ public class JwtService {
 	 *         expiração do access token, o refresh token gerado e o tempo de expiração do refresh token.
 	 */
 	public AuthenticationTokenDTO generateToken(@NotNull @Valid AuthenticationRequestDTO dto) {	
-		String acesstoken = generateToken(new HashMap<>(), dto);
-		String refreshToken = generateRefreshToken(dto);
+		return this.tokens(dto, generateToken(new HashMap<>(), dto), generateRefreshToken(dto));
+	}
+	
+	/**
+	 * Gera o par de tokens de autenticação incluindo nos tokens o ID e a versão de segurança do
+	 * usuário autenticado, quando a autenticação por claims estiver habilitada.
+	 *
+	 * @param dto o objeto que contém as credenciais de autenticação do usuário.
+	 * @param usuario o usuário autenticado pelas credenciais.
+	 * @return um objeto {@link AuthenticationTokenDTO} contendo os tokens gerados e os seus tempos de expiração.
+	 */
+	public AuthenticationTokenDTO generateToken(@NotNull @Valid AuthenticationRequestDTO dto, UserDetails usuario) {
+		return this.generateToken(dto, usuario, UUID.randomUUID().toString());
+	}
+	
+	/**
+	 * Gera o par de tokens de autenticação mantendo o refresh token na família informada, usada na
+	 * rotação dos refresh tokens para encerrar toda a sessão quando um refresh token for reutilizado.
+	 * O access token também recebe a família, para que o logout revogue os refresh tokens da sessão.
+	 *
+	 * @param dto o objeto que contém o nome do usuário autenticado.
+	 * @param usuario o usuário autenticado.
+	 * @param familia identificador da família do refresh token.
+	 * @return um objeto {@link AuthenticationTokenDTO} contendo os tokens gerados e os seus tempos de expiração.
+	 */
+	public AuthenticationTokenDTO generateToken(@NotNull @Valid AuthenticationRequestDTO dto, UserDetails usuario,
+			@NotBlank @Valid String familia) {
+		Map<String, Object> extraClaims = new HashMap<>();
+		if (this.claimsAuthentication && usuario instanceof UsuarioAutenticado) {
+			extraClaims.put(CLAIM_ID_USUARIO, ((UsuarioAutenticado) usuario).getId().toString());
+			extraClaims.put(CLAIM_VERSAO_SEGURANCA, ((UsuarioAutenticado) usuario).getVersaoSeguranca());
+		}
+		extraClaims.put(CLAIM_FAMILIA, familia);
 		
+		return this.tokens(dto, generateToken(extraClaims, dto), this.generateRefreshToken(new HashMap<>(extraClaims), dto, familia));
+	}
+	
+	private AuthenticationTokenDTO tokens(AuthenticationRequestDTO dto, String acesstoken, String refreshToken) {
 		log.info("Novo accesstoken e refreshToken gerados para o usuário: {}", dto.getUsername());
 		
 		return AuthenticationTokenDTO.builder()
@@ -120,69 +198,161 @@ public class JwtService {
 	}
 	
 	public boolean isTokenValid(@NotBlank @Valid String token, @NotNull @Valid UserDetails userDetails) {
-		final String username = this.extractUsername(token);
-		return (username.equals(userDetails.getUsername())) && !this.isTokenExpired(token);
+		return this.isTokenValid(this.extractClaims(token), userDetails);
+	}
+	
+	/**
+	 * Valida as claims de um token já verificado.
+	 *
+	 * @param claims claims obtidas por {@link #extractClaims(String)}.
+	 * @param userDetails usuário carregado a partir do subject do token.
+	 * @return verdadeiro se o token pertencer ao usuário e não estiver expirado.
+	 */
+	public boolean isTokenValid(Claims claims, @NotNull @Valid UserDetails userDetails) {
+		return claims != null && userDetails.getUsername().equals(claims.getSubject()) && !this.isTokenExpired(claims)
+				&& this.isEmitidoAposRevogacao(claims, userDetails);
+	}
+	
+	/**
+	 * Verifica se o token foi emitido após a última revogação das sessões do usuário, que ocorre
+	 * sempre que o usuário é atualizado (a sua versão de segurança). A emissão é lida da claim
+	 * {@value #CLAIM_EMISSAO}, com precisão de milissegundos, já que a claim 'iat' é truncada em
+	 * segundos e recusaria os tokens emitidos logo após a revogação, no mesmo segundo. Os tokens
+	 * emitidos antes dessa claim são comparados pela 'iat'.
+	 *
+	 * @param claims claims do token.
+	 * @param userDetails usuário carregado a partir do subject do token.
+	 * @return verdadeiro se o token foi emitido após a revogação ou se o usuário não possui versão de segurança.
+	 */
+	private boolean isEmitidoAposRevogacao(Claims claims, UserDetails userDetails) {
+		if (!(userDetails instanceof UsuarioAutenticado))
+			return true;
+		
+		Number emissao = claims.get(CLAIM_EMISSAO, Number.class);
+		if (emissao == null && claims.getIssuedAt() != null)
+			emissao = claims.getIssuedAt().getTime();
+		
+		long revogacao = SecurityVersions.instante(((UsuarioAutenticado) userDetails).getVersaoSeguranca()).toEpochMilli();
+		return emissao != null && emissao.longValue() > revogacao;
+	}
+	
+	/**
+	 * @param claims claims obtidas por {@link #extractClaims(String)}.
+	 * @return o usuário autenticado a partir do ID e da versão de segurança do token, ou nulo se a
+	 *         autenticação por claims estiver desabilitada ou o token não os contiver.
+	 */
+	public UsuarioAutenticado extractUsuarioAutenticado(Claims claims) {
+		if (!this.claimsAuthentication || claims == null)
+			return null;
+		
+		String id = claims.get(CLAIM_ID_USUARIO, String.class);
+		Number versao = claims.get(CLAIM_VERSAO_SEGURANCA, Number.class);
+		if (id == null || versao == null || claims.getSubject() == null)
+			return null;
+		
+		try {
+			return new UsuarioAutenticado(UUID.fromString(id), claims.getSubject(), null, versao.longValue());
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
 	}
 	
 	public String extractUsername(@NotBlank @Valid String token) {
+		Claims claims = this.extractClaims(token);
+		return claims != null ? claims.getSubject() : null;
+	}
+	
+	/**
+	 * Verifica a assinatura e a expiração do token uma única vez.
+	 *
+	 * @param token token JWT.
+	 * @return as claims do token ou nulo se o token for inválido ou estiver expirado.
+	 */
+	public Claims extractClaims(@NotBlank @Valid String token) {
 		try {
-			return extractClaim(token, Claims::getSubject);
-		} catch (JwtException e) {
+			return this.parser.parseClaimsJws(token).getBody();
+		} catch (JwtException | IllegalArgumentException e) {
 			return null;
 		}
 	}
 	
 	public boolean isTokenExpired(String token) {
 		try {
-			return this.extractExpiration(token).before(new Date());
+			return this.isTokenExpired(this.parser.parseClaimsJws(token).getBody());
 		} catch (ExpiredJwtException e) {
 			return true;
 		}
 	}
 	
+	private boolean isTokenExpired(Claims claims) {
+		return claims.getExpiration().before(new Date());
+	}
+	
 	public String generateToken(Map<String, Object> extraClaims, AuthenticationRequestDTO dto) {
 		return buildToken(extraClaims, dto, jwtExpiration);
 	}
 
 	public String generateRefreshToken(AuthenticationRequestDTO dto) {
-		return buildToken(new HashMap<>(), dto, refreshExpiration);
+		return this.generateRefreshToken(new HashMap<>(), dto, UUID.randomUUID().toString());
 	}
 	
-	private boolean isTokenRevoke(String token) {
-		Cache cacheBlackListedTokens = this.cacheManager.getCache(CACHE_BLACKLISTED_TOKENS);
-		String keyTokenRevoke = cacheBlackListedTokens.get(token, String.class);
-		return StringUtils.isNotBlank(keyTokenRevoke);
+	/**
+	 * @param claims claims obtidas por {@link #extractClaims(String)}.
+	 * @return verdadeiro se as claims forem de um refresh token, que não pode ser usado como access token.
+	 */
+	public boolean isRefreshToken(Claims claims) {
+		return claims != null && TIPO_REFRESH.equals(claims.get(CLAIM_TIPO, String.class));
 	}
 	
-	private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = extractAllClaims(token);
-		return claimsResolver.apply(claims);
+	/**
+	 * Gera um refresh token com identificador (jti) próprio, usado na detecção de reutilização.
+	 */
+	private String generateRefreshToken(Map<String, Object> extraClaims, AuthenticationRequestDTO dto, String familia) {
+		extraClaims.put(Claims.ID, UUID.randomUUID().toString());
+		extraClaims.put(CLAIM_TIPO, TIPO_REFRESH);
+		extraClaims.put(CLAIM_FAMILIA, familia);
+		return buildToken(extraClaims, dto, refreshExpiration);
 	}
-
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration);
+	
+	/**
+	 * @param token token JWT.
+	 * @return o identificador do token na lista negra: os primeiros 16 bytes do SHA-256 do token em Base64.
+	 */
+	public String extractTokenId(@NotBlank @Valid String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, TAMANHO_ID_TOKEN));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 	
-	private Claims extractAllClaims(String token) {
-		return Jwts.parserBuilder()
-				.setSigningKey(this.getSignInKey())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
+	private boolean isTokenRevoke(String token) {
+		String id = this.extractTokenId(token);
+		if (this.revokedTokens.talvezRevogado(id) && this.isNaListaNegra(id))
+			return true;
+		
+		// Revogações gravadas com o token completo como chave, consultadas somente durante a migração,
+		// até expirarem no cache, e com o filtro local habilitado
+		return this.legacyKeys && this.revokedTokens.isEnabled() && this.revokedTokens.talvezRevogado(token)
+				&& this.isNaListaNegra(token);
 	}
-
-	private Key getSignInKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-		return Keys.hmacShaKeyFor(keyBytes);
+	
+	private boolean isNaListaNegra(String key) {
+		Cache cacheBlackListedTokens = this.cacheManager.getCache(CACHE_BLACKLISTED_TOKENS);
+		String keyTokenRevoke = cacheBlackListedTokens.get(key, String.class);
+		return StringUtils.isNotBlank(keyTokenRevoke);
 	}
-
+	
 	private String buildToken(Map<String, Object> extraClaims, AuthenticationRequestDTO dto, long expiration) {
+		long emissao = System.currentTimeMillis();
 		return Jwts.builder()
 				.setClaims(extraClaims)
+				.claim(CLAIM_EMISSAO, emissao)
 				.setSubject(dto.getUsername())
-				.setIssuedAt(new Date(System.currentTimeMillis()))
-				.setExpiration(new Date(System.currentTimeMillis() + expiration))
-				.signWith(this.getSignInKey(), SignatureAlgorithm.HS256)
+				.setIssuedAt(new Date(emissao))
+				.setExpiration(new Date(emissao + expiration))
+				.signWith(this.signInKey, SignatureAlgorithm.HS256)
 				.compact();
 	}
 	
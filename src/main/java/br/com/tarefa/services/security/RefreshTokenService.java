@@ -0,0 +1,129 @@
+package br.com.tarefa.services.security;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import br.com.tarefa.config.security.SecurityVersions;
+import br.com.tarefa.config.security.UsuarioAutenticado;
+import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
+import br.com.tarefa.dtos.security.AuthenticationTokenDTO;
+import br.com.tarefa.exceptions.RefreshTokenException;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serviço responsável pela renovação dos tokens de autenticação a partir do refresh token, sem
+ * que o usuário precise informar novamente as suas credenciais (e sem o custo do BCrypt do login).
+ *
+ * A cada renovação o refresh token é rotacionado: um novo par de tokens é gerado na mesma família
+ * e o identificador (jti) do refresh token utilizado é gravado no cache 'refreshTokensUsados'. Um
+ * refresh token já utilizado indica que ele foi copiado, e toda a sua família é revogada no cache
+ * 'refreshFamiliasRevogadas', encerrando também a sessão de quem o utilizou primeiro. O logout
+ * também revoga a família da sessão, identificada no access token. As entradas dos dois caches
+ * expiram junto com os refresh tokens.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+@Slf4j
+@Service
+@Validated
+public class RefreshTokenService {
+
+	public static final String CACHE_REFRESH_TOKENS_USADOS = "refreshTokensUsados";
+	public static final String CACHE_REFRESH_FAMILIAS_REVOGADAS = "refreshFamiliasRevogadas";
+
+	private final JwtService jwtService;
+	private final CacheManager cacheManager;
+	private final SecurityVersions securityVersions;
+	private final CustomUserDetailsService userDetailsService;
+
+	public RefreshTokenService(JwtService jwtService, CacheManager cacheManager, SecurityVersions securityVersions,
+			CustomUserDetailsService userDetailsService) {
+		this.jwtService = jwtService;
+		this.cacheManager = cacheManager;
+		this.securityVersions = securityVersions;
+		this.userDetailsService = userDetailsService;
+	}
+
+	/**
+	 * Gera um novo par de tokens a partir do refresh token informado, invalidando-o.
+	 *
+	 * @param refreshToken refresh token emitido no login ou na última renovação.
+	 * @return um objeto {@link AuthenticationTokenDTO} contendo os novos tokens e os seus tempos de expiração.
+	 * @throws RefreshTokenException se o refresh token for inválido, estiver expirado, já tiver sido
+	 *         utilizado, pertencer a uma família revogada ou se o usuário não for mais válido.
+	 */
+	public AuthenticationTokenDTO renovar(@NotBlank @Valid String refreshToken) {
+		Claims claims = this.jwtService.extractClaims(refreshToken);
+		if (!this.jwtService.isRefreshToken(claims) || claims.getId() == null || claims.getSubject() == null)
+			throw new RefreshTokenException("O refresh token informado é inválido ou está expirado");
+
+		String familia = claims.get(JwtService.CLAIM_FAMILIA, String.class);
+		if (familia == null || this.isFamiliaRevogada(familia))
+			throw new RefreshTokenException("O refresh token informado foi revogado");
+
+		Cache cacheUsados = this.cacheManager.getCache(CACHE_REFRESH_TOKENS_USADOS);
+		if (cacheUsados.putIfAbsent(claims.getId(), familia) != null) {
+			this.cacheManager.getCache(CACHE_REFRESH_FAMILIAS_REVOGADAS).put(familia, familia);
+			log.warn("Reutilização do refresh token do usuário {} detectada, a sessão foi revogada", claims.getSubject());
+			throw new RefreshTokenException("O refresh token informado já foi utilizado, a sessão foi revogada");
+		}
+
+		UserDetails usuario = this.carregarUsuario(claims);
+		log.info("Refresh token renovado para o usuário: {}", claims.getSubject());
+		return this.jwtService.generateToken(AuthenticationRequestDTO.builder().username(claims.getSubject()).build(),
+				usuario, familia);
+	}
+
+	/**
+	 * Revoga a família dos refresh tokens da sessão do access token informado, para que o refresh
+	 * token da sessão encerrada no logout não gere novos tokens.
+	 *
+	 * @param accessToken access token da sessão encerrada.
+	 */
+	public void revogarFamilia(@NotBlank @Valid String accessToken) {
+		Claims claims = this.jwtService.extractClaims(accessToken);
+		String familia = claims != null ? claims.get(JwtService.CLAIM_FAMILIA, String.class) : null;
+		if (familia == null)
+			return;
+
+		this.cacheManager.getCache(CACHE_REFRESH_FAMILIAS_REVOGADAS).put(familia, familia);
+		log.info("Refresh tokens da sessão do usuário {} revogados", claims.getSubject());
+	}
+
+	private boolean isFamiliaRevogada(String familia) {
+		Cache cacheRevogadas = this.cacheManager.getCache(CACHE_REFRESH_FAMILIAS_REVOGADAS);
+		return cacheRevogadas.get(familia) != null;
+	}
+
+	/**
+	 * Obtém o usuário pela versão de segurança do token, quando presente, ou pelo nome de usuário.
+	 */
+	private UserDetails carregarUsuario(Claims claims) {
+		UsuarioAutenticado usuario = this.jwtService.extractUsuarioAutenticado(claims);
+		if (usuario != null) {
+			if (!this.securityVersions.isVersaoAtual(usuario.getId(), usuario.getVersaoSeguranca()))
+				throw new RefreshTokenException("As credenciais do usuário foram alteradas após a emissão do refresh token");
+			return usuario;
+		}
+
+		UserDetails userDetails;
+		try {
+			userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+		} catch (UsernameNotFoundException e) {
+			throw new RefreshTokenException(e.getMessage(), e);
+		}
+		
+		if (!this.jwtService.isTokenValid(claims, userDetails))
+			throw new RefreshTokenException("As sessões do usuário foram revogadas após a emissão do refresh token");
+		return userDetails;
+	}
+
+}
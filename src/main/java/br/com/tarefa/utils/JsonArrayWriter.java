@@ -0,0 +1,74 @@
+package br.com.tarefa.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonGenerator.Feature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Escreve um array JSON elemento a elemento diretamente no {@link OutputStream}, sem montar a
+ * lista em memória. Com o ObjectMapper de um formato binário (Smile ou CBOR), o array é escrito
+ * nesse formato.
+ *
+ * Cada elemento é serializado pelo mesmo {@link ObjectMapper} usado pelo Spring MVC, de modo que o
+ * conteúdo gerado é idêntico ao da serialização da lista completa. O {@link JsonGenerator} descarrega o
+ * seu buffer na saída sempre que ele enche, e não a cada elemento, enviando a resposta em blocos.
+ *
+ * O array somente é fechado se a escrita for concluída por {@link #concluir()}. Após uma falha na
+ * escrita ou na leitura dos elementos, o conteúdo já escrito é descarregado sem o fim do array e sem
+ * fechar o elemento incompleto, de modo que o cliente identifique a resposta truncada em vez de
+ * receber um array válido com parte dos elementos.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public class JsonArrayWriter<T> implements Closeable {
+
+	private final JsonGenerator generator;
+	private final ObjectWriter writer;
+	private boolean concluido;
+
+	public JsonArrayWriter(ObjectMapper objectMapper, Class<T> tipo, OutputStream saida) throws IOException {
+		this.writer = objectMapper.writerFor(tipo).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.generator = objectMapper.getFactory().createGenerator(saida).disable(Feature.AUTO_CLOSE_JSON_CONTENT);
+		this.generator.writeStartArray();
+	}
+
+	/**
+	 * @param elemento elemento a ser escrito no array.
+	 * @throws UncheckedIOException Se ocorrer um erro na escrita.
+	 */
+	public void escrever(T elemento) {
+		try {
+			this.writer.writeValue(this.generator, elemento);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Indica que todos os elementos foram escritos, para que o array seja fechado.
+	 */
+	public void concluir() {
+		this.concluido = true;
+	}
+
+	/**
+	 * Fecha o array, se a escrita foi concluída, e descarrega o restante do buffer na saída.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (this.concluido)
+				this.generator.writeEndArray();
+		} finally {
+			this.generator.close();
+		}
+	}
+
+}
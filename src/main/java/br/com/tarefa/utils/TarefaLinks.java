@@ -0,0 +1,37 @@
+package br.com.tarefa.utils;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.hateoas.Link;
+
+import br.com.tarefa.controllers.TarefaController;
+
+/**
+ * Links HATEOAS das tarefas para as listagens.
+ *
+ * O {@code linkTo(methodOn(TarefaController.class).buscarPeloId(id))} cria um proxy, invoca o
+ * método por reflexão e monta a URI a partir da requisição atual para cada tarefa. Aqui a URL base
+ * do controller é resolvida uma única vez por requisição, e para cada tarefa apenas o ID é
+ * concatenado, gerando o mesmo href.
+ *
+ * @author Daniel Henrique Cavalcante da Silva
+ */
+public final class TarefaLinks {
+
+	private TarefaLinks() {
+	}
+
+	/**
+	 * Deve ser obtido na thread da requisição, pois a URL base é resolvida a partir dela.
+	 *
+	 * @return a função que gera o link 'self' da tarefa ('GET /v1/tarefas/{id}') a partir do seu ID.
+	 */
+	public static Function<UUID, Link> self() {
+		String base = linkTo(TarefaController.class).toUri().toString() + "/";
+		return id -> Link.of(base + id);
+	}
+
+}
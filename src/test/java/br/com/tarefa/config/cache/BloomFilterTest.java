@@ -0,0 +1,38 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void testeValoresAdicionadosSempreSaoEncontrados() {
+		BloomFilter filtro = new BloomFilter(10_000, 0.001);
+
+		for (int i = 0; i < 10_000; i++)
+			filtro.adicionar("token-" + i);
+
+		for (int i = 0; i < 10_000; i++)
+			assertTrue(filtro.talvezContenha("token-" + i));
+	}
+
+	@Test
+	void testeTaxaDeFalsosPositivosNaCapacidade() {
+		BloomFilter filtro = new BloomFilter(10_000, 0.001);
+		for (int i = 0; i < 10_000; i++)
+			filtro.adicionar(UUID.randomUUID().toString());
+
+		int falsosPositivos = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filtro.talvezContenha(UUID.randomUUID().toString()))
+				falsosPositivos++;
+		}
+
+		// Tolerância de cinco vezes a probabilidade configurada (0,1%)
+		assertTrue(falsosPositivos < 500, "Falsos positivos: " + falsosPositivos);
+	}
+
+}
@@ -0,0 +1,167 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import br.com.tarefa.entities.Tarefa;
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.repositories.TarefaRepository;
+import br.com.tarefa.repositories.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheConsistencyVerifierTest {
+
+	@Mock private TarefaRepository tarefaRepository;
+	@Mock private UsuarioRepository usuarioRepository;
+	private ConcurrentMapCacheManager cacheManager;
+	private MeterRegistry registry;
+	private CacheConsistencyVerifier verifier;
+	private LocalDateTime dataAtual;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		this.cacheManager = new ConcurrentMapCacheManager("tarefas", "usuarios");
+		this.registry = new SimpleMeterRegistry();
+		this.verifier = new CacheConsistencyVerifier(cacheManager, null, tarefaRepository, usuarioRepository, null, registry);
+		this.dataAtual = LocalDateTime.now();
+	}
+
+	@Test
+	void testeRemoveTarefasDesatualizadasOuExcluidas() {
+		Tarefa atualizada = this.createInstanceTarefa(this.dataAtual);
+		Tarefa desatualizada = this.createInstanceTarefa(this.dataAtual.minusMinutes(1));
+		Tarefa excluida = this.createInstanceTarefa(this.dataAtual);
+		Cache cache = this.cacheManager.getCache("tarefas");
+		Map<Object, Object> amostra = this.amostra(cache, atualizada.getId(), atualizada,
+				desatualizada.getId(), desatualizada, excluida.getId(), excluida);
+
+		// Mockando as versões na base de dados, com precisão de microssegundos e sem a tarefa excluída
+		when(this.tarefaRepository.findVersoesByIdIn(any())).thenReturn(Arrays.asList(
+				this.versaoTarefa(atualizada.getId(), this.dataAtual.withNano(this.dataAtual.getNano() / 1000 * 1000)),
+				this.versaoTarefa(desatualizada.getId(), this.dataAtual)));
+
+		assertEquals(2, this.verifier.verificar("tarefas", amostra));
+
+		assertNotNull(cache.get(atualizada.getId()));
+		assertNull(cache.get(desatualizada.getId()));
+		assertNull(cache.get(excluida.getId()));
+		assertEquals(3, this.registry.counter("cache.verifier.checked", "cache", "tarefas").count());
+		assertEquals(2, this.registry.counter("cache.verifier.stale", "cache", "tarefas").count());
+		assertEquals(2d / 3, this.registry.get("cache.verifier.staleness").tag("cache", "tarefas").gauge().value(), 0.0001);
+	}
+
+	@Test
+	void testeRemoveNomeUsuarioAssociadoAOutroId() {
+		Usuario usuario = this.createInstanceUsuario();
+		Cache cache = this.cacheManager.getCache("usuarios");
+		Map<Object, Object> amostra = this.amostra(cache, usuario.getId(), usuario, usuario.getNomeUsuario(), usuario);
+
+		// Mockando a base de dados após o nome de usuário ter sido assumido por outro usuário
+		when(this.usuarioRepository.findVersoesByIdIn(any()))
+				.thenReturn(Collections.singletonList(this.versaoUsuario(usuario.getId(), "outroNome", this.dataAtual)));
+		when(this.usuarioRepository.findVersoesByNomeUsuarioIn(any()))
+				.thenReturn(Collections.singletonList(this.versaoUsuario(UUID.randomUUID(), usuario.getNomeUsuario(), this.dataAtual)));
+
+		assertEquals(1, this.verifier.verificar("usuarios", amostra));
+
+		assertNotNull(cache.get(usuario.getId()));
+		assertNull(cache.get(usuario.getNomeUsuario()));
+	}
+
+	@Test
+	void testeNaoRemoveEntradaRegravadaDuranteAVerificacao() {
+		Tarefa amostrada = this.createInstanceTarefa(this.dataAtual.minusMinutes(1));
+		Tarefa regravada = this.createInstanceTarefa(this.dataAtual);
+		regravada.setId(amostrada.getId());
+		Cache cache = this.cacheManager.getCache("tarefas");
+		Map<Object, Object> amostra = this.amostra(cache, amostrada.getId(), amostrada);
+
+		// Simulando a gravação da versão atual pela aplicação após a leitura da amostra
+		cache.put(regravada.getId(), regravada);
+		when(this.tarefaRepository.findVersoesByIdIn(any()))
+				.thenReturn(Collections.singletonList(this.versaoTarefa(regravada.getId(), this.dataAtual)));
+
+		assertEquals(0, this.verifier.verificar("tarefas", amostra));
+		assertEquals(regravada, cache.get(regravada.getId(), Tarefa.class));
+	}
+
+	private Map<Object, Object> amostra(Cache cache, Object... chavesValores) {
+		Map<Object, Object> amostra = new LinkedHashMap<>();
+		for (int i = 0; i < chavesValores.length; i += 2) {
+			cache.put(chavesValores[i], chavesValores[i + 1]);
+			amostra.put(chavesValores[i], chavesValores[i + 1]);
+		}
+		return amostra;
+	}
+
+	private Tarefa createInstanceTarefa(LocalDateTime dataAtualizacao) {
+		return Tarefa.builder()
+				.id(UUID.randomUUID())
+				.titulo("Tarefa")
+				.dataCriacao(dataAtualizacao)
+				.dataAtualizacao(dataAtualizacao)
+				.build();
+	}
+
+	private Usuario createInstanceUsuario() {
+		return Usuario.builder()
+				.id(UUID.randomUUID())
+				.nomeUsuario("usuario")
+				.dataCriacao(this.dataAtual)
+				.dataAtualizacao(this.dataAtual)
+				.build();
+	}
+
+	private TarefaRepository.Versao versaoTarefa(UUID id, LocalDateTime dataAtualizacao) {
+		return new TarefaRepository.Versao() {
+			@Override
+			public UUID getId() {
+				return id;
+			}
+
+			@Override
+			public LocalDateTime getDataAtualizacao() {
+				return dataAtualizacao;
+			}
+		};
+	}
+
+	private UsuarioRepository.Versao versaoUsuario(UUID id, String nomeUsuario, LocalDateTime dataAtualizacao) {
+		return new UsuarioRepository.Versao() {
+			@Override
+			public UUID getId() {
+				return id;
+			}
+
+			@Override
+			public String getNomeUsuario() {
+				return nomeUsuario;
+			}
+
+			@Override
+			public LocalDateTime getDataAtualizacao() {
+				return dataAtualizacao;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,114 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.tarefa.entities.Tarefa;
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.mappers.TarefaMapper;
+import br.com.tarefa.repositories.TarefaRepository;
+import br.com.tarefa.repositories.UsuarioRepository;
+import br.com.tarefa.services.security.JwtService;
+
+class CacheWarmUpTest {
+
+	@Mock private CacheManager cacheManager;
+	@Mock private UsuarioRepository usuarioRepository;
+	@Mock private TarefaRepository tarefaRepository;
+	@Mock private TarefaMapper tarefaMapper;
+	@Mock private JwtService jwtService;
+
+	private Cache usuarios;
+	private Cache tarefas;
+	private CacheWarmUp warmUp;
+
+	@BeforeEach
+	void initMocks() {
+		MockitoAnnotations.openMocks(this);
+		this.usuarios = spy(new ConcurrentMapCache("usuarios"));
+		this.tarefas = spy(new ConcurrentMapCache("tarefas"));
+		this.warmUp = new CacheWarmUp(this.cacheManager, this.usuarioRepository, this.tarefaRepository,
+				this.tarefaMapper, this.jwtService, new ObjectMapper());
+		ReflectionTestUtils.setField(this.warmUp, "enabled", true);
+		ReflectionTestUtils.setField(this.warmUp, "quantidadeUsuarios", 10);
+		ReflectionTestUtils.setField(this.warmUp, "quantidadeTarefas", 10);
+		ReflectionTestUtils.setField(this.warmUp, "iteracoes", 0);
+		ReflectionTestUtils.setField(this.warmUp, "deadline", 5000L);
+
+		// Mockando os caches compartilhados
+		when(this.cacheManager.getCache("usuarios")).thenReturn(this.usuarios);
+		when(this.cacheManager.getCache("tarefas")).thenReturn(this.tarefas);
+	}
+
+	@Test
+	void testeAquecimentoNaoSubstituiGravacaoMaisRecente() {
+		Usuario lido = this.createInstanceUsuario();
+		Usuario atualizado = this.createInstanceUsuario();
+		atualizado.setId(lido.getId());
+		Tarefa tarefa = Tarefa.builder().id(UUID.randomUUID()).titulo("Título").build();
+
+		// Usuário gravado por outra instância após a leitura do aquecimento
+		this.usuarios.put(lido.getId(), atualizado);
+
+		// Mockando os registros lidos pelo aquecimento
+		when(this.usuarioRepository.findAllByOrderByDataAtualizacaoDesc(any())).thenReturn(Collections.singletonList(lido));
+		when(this.tarefaRepository.findAllByOrderByDataAtualizacaoDesc(any())).thenReturn(Collections.singletonList(tarefa));
+
+		this.warmUp.run(new DefaultApplicationArguments());
+
+		assertSame(atualizado, this.usuarios.get(lido.getId()).get());
+		assertSame(lido, this.usuarios.get(lido.getNomeUsuario()).get());
+		assertSame(tarefa, this.tarefas.get(tarefa.getId()).get());
+	}
+
+	@Test
+	void testeAquecimentoGravaSomenteChavesAusentes() {
+		Usuario usuario = this.createInstanceUsuario();
+
+		// Mockando os registros lidos pelo aquecimento
+		when(this.usuarioRepository.findAllByOrderByDataAtualizacaoDesc(any())).thenReturn(Collections.singletonList(usuario));
+		when(this.tarefaRepository.findAllByOrderByDataAtualizacaoDesc(any())).thenReturn(Collections.emptyList());
+
+		this.warmUp.run(new DefaultApplicationArguments());
+
+		verify(this.usuarios).putIfAbsent(usuario.getId(), usuario);
+		verify(this.usuarios).putIfAbsent(usuario.getNomeUsuario(), usuario);
+		verify(this.usuarios, never()).put(any(), any());
+		verify(this.tarefas, never()).put(any(), any());
+		assertEquals(usuario, this.usuarios.get(usuario.getId()).get());
+	}
+
+	private Usuario createInstanceUsuario() {
+		LocalDateTime dataAtual = LocalDateTime.now();
+		return Usuario.builder()
+				.id(UUID.randomUUID())
+				.nome("Nome")
+				.nomeUsuario("usuario" + UUID.randomUUID())
+				.senha("senha")
+				.dataCriacao(dataAtual)
+				.dataAtualizacao(dataAtual)
+				.build();
+	}
+
+}
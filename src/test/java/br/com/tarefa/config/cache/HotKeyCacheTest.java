@@ -0,0 +1,94 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class HotKeyCacheTest {
+
+	private static final int LIMITE = 3;
+
+	private AtomicInteger leituras;
+	private HotKeyCache cache;
+
+	@BeforeEach
+	void init() {
+		this.leituras = new AtomicInteger();
+		Cache delegate = new ConcurrentMapCache("usuarios") {
+			@Override
+			protected Object lookup(Object key) {
+				leituras.incrementAndGet();
+				return super.lookup(key);
+			}
+		};
+		this.cache = new HotKeyCache(delegate, new FrequencySketch(64), Caffeine.newBuilder().build(), LIMITE);
+	}
+
+	@Test
+	void testeChaveQuenteEhServidaPelaReplicaLocal() {
+		this.cache.put("daniel", "usuario");
+
+		for (int i = 0; i < 10; i++)
+			assertEquals("usuario", this.cache.get("daniel", String.class));
+
+		assertEquals(LIMITE, this.leituras.get());
+		assertTrue(this.cache.chavesQuentes().containsKey("daniel"));
+	}
+
+	@Test
+	void testeChaveFriaNaoEhReplicada() {
+		this.cache.put("daniel", "usuario");
+		this.cache.put("maria", "usuario");
+
+		this.cache.get("daniel");
+		this.cache.get("maria");
+
+		assertEquals(2, this.leituras.get());
+		assertTrue(this.cache.chavesQuentes().isEmpty());
+	}
+
+	@Test
+	void testeGravacaoInvalidaReplica() {
+		this.cache.put("daniel", "antigo");
+		for (int i = 0; i < LIMITE; i++)
+			this.cache.get("daniel");
+
+		this.cache.put("daniel", "novo");
+
+		assertEquals("novo", this.cache.get("daniel", String.class));
+		assertEquals(LIMITE + 1, this.leituras.get());
+	}
+
+	@Test
+	void testeInvalidacaoDeOutraInstanciaDescartaReplica() {
+		this.cache.put("daniel", "usuario");
+		for (int i = 0; i < LIMITE; i++)
+			this.cache.get("daniel");
+
+		this.cache.invalidarReplica("daniel");
+		this.cache.get("daniel");
+
+		assertEquals(LIMITE + 1, this.leituras.get());
+	}
+
+	@Test
+	void testeSketchEnvelheceContadores() {
+		FrequencySketch sketch = new FrequencySketch(16);
+		for (int i = 0; i < 100; i++)
+			sketch.incrementar("daniel");
+		for (int i = 0; i < 60; i++)
+			sketch.incrementar("outra" + i);
+
+		assertTrue(sketch.frequencia("daniel") < 100);
+		assertTrue(sketch.frequencia("daniel") >= 50);
+	}
+
+}
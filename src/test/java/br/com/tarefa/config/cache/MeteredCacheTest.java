@@ -0,0 +1,107 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MeteredCacheTest {
+
+	private MeterRegistry registry;
+	private CacheMetrics cacheMetrics;
+	private Cache cache;
+
+	@BeforeEach
+	void init() {
+		this.registry = new SimpleMeterRegistry();
+		this.cacheMetrics = new CacheMetrics(this.registry, null);
+		this.cache = new MeteredCache(new ConcurrentMapCache("tarefas"), this.cacheMetrics);
+	}
+
+	@Test
+	void testeRegistraHitsMissesPutsEEvictions() {
+		assertNull(this.cache.get("a"));
+		this.cache.put("a", "tarefa");
+		assertEquals("tarefa", this.cache.get("a", String.class));
+		this.cache.evict("a");
+
+		assertEquals(1.0, this.registry.get("cache.gets").tag("cache", "tarefas").tag("result", "hit").counter().count());
+		assertEquals(1.0, this.registry.get("cache.gets").tag("cache", "tarefas").tag("result", "miss").counter().count());
+		assertEquals(1.0, this.registry.get("cache.puts").tag("cache", "tarefas").counter().count());
+		assertEquals(1.0, this.registry.get("cache.evictions").tag("cache", "tarefas").counter().count());
+		assertEquals(0.0, this.registry.get("cache.size").tag("cache", "tarefas").gauge().value());
+	}
+
+	@Test
+	void testeCarregamentoRegistraLatencia() {
+		assertEquals("tarefa", this.cache.get("a", () -> "tarefa"));
+		assertEquals("tarefa", this.cache.get("a", () -> "outra"));
+
+		assertEquals(1, this.registry.get("cache.load").tag("cache", "tarefas").timer().count());
+		assertEquals(1.0, this.registry.get("cache.gets").tag("result", "hit").counter().count());
+	}
+
+	@Test
+	void testeChavesMaisAcessadasEmOrdemDecrescente() {
+		this.cache.get("a");
+		this.cache.get("b");
+		this.cache.get("b");
+		this.cache.get("c");
+		this.cache.get("c");
+		this.cache.get("c");
+
+		Map<String, Long> chaves = this.cacheMetrics.chavesMaisAcessadas(2).get("tarefas");
+
+		assertEquals(2, chaves.size());
+		assertEquals("c", chaves.keySet().iterator().next());
+		assertEquals(Long.valueOf(3), chaves.get("c"));
+		assertEquals(Long.valueOf(2), chaves.get("b"));
+	}
+
+	@Test
+	void testeChavesMaisAcessadasLimitadasMantemChaveQuente() {
+		ReflectionTestUtils.setField(this.cacheMetrics, "maxTrackedKeys", 100);
+		Cache cacheLimitado = new MeteredCache(new ConcurrentMapCache("usuarios"), this.cacheMetrics);
+
+		for (int i = 0; i < 10_000; i++) {
+			cacheLimitado.get("quente");
+			cacheLimitado.get("fria-" + i);
+		}
+		Map<String, Long> chaves = this.cacheMetrics.chavesMaisAcessadas(200).get("usuarios");
+
+		assertTrue(chaves.size() < 200);
+		assertEquals("quente", chaves.keySet().iterator().next());
+	}
+
+	@Test
+	void testeTamanhoEhEstimadoForaDaColeta() {
+		this.cache.put("a", "tarefa");
+		assertEquals(0.0, this.registry.get("cache.size").tag("cache", "tarefas").gauge().value());
+
+		this.cacheMetrics.atualizarTamanhos();
+
+		assertEquals(1.0, this.registry.get("cache.size").tag("cache", "tarefas").gauge().value());
+	}
+
+	@Test
+	void testeChavesDosCachesDeTokensNaoSaoContabilizadas() {
+		Cache tokens = new MeteredCache(new ConcurrentMapCache(RevokedTokens.CACHE_BLACKLISTED_TOKENS), this.cacheMetrics);
+		tokens.get("eyJhbGciOiJIUzI1NiJ9.token");
+		tokens.get("eyJhbGciOiJIUzI1NiJ9.token");
+
+		assertTrue(this.cacheMetrics.chavesMaisAcessadas(10).get(RevokedTokens.CACHE_BLACKLISTED_TOKENS).isEmpty());
+		assertEquals(2.0, this.registry.get("cache.gets").tag("cache", RevokedTokens.CACHE_BLACKLISTED_TOKENS)
+				.tag("result", "miss").counter().count());
+	}
+
+}
@@ -0,0 +1,62 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class NegativeCacheTest {
+
+	private CacheManager cacheManager;
+	private NegativeCache negativeCache;
+
+	@BeforeEach
+	void init() {
+		this.cacheManager = new ConcurrentMapCacheManager();
+		this.negativeCache = new NegativeCache(this.cacheManager);
+	}
+
+	@Test
+	void testeChaveInexistenteConsultaUmaVez() {
+		UUID id = UUID.randomUUID();
+		AtomicInteger consultas = new AtomicInteger();
+
+		for (int i = 0; i < 5; i++) {
+			assertNull(this.negativeCache.load(NegativeCache.CACHE_TAREFAS_INEXISTENTES, id, () -> {
+				consultas.incrementAndGet();
+				return null;
+			}));
+		}
+
+		assertEquals(1, consultas.get());
+	}
+
+	@Test
+	void testeChaveCriadaVoltaASerConsultada() {
+		UUID id = UUID.randomUUID();
+		this.negativeCache.load(NegativeCache.CACHE_TAREFAS_INEXISTENTES, id, () -> null);
+
+		// Simulando a remoção feita na criação do registro
+		this.cacheManager.getCache(NegativeCache.CACHE_TAREFAS_INEXISTENTES).evict(id);
+
+		assertEquals("tarefa", this.negativeCache.load(NegativeCache.CACHE_TAREFAS_INEXISTENTES, id, () -> "tarefa"));
+	}
+
+	@Test
+	void testeValorEncontradoNaoEhMarcado() {
+		UUID id = UUID.randomUUID();
+		AtomicInteger consultas = new AtomicInteger();
+
+		this.negativeCache.load(NegativeCache.CACHE_TAREFAS_INEXISTENTES, id, consultas::incrementAndGet);
+		this.negativeCache.load(NegativeCache.CACHE_TAREFAS_INEXISTENTES, id, consultas::incrementAndGet);
+
+		assertEquals(2, consultas.get());
+	}
+
+}
@@ -0,0 +1,60 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+class OffHeapCacheTest {
+
+	private AtomicInteger leituras;
+	private OffHeapCache cache;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void init() {
+		this.leituras = new AtomicInteger();
+		ConcurrentMapCache delegate = new ConcurrentMapCache("tarefas") {
+			@Override
+			protected Object lookup(Object key) {
+				leituras.incrementAndGet();
+				return super.lookup(key);
+			}
+		};
+		this.cache = new OffHeapCache(delegate, new OffHeapStore(1 << 20, 4096, 60000),
+				(SerializationPair<Object>) (SerializationPair<?>) SerializationPair.fromSerializer(RedisSerializer.java()));
+	}
+
+	@Test
+	void testeLeituraRepetidaEhServidaForaDoHeap() {
+		UUID id = UUID.randomUUID();
+		this.cache.put(id, "tarefa");
+
+		for (int i = 0; i < 5; i++)
+			assertEquals("tarefa", this.cache.get(id, String.class));
+
+		assertEquals(1, this.leituras.get());
+	}
+
+	@Test
+	void testeInvalidacaoDescartaCopiaForaDoHeap() {
+		UUID id = UUID.randomUUID();
+		this.cache.put(id, "antigo");
+		this.cache.get(id);
+
+		this.cache.put(id, "novo");
+		assertEquals("novo", this.cache.get(id, String.class));
+
+		this.cache.invalidarCopia(id.toString());
+		this.cache.get(id);
+
+		assertEquals(3, this.leituras.get());
+	}
+
+}
@@ -0,0 +1,139 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class OffHeapStoreTest {
+
+	@Test
+	void testeGravarLerESubstituirValor() {
+		OffHeapStore store = new OffHeapStore(1 << 20, 4096, 60000);
+		UUID id = UUID.randomUUID();
+
+		assertTrue(store.put(id, this.valor(100, 'a')));
+		assertArrayEquals(this.valor(100, 'a'), store.get(id));
+
+		assertTrue(store.put(id, this.valor(1000, 'b')));
+		assertArrayEquals(this.valor(1000, 'b'), store.get(id));
+		assertEquals(1, store.size());
+
+		store.remove(id);
+		assertNull(store.get(id));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void testeValorMaiorQueAPaginaNaoEhArmazenado() {
+		OffHeapStore store = new OffHeapStore(1 << 20, 4096, 60000);
+		UUID id = UUID.randomUUID();
+		store.put(id, this.valor(10, 'a'));
+
+		assertFalse(store.put(id, this.valor(5000, 'b')));
+		assertNull(store.get(id));
+	}
+
+	@Test
+	void testeCapacidadeEsgotadaDescartaEntradasMenosAcessadas() {
+		OffHeapStore store = new OffHeapStore(16 * 4096, 4096, 60000);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			UUID id = UUID.randomUUID();
+			ids.add(id);
+			assertTrue(store.put(id, this.valor(200, 'a')));
+			store.get(ids.get(0));
+		}
+
+		assertTrue(store.bytesAlocados() <= 16 * 4096);
+		assertTrue(store.size() < ids.size());
+		assertNotNull(store.get(ids.get(0)));
+		assertNotNull(store.get(ids.get(ids.size() - 1)));
+	}
+
+	@Test
+	void testeValorExpiradoNaoEhRetornado() throws InterruptedException {
+		OffHeapStore store = new OffHeapStore(1 << 20, 4096, 1);
+		UUID id = UUID.randomUUID();
+		store.put(id, this.valor(100, 'a'));
+
+		TimeUnit.MILLISECONDS.sleep(5);
+
+		assertNull(store.get(id));
+	}
+
+	/**
+	 * Compara a ocupação do heap e o tempo de GC ao armazenar os mesmos valores fora do heap e em um
+	 * cache Caffeine no heap. Executado apenas com '-Dbenchmark=true'.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkOcupacaoDoHeapEGc() {
+		int entradas = Integer.getInteger("benchmark.entradas", 1_000_000);
+		byte[] valor = this.valor(400, 'a');
+
+		OffHeapStore store = new OffHeapStore((long) entradas * 600, 1 << 20, 3_600_000);
+		long[] offHeap = this.medir(() -> {
+			for (int i = 0; i < entradas; i++)
+				store.put(new UUID(i, i), valor.clone());
+		});
+
+		com.github.benmanes.caffeine.cache.Cache<UUID, byte[]> caffeine = Caffeine.newBuilder().maximumSize(entradas).build();
+		long[] heap = this.medir(() -> {
+			for (int i = 0; i < entradas; i++)
+				caffeine.put(new UUID(i, i), valor.clone());
+		});
+
+		log.info("{} entradas fora do heap: heap {} MB, GC {} ms", store.size(), offHeap[0] >> 20, offHeap[1]);
+		log.info("{} entradas no Caffeine: heap {} MB, GC {} ms", caffeine.estimatedSize(), heap[0] >> 20, heap[1]);
+		assertTrue(offHeap[0] < heap[0]);
+	}
+
+	private long[] medir(Runnable carga) {
+		System.gc();
+		long heapInicial = this.heapUtilizado();
+		long gcInicial = this.tempoGc();
+
+		carga.run();
+
+		System.gc();
+		return new long[] { this.heapUtilizado() - heapInicial, this.tempoGc() - gcInicial };
+	}
+
+	private long heapUtilizado() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private long tempoGc() {
+		long total = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			total += Math.max(gc.getCollectionTime(), 0);
+		return total;
+	}
+
+	private byte[] valor(int tamanho, char caractere) {
+		StringBuilder valor = new StringBuilder();
+		for (int i = 0; i < tamanho; i++)
+			valor.append(caractere);
+		return valor.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+}
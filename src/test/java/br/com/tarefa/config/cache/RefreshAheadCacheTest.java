@@ -0,0 +1,173 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshAheadCacheTest {
+
+	private Cache delegate;
+	private Cache decorado;
+	private AtomicInteger recarregamentos;
+	private List<Runnable> agendados;
+
+	@BeforeEach
+	void init() {
+		this.delegate = new ConcurrentMapCache("usuarios");
+		this.decorado = spy(this.delegate);
+		this.recarregamentos = new AtomicInteger();
+		this.agendados = new ArrayList<>();
+	}
+
+	@Test
+	void testeEntradaRecenteNaoEhRecarregada() {
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "recarregado" + this.recarregamentos.incrementAndGet(),
+				Function.identity(), Runnable::run, null, null, 60000, 48000);
+
+		cache.put("daniel", "original");
+
+		assertEquals("original", cache.get("daniel", String.class));
+		assertEquals(0, this.recarregamentos.get());
+	}
+
+	@Test
+	void testeEntradaAntigaDevolveValorAtualERecarrega() {
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "recarregado" + this.recarregamentos.incrementAndGet(),
+				Function.identity(), this.agendados::add, null, null, 60000, 0);
+
+		cache.put("daniel", "original");
+
+		assertEquals("original", cache.get("daniel", String.class));
+		assertEquals("original", cache.get("daniel", String.class));
+		assertEquals(1, this.agendados.size());
+
+		this.agendados.get(0).run();
+
+		assertEquals(1, this.recarregamentos.get());
+		assertEquals("recarregado1", this.delegate.get("daniel", String.class));
+	}
+
+	@Test
+	void testeRecarregamentoRejeitadoEhAgendadoNaProximaLeitura() {
+		AtomicInteger rejeicoes = new AtomicInteger();
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "recarregado", Function.identity(), tarefa -> {
+			if (rejeicoes.getAndIncrement() == 0)
+				throw new RejectedExecutionException();
+			this.agendados.add(tarefa);
+		}, null, null, 60000, 0);
+
+		cache.put("daniel", "original");
+
+		assertEquals("original", cache.get("daniel", String.class));
+		assertEquals("original", cache.get("daniel", String.class));
+		assertEquals(1, this.agendados.size());
+	}
+
+	@Test
+	void testeRecarregamentoNaoSobrescreveGravacaoConcorrente() {
+		AtomicReference<Cache> referencia = new AtomicReference<>();
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> {
+			// Simulando a atualização do usuário por outra requisição durante a consulta
+			referencia.get().put(key, "atualizado");
+			return "desatualizado";
+		}, Function.identity(), this.agendados::add, null, null, 60000, 0);
+		referencia.set(cache);
+
+		cache.put("daniel", "original");
+		cache.get("daniel");
+		this.agendados.get(0).run();
+
+		assertEquals("atualizado", this.delegate.get("daniel", String.class));
+		verify(this.decorado, never()).putIfAbsent(any(), any());
+	}
+
+	@Test
+	void testeValorAlteradoEhGravadoPeloCacheDecorado() {
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "alterado",
+				Function.identity(), this.agendados::add, null, null, 60000, 0);
+
+		cache.put("daniel", "original");
+		cache.get("daniel");
+		this.agendados.get(0).run();
+
+		verify(this.decorado).evict("daniel");
+		verify(this.decorado).putIfAbsent("daniel", "alterado");
+		assertEquals("alterado", this.delegate.get("daniel", String.class));
+	}
+
+	@Test
+	void testeValorNaMesmaVersaoSomenteRenovaAEntrada() {
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "original",
+				Function.identity(), this.agendados::add, null, null, 60000, 0);
+
+		cache.put("daniel", "original");
+		cache.get("daniel");
+		this.agendados.get(0).run();
+
+		verify(this.decorado, never()).evict(any());
+		verify(this.decorado, never()).putIfAbsent(any(), any());
+		assertEquals("original", this.delegate.get("daniel", String.class));
+	}
+
+	@Test
+	void testeCircuitoAbertoNaoConsultaORedis() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(new SimpleMeterRegistry(), 1, 60000);
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "recarregado" + this.recarregamentos.incrementAndGet(),
+				Function.identity(), this.agendados::add, redisTemplate, circuitBreaker, 60000, 0);
+
+		cache.put("daniel", "original");
+		cache.get("daniel");
+		circuitBreaker.registrarFalha();
+		this.agendados.get(0).run();
+
+		verifyNoInteractions(redisTemplate);
+		assertEquals(0, this.recarregamentos.get());
+		assertEquals("original", this.delegate.get("daniel", String.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testeFalhaDoRedisEhRegistradaNoCircuitBreaker() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		CacheCircuitBreaker circuitBreaker = new CacheCircuitBreaker(new SimpleMeterRegistry(), 1, 60000);
+		Cache cache = new RefreshAheadCache(this.delegate, () -> this.decorado, key -> "recarregado" + this.recarregamentos.incrementAndGet(),
+				Function.identity(), this.agendados::add, redisTemplate, circuitBreaker, 60000, 0);
+
+		// Mockando a indisponibilidade do Redis
+		when(redisTemplate.execute(any(RedisScript.class), anyList())).thenThrow(new RedisConnectionFailureException("indisponível"));
+
+		cache.put("daniel", "original");
+		cache.get("daniel");
+		this.agendados.get(0).run();
+
+		assertFalse(circuitBreaker.isFechado());
+		assertEquals(0, this.recarregamentos.get());
+		assertEquals("original", this.delegate.get("daniel", String.class));
+	}
+
+}
@@ -0,0 +1,219 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResilientCacheTest {
+
+	private static final long TIMEOUT = 50;
+
+	private MeterRegistry registry;
+	private CacheCircuitBreaker circuitBreaker;
+	private ExecutorService executor;
+	private RedisStandIn redis;
+	private List<Object> sincronizadas;
+
+	@BeforeEach
+	void init() {
+		this.registry = new SimpleMeterRegistry();
+		this.circuitBreaker = new CacheCircuitBreaker(this.registry, 3, 100);
+		this.executor = Executors.newCachedThreadPool();
+		this.redis = new RedisStandIn("tarefas");
+		this.sincronizadas = new CopyOnWriteArrayList<>();
+	}
+
+	@AfterEach
+	void cleanup() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void testeRedisLentoAbreCircuitoEUsaMemoriaLocal() {
+		Cache cache = this.createInstanceResilientCache(false);
+		this.redis.latencia = 500;
+
+		for (int i = 0; i < 3; i++) {
+			long inicio = System.currentTimeMillis();
+			assertNull(cache.get("a"));
+			assertTrue(System.currentTimeMillis() - inicio < 300);
+		}
+		assertEquals(CacheCircuitBreaker.Estado.ABERTO, this.circuitBreaker.getEstado());
+
+		int chamadas = this.redis.chamadas.get();
+		cache.put("a", "tarefa");
+
+		assertEquals("tarefa", cache.get("a", String.class));
+		assertEquals(chamadas, this.redis.chamadas.get());
+	}
+
+	@Test
+	void testeOperacoesConcorrentesNaoAbremCircuito() throws Exception {
+		Cache cache = this.createInstanceResilientCache(false);
+		this.redis.latencia = TIMEOUT / 2;
+
+		List<Future<?>> leituras = new ArrayList<>();
+		for (int i = 0; i < 64; i++)
+			leituras.add(this.executor.submit(() -> cache.get("a")));
+		for (Future<?> leitura : leituras)
+			leitura.get(5, TimeUnit.SECONDS);
+
+		assertEquals(CacheCircuitBreaker.Estado.FECHADO, this.circuitBreaker.getEstado());
+		assertEquals(64, this.redis.chamadas.get());
+	}
+
+	@Test
+	void testeFechamentoDoCircuitoRemoveDoRedisAsChavesAlteradas() throws InterruptedException {
+		Cache cache = this.createInstanceResilientCache(false);
+		this.redis.put("a", "antigo");
+		this.redis.fora = true;
+
+		for (int i = 0; i < 3; i++)
+			cache.get("b");
+		cache.put("a", "novo");
+		assertEquals("novo", cache.get("a", String.class));
+
+		// Simulando o Redis voltando após o tempo de circuito aberto
+		this.redis.fora = false;
+		TimeUnit.MILLISECONDS.sleep(150);
+		cache.get("b");
+
+		assertEquals(CacheCircuitBreaker.Estado.FECHADO, this.circuitBreaker.getEstado());
+		assertNull(this.redis.get("a"));
+		assertNull(cache.get("a"));
+		assertEquals(1.0, this.registry.get("cache.circuit.transitions").tag("from", "fechado").tag("to", "aberto").counter().count());
+		assertEquals(1.0, this.registry.get("cache.circuit.transitions").tag("from", "semiaberto").tag("to", "fechado").counter().count());
+	}
+
+	@Test
+	void testeBlacklistMantemRevogacoesComRedisIndisponivel() {
+		Cache cache = this.createInstanceResilientCache(true);
+		cache.putIfAbsent("token", "token");
+		this.redis.fora = true;
+
+		for (int i = 0; i < 3; i++)
+			assertEquals("token", cache.get("token", String.class));
+		cache.putIfAbsent("outroToken", "outroToken");
+		for (int i = 0; i < 3; i++)
+			cache.get("desconhecido");
+
+		assertEquals(CacheCircuitBreaker.Estado.ABERTO, this.circuitBreaker.getEstado());
+		assertEquals("outroToken", cache.get("outroToken", String.class));
+		assertNull(cache.get("desconhecido"));
+	}
+
+	@Test
+	void testeRevogacoesRegravadasAoFecharCircuitoSaoNotificadas() throws InterruptedException {
+		Cache cache = this.createInstanceResilientCache(true);
+		this.redis.fora = true;
+
+		for (int i = 0; i < 3; i++)
+			cache.get("desconhecido");
+		cache.putIfAbsent("token", "token");
+		assertTrue(this.sincronizadas.isEmpty());
+
+		// Simulando o Redis voltando após o tempo de circuito aberto
+		this.redis.fora = false;
+		TimeUnit.MILLISECONDS.sleep(150);
+		cache.get("desconhecido");
+
+		assertEquals("token", this.redis.get("token", String.class));
+		assertEquals(Collections.singletonList("token"), this.sincronizadas);
+	}
+
+	@Test
+	void testePoliticaRejectConsideraTokenDesconhecidoRevogado() {
+		Cache cache = new ResilientCache(this.redis, Caffeine.newBuilder().build(), true, token -> token,
+				this.sincronizadas::add, this.circuitBreaker, Runnable::run);
+		this.redis.fora = true;
+
+		for (int i = 0; i < 3; i++)
+			cache.get("token");
+
+		assertEquals("token", cache.get("token", String.class));
+	}
+
+	private Cache createInstanceResilientCache(boolean espelhado) {
+		return new ResilientCache(this.redis, Caffeine.newBuilder().build(), espelhado, null,
+				espelhado ? this.sincronizadas::add : null, this.circuitBreaker, Runnable::run);
+	}
+
+	/**
+	 * Substituto local do Redis que permite injetar latência e indisponibilidade. Assim como o timeout
+	 * de comando do Lettuce, uma latência acima do tempo máximo resulta em {@link QueryTimeoutException}.
+	 */
+	private static class RedisStandIn extends ConcurrentMapCache {
+
+		private volatile long latencia;
+		private volatile boolean fora;
+		private final AtomicInteger chamadas = new AtomicInteger();
+
+		RedisStandIn(String name) {
+			super(name);
+		}
+
+		@Override
+		protected Object lookup(Object key) {
+			this.simular();
+			return super.lookup(key);
+		}
+
+		@Override
+		public void put(Object key, Object value) {
+			this.simular();
+			super.put(key, value);
+		}
+
+		@Override
+		public ValueWrapper putIfAbsent(Object key, Object value) {
+			this.simular();
+			return super.putIfAbsent(key, value);
+		}
+
+		@Override
+		public boolean evictIfPresent(Object key) {
+			this.simular();
+			return super.evictIfPresent(key);
+		}
+
+		private void simular() {
+			this.chamadas.incrementAndGet();
+			if (this.fora)
+				throw new RedisConnectionFailureException("Redis indisponível");
+			if (this.latencia > 0) {
+				try {
+					TimeUnit.MILLISECONDS.sleep(Math.min(this.latencia, TIMEOUT));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (this.latencia > TIMEOUT)
+					throw new QueryTimeoutException("Redis command timed out");
+			}
+		}
+
+	}
+
+}
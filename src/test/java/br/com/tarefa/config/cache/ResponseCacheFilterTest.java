@@ -0,0 +1,145 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ResponseCacheFilterTest {
+
+	private static final String VARIANTE = "http://localhost|application/hal+json";
+	private static final byte[] JSON = "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+
+	@Mock private ResponseCache responseCache;
+
+	private ResponseCacheFilter filter;
+	private UUID id;
+
+	@BeforeEach
+	void initMocks() {
+		MockitoAnnotations.openMocks(this);
+		this.filter = new ResponseCacheFilter(this.responseCache);
+		this.id = UUID.randomUUID();
+
+		// Mockando o cache de respostas habilitado
+		when(this.responseCache.isEnabled()).thenReturn(true);
+	}
+
+	@Test
+	void testeRespostaEmCacheEhEscritaSemExecutarARequisicao() throws Exception {
+		String uri = "/v1/tarefas/" + this.id;
+
+		// Primeira requisição, que registra o content type negociado para o cabeçalho Accept
+		this.filter.doFilter(this.createInstanceRequest(uri), new MockHttpServletResponse(), this.createInstanceChain());
+
+		// Mockando a resposta da tarefa armazenada no cache
+		when(this.responseCache.buscar(ResponseCache.tarefa(this.id), VARIANTE))
+				.thenReturn(new ResponseCache.Resposta("application/hal+json", JSON));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		this.filter.doFilter(this.createInstanceRequest(uri), response, chain);
+
+		assertNull(chain.getRequest());
+		assertEquals(200, response.getStatus());
+		assertEquals("application/hal+json", response.getContentType());
+		assertArrayEquals(JSON, response.getContentAsByteArray());
+	}
+
+	@Test
+	void testeCabecalhosAcceptDistintosCompartilhamAVarianteNegociada() throws Exception {
+		MockHttpServletRequest request = this.createInstanceRequest("/v1/tarefas");
+		request.removeHeader("Accept");
+		request.addHeader("Accept", "application/hal+json, */*;q=0.1, x/" + UUID.randomUUID());
+
+		// Mockando a versão atual da lista de tarefas
+		when(this.responseCache.versao(ResponseCache.LISTA_TAREFAS)).thenReturn("3");
+
+		this.filter.doFilter(this.createInstanceRequest("/v1/tarefas"), new MockHttpServletResponse(), this.createInstanceChain());
+		this.filter.doFilter(request, new MockHttpServletResponse(), this.createInstanceChain());
+
+		verify(this.responseCache, times(2)).gravar(ResponseCache.LISTA_TAREFAS, "3", VARIANTE, "application/hal+json", JSON);
+		verify(this.responseCache, never()).gravar(anyString(), any(), not(eq(VARIANTE)), anyString(), any());
+	}
+
+	@Test
+	void testeRespostaAusenteEhGravadaComAVersaoLidaAntesDaRequisicao() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = this.createInstanceChain();
+
+		// Mockando a versão atual da lista de tarefas
+		when(this.responseCache.versao(ResponseCache.LISTA_TAREFAS)).thenReturn("3");
+
+		this.filter.doFilter(this.createInstanceRequest("/v1/tarefas"), response, chain);
+
+		verify(this.responseCache).gravar(ResponseCache.LISTA_TAREFAS, "3", VARIANTE, "application/hal+json", JSON);
+		assertArrayEquals(JSON, response.getContentAsByteArray());
+	}
+
+	@Test
+	void testeEndpointSemCacheNaoConsultaRespostas() throws Exception {
+		this.filter.doFilter(this.createInstanceRequest("/v1/tarefas/paginado"), new MockHttpServletResponse(),
+				new MockFilterChain());
+
+		verify(this.responseCache, never()).buscar(anyString(), anyString());
+		verify(this.responseCache, never()).gravar(anyString(), any(), anyString(), anyString(), any());
+		verify(this.responseCache, never()).versao(eq(ResponseCache.LISTA_TAREFAS));
+	}
+
+	@Test
+	void testeListaComStreamingNaoConsultaRespostas() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		ReflectionTestUtils.setField(this.filter, "streaming", true);
+
+		this.filter.doFilter(this.createInstanceRequest("/v1/tarefas"), response, chain);
+
+		assertSame(response, chain.getResponse());
+		verify(this.responseCache, never()).buscar(anyString(), anyString());
+		verify(this.responseCache, never()).versao(eq(ResponseCache.LISTA_TAREFAS));
+	}
+
+	private MockFilterChain createInstanceChain() {
+		return new MockFilterChain(new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+				res.setContentType("application/hal+json");
+				res.getOutputStream().write(JSON);
+			}
+		});
+	}
+
+	private MockHttpServletRequest createInstanceRequest(String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.addHeader("Accept", "application/hal+json");
+		return request;
+	}
+
+}
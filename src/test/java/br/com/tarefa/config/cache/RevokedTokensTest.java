@@ -0,0 +1,71 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.tarefa.config.cache.CacheResilience.BlacklistPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RevokedTokensTest {
+
+	private StringRedisTemplate redisTemplate;
+	private CacheCircuitBreaker circuitBreaker;
+	private CacheResilience cacheResilience;
+	private RevokedTokens revokedTokens;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void init() {
+		this.redisTemplate = mock(StringRedisTemplate.class);
+		// Mockando a varredura do Redis sem tokens revogados
+		when(this.redisTemplate.scan(any(ScanOptions.class))).thenReturn(mock(Cursor.class));
+
+		this.circuitBreaker = new CacheCircuitBreaker(new SimpleMeterRegistry(), 1, 60000);
+		this.cacheResilience = new CacheResilience(this.circuitBreaker, null);
+		ReflectionTestUtils.setField(this.cacheResilience, "enabled", true);
+		this.revokedTokens = new RevokedTokens(this.redisTemplate, null, this.circuitBreaker, this.cacheResilience);
+		ReflectionTestUtils.setField(this.revokedTokens, "expectedInsertions", 1000L);
+		ReflectionTestUtils.setField(this.revokedTokens, "falsePositiveProbability", 0.001);
+		this.revokedTokens.reconstruir();
+	}
+
+	@Test
+	void testePoliticaLocalUsaFiltroComCircuitoAberto() {
+		ReflectionTestUtils.setField(this.cacheResilience, "blacklistPolicy", BlacklistPolicy.LOCAL);
+		this.circuitBreaker.registrarFalha();
+
+		assertFalse(this.revokedTokens.talvezRevogado("token"));
+	}
+
+	@Test
+	void testePoliticaRejectIgnoraFiltroComCircuitoAberto() {
+		ReflectionTestUtils.setField(this.cacheResilience, "blacklistPolicy", BlacklistPolicy.REJECT);
+		assertFalse(this.revokedTokens.talvezRevogado("token"));
+
+		this.circuitBreaker.registrarFalha();
+
+		assertTrue(this.revokedTokens.talvezRevogado("token"));
+	}
+
+	@Test
+	void testeReconstrucaoNaoVarreORedisComCircuitoAberto() {
+		this.circuitBreaker.registrarFalha();
+
+		this.revokedTokens.reconstruir();
+
+		verify(this.redisTemplate, times(1)).scan(any(ScanOptions.class));
+	}
+
+}
@@ -0,0 +1,136 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import br.com.tarefa.exceptions.ResourceNotFoundException;
+
+class SingleFlightLoaderTest {
+
+	private static final int REQUISICOES = 16;
+
+	private Cache delegate;
+	private Cache cache;
+	private ExecutorService executor;
+
+	@BeforeEach
+	void init() {
+		this.delegate = spy(new ConcurrentMapCache("tarefas", false));
+		this.cache = new SingleFlightLoader(null, null).decorate(this.delegate);
+		this.executor = Executors.newFixedThreadPool(REQUISICOES);
+	}
+
+	@AfterEach
+	void cleanup() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void testeCarregamentosConcorrentesExecutamUmaConsultaEUmaGravacao() throws Exception {
+		UUID id = UUID.randomUUID();
+		AtomicInteger consultas = new AtomicInteger();
+		List<Future<String>> resultados = this.executarConcorrente(() -> this.cache.get(id, () -> {
+			consultas.incrementAndGet();
+			this.aguardar(300);
+			return "valor";
+		}));
+
+		for (Future<String> resultado : resultados)
+			assertEquals("valor", resultado.get(5, TimeUnit.SECONDS));
+		assertEquals(1, consultas.get());
+		verify(this.delegate, times(1)).put(id, "valor");
+	}
+
+	@Test
+	void testeValorGravadoEhEncontradoSemNovoCarregamento() {
+		UUID id = UUID.randomUUID();
+		AtomicInteger consultas = new AtomicInteger();
+
+		this.cache.get(id, consultas::incrementAndGet);
+		this.cache.get(id, consultas::incrementAndGet);
+
+		assertEquals(1, consultas.get());
+	}
+
+	@Test
+	void testeChavesDiferentesSaoCarregadasSeparadamente() {
+		AtomicInteger consultas = new AtomicInteger();
+
+		this.cache.get(UUID.randomUUID(), consultas::incrementAndGet);
+		this.cache.get(UUID.randomUUID(), consultas::incrementAndGet);
+
+		assertEquals(2, consultas.get());
+	}
+
+	@Test
+	void testeValorNuloNaoEhGravado() {
+		UUID id = UUID.randomUUID();
+
+		assertNull(this.cache.get(id, () -> null));
+
+		assertNull(this.delegate.get(id));
+		verify(this.delegate, never()).put(any(), any());
+	}
+
+	@Test
+	void testeErroNoCarregamentoEhPropagadoParaTodos() throws Exception {
+		UUID id = UUID.randomUUID();
+		List<Future<String>> resultados = this.executarConcorrente(() -> this.cache.get(id, () -> {
+			this.aguardar(300);
+			throw new ResourceNotFoundException("Tarefa pelo id %s não existe", id);
+		}));
+
+		for (Future<String> resultado : resultados) {
+			Exception exception = assertThrows(Exception.class, () -> resultado.get(5, TimeUnit.SECONDS));
+			assertEquals(ValueRetrievalException.class, exception.getCause().getClass());
+			assertEquals(ResourceNotFoundException.class, exception.getCause().getCause().getClass());
+		}
+		verify(this.delegate, never()).put(any(), any());
+	}
+
+	private List<Future<String>> executarConcorrente(Callable<String> tarefa) {
+		CountDownLatch inicio = new CountDownLatch(1);
+		List<Future<String>> resultados = new ArrayList<>();
+		for (int i = 0; i < REQUISICOES; i++) {
+			resultados.add(this.executor.submit(() -> {
+				inicio.await();
+				return tarefa.call();
+			}));
+		}
+		inicio.countDown();
+		return resultados;
+	}
+
+	private void aguardar(long millis) {
+		try {
+			TimeUnit.MILLISECONDS.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package br.com.tarefa.config.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.tarefa.dtos.cache.TarefaCacheDTO;
+import br.com.tarefa.entities.Tarefa;
+import br.com.tarefa.entities.Usuario;
+import br.com.tarefa.entities.enums.StatusTarefa;
+import br.com.tarefa.mappers.TarefaMapper;
+import br.com.tarefa.mappers.TarefaMapperImpl;
+
+class SnapshotRedisSerializerTest {
+
+	private ObjectMapper objectMapper;
+	private TarefaMapper mapper;
+	private Usuario usuario;
+
+	@BeforeEach
+	void init() {
+		this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+		this.mapper = new TarefaMapperImpl();
+		this.usuario = Usuario.builder()
+				.id(UUID.randomUUID())
+				.nomeUsuario(RandomStringUtils.randomAlphabetic(10))
+				.senha(RandomStringUtils.randomAlphabetic(60))
+				.tarefas(new ArrayList<>())
+				.build();
+	}
+
+	@Test
+	void testeSerializarTarefaSemUsuarioCompleto() {
+		SnapshotRedisSerializer<Tarefa, TarefaCacheDTO> serializer = new SnapshotRedisSerializer<>(this.objectMapper,
+				this.objectMapper.constructType(TarefaCacheDTO.class),
+				this.mapper::tarefaToTarefaCacheDTO, this.mapper::tarefaCacheDTOToTarefa, -1);
+		Tarefa tarefa = this.createInstanceEntityTarefa();
+
+		Tarefa tarefaCache = (Tarefa) serializer.deserialize(serializer.serialize(tarefa));
+
+		assertEquals(tarefa.getId(), tarefaCache.getId());
+		assertEquals(tarefa.getTitulo(), tarefaCache.getTitulo());
+		assertEquals(tarefa.getDescricao(), tarefaCache.getDescricao());
+		assertEquals(tarefa.getStatus(), tarefaCache.getStatus());
+		assertEquals(tarefa.getDataCriacao(), tarefaCache.getDataCriacao());
+		assertEquals(tarefa.getDataAtualizacao(), tarefaCache.getDataAtualizacao());
+		assertEquals(this.usuario.getId(), tarefaCache.getUsuario().getId());
+		// O snapshot não carrega os dados do usuário, apenas seu id
+		assertNull(tarefaCache.getUsuario().getSenha());
+		assertNull(tarefaCache.getUsuario().getTarefas());
+	}
+
+	@Test
+	void testeSerializarListaTarefasCompactada() {
+		SnapshotRedisSerializer<List<Tarefa>, List<TarefaCacheDTO>> serializer = new SnapshotRedisSerializer<>(this.objectMapper,
+				this.objectMapper.getTypeFactory().constructCollectionType(List.class, TarefaCacheDTO.class),
+				this.mapper::tarefasToTarefasCacheDTO, this.mapper::tarefasCacheDTOToTarefas, 1024);
+		List<Tarefa> tarefas = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			tarefas.add(this.createInstanceEntityTarefa());
+
+		byte[] bytes = serializer.serialize(tarefas);
+		@SuppressWarnings("unchecked")
+		List<Tarefa> tarefasCache = (List<Tarefa>) serializer.deserialize(bytes);
+
+		assertEquals(2, bytes[0]);
+		assertEquals(tarefas.size(), tarefasCache.size());
+		assertEquals(tarefas.get(49).getId(), tarefasCache.get(49).getId());
+		assertTrue(bytes.length < new JdkSerializationRedisSerializer().serialize(tarefas).length);
+	}
+
+	@Test
+	void testeSerializarListaTarefasEmSmileMenorQueJson() {
+		ObjectMapper smile = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+		SnapshotRedisSerializer<List<Tarefa>, List<TarefaCacheDTO>> serializerSmile = new SnapshotRedisSerializer<>(smile,
+				smile.getTypeFactory().constructCollectionType(List.class, TarefaCacheDTO.class),
+				this.mapper::tarefasToTarefasCacheDTO, this.mapper::tarefasCacheDTOToTarefas, -1);
+		SnapshotRedisSerializer<List<Tarefa>, List<TarefaCacheDTO>> serializerJson = new SnapshotRedisSerializer<>(this.objectMapper,
+				this.objectMapper.getTypeFactory().constructCollectionType(List.class, TarefaCacheDTO.class),
+				this.mapper::tarefasToTarefasCacheDTO, this.mapper::tarefasCacheDTOToTarefas, -1);
+		List<Tarefa> tarefas = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			tarefas.add(this.createInstanceEntityTarefa());
+
+		byte[] bytes = serializerSmile.serialize(tarefas);
+		@SuppressWarnings("unchecked")
+		List<Tarefa> tarefasCache = (List<Tarefa>) serializerSmile.deserialize(bytes);
+
+		assertEquals(3, bytes[0]);
+		assertEquals(tarefas.size(), tarefasCache.size());
+		assertEquals(tarefas.get(49).getDataAtualizacao(), tarefasCache.get(49).getDataAtualizacao());
+		assertTrue(bytes.length < serializerJson.serialize(tarefas).length);
+	}
+
+	@Test
+	void testeIgnorarValorJsonAposTrocaParaSmile() {
+		ObjectMapper smile = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+		SnapshotRedisSerializer<Tarefa, TarefaCacheDTO> serializerSmile = new SnapshotRedisSerializer<>(smile,
+				smile.constructType(TarefaCacheDTO.class),
+				this.mapper::tarefaToTarefaCacheDTO, this.mapper::tarefaCacheDTOToTarefa, -1);
+		SnapshotRedisSerializer<Tarefa, TarefaCacheDTO> serializerJson = new SnapshotRedisSerializer<>(this.objectMapper,
+				this.objectMapper.constructType(TarefaCacheDTO.class),
+				this.mapper::tarefaToTarefaCacheDTO, this.mapper::tarefaCacheDTOToTarefa, -1);
+
+		assertNull(serializerSmile.deserialize(serializerJson.serialize(this.createInstanceEntityTarefa())));
+	}
+
+	@Test
+	void testeIgnorarValorSerializadoPeloJdk() {
+		SnapshotRedisSerializer<Tarefa, TarefaCacheDTO> serializer = new SnapshotRedisSerializer<>(this.objectMapper,
+				this.objectMapper.constructType(TarefaCacheDTO.class),
+				this.mapper::tarefaToTarefaCacheDTO, this.mapper::tarefaCacheDTOToTarefa, -1);
+		byte[] bytesJdk = new JdkSerializationRedisSerializer().serialize(this.createInstanceEntityTarefa());
+
+		assertNull(serializer.deserialize(bytesJdk));
+	}
+
+	private Tarefa createInstanceEntityTarefa() {
+		LocalDateTime dataAtual = LocalDateTime.now();
+		return Tarefa.builder()
+				.id(UUID.randomUUID())
+				.titulo(RandomStringUtils.randomAlphabetic(10))
+				.descricao(RandomStringUtils.randomAlphabetic(50))
+				.status(StatusTarefa.PENDENTE)
+				.dataCriacao(dataAtual)
+				.dataAtualizacao(dataAtual)
+				.usuario(this.usuario)
+				.build();
+	}
+
+}
@@ -0,0 +1,85 @@
+package br.com.tarefa.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.tarefa.config.cache.CacheInvalidation;
+import br.com.tarefa.config.cache.RevokedTokens;
+
+class AuthenticationCacheTest {
+
+	private static final String TOKEN_ID = "idDoToken";
+
+	private AuthenticationCache authenticationCache;
+	private UsuarioAutenticado usuario;
+	private Date expiracao;
+
+	@BeforeEach
+	void init() {
+		this.authenticationCache = new AuthenticationCache(new CacheInvalidation(null, null), null);
+		ReflectionTestUtils.setField(this.authenticationCache, "enabled", true);
+		ReflectionTestUtils.setField(this.authenticationCache, "maxSize", 1000L);
+		ReflectionTestUtils.setField(this.authenticationCache, "expiration", 60000L);
+		this.usuario = new UsuarioAutenticado(UUID.randomUUID(), "testUser", "senha", 1000L);
+		this.expiracao = new Date(System.currentTimeMillis() + 60000);
+	}
+
+	@Test
+	void testeAutenticacaoArmazenadaEhEncontrada() {
+		this.authenticationCache.armazenar(TOKEN_ID, this.usuario, this.expiracao, this.authenticationCache.marca());
+
+		assertEquals(this.usuario, this.authenticationCache.buscar(TOKEN_ID));
+	}
+
+	@Test
+	void testeTokenExpiradoNaoEhArmazenado() {
+		this.authenticationCache.armazenar(TOKEN_ID, this.usuario, new Date(System.currentTimeMillis() - 1),
+				this.authenticationCache.marca());
+
+		assertNull(this.authenticationCache.buscar(TOKEN_ID));
+	}
+
+	@Test
+	void testeRevogacaoDuranteAValidacaoDescartaAAutenticacao() {
+		Cache blacklist = this.authenticationCache.decorate(new ConcurrentMapCache(RevokedTokens.CACHE_BLACKLISTED_TOKENS));
+		long marca = this.authenticationCache.marca();
+
+		blacklist.putIfAbsent(TOKEN_ID, TOKEN_ID);
+		this.authenticationCache.armazenar(TOKEN_ID, this.usuario, this.expiracao, marca);
+
+		assertNull(this.authenticationCache.buscar(TOKEN_ID));
+	}
+
+	@Test
+	void testeAlteracaoDoUsuarioDescartaAsAutenticacoes() {
+		Cache usuarios = this.authenticationCache.decorate(new ConcurrentMapCache("usuarios"));
+		this.authenticationCache.armazenar(TOKEN_ID, this.usuario, this.expiracao, this.authenticationCache.marca());
+		this.authenticationCache.armazenar("outroToken", new UsuarioAutenticado(UUID.randomUUID(), "outroUsuario", "senha", 1000L),
+				this.expiracao, this.authenticationCache.marca());
+
+		usuarios.put(this.usuario.getId(), "usuario");
+
+		assertNull(this.authenticationCache.buscar(TOKEN_ID));
+		assertEquals("outroUsuario", this.authenticationCache.buscar("outroToken").getUsername());
+	}
+
+	@Test
+	void testeExclusaoPeloNomeDoUsuarioDescartaAsAutenticacoes() {
+		Cache usuarios = this.authenticationCache.decorate(new ConcurrentMapCache("usuarios"));
+		this.authenticationCache.armazenar(TOKEN_ID, this.usuario, this.expiracao, this.authenticationCache.marca());
+
+		usuarios.evict(this.usuario.getUsername());
+
+		assertNull(this.authenticationCache.buscar(TOKEN_ID));
+	}
+
+}
@@ -0,0 +1,100 @@
+package br.com.tarefa.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.tarefa.exceptions.PasswordHashingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+	private SimpleMeterRegistry registry;
+	private CountDownLatch liberar;
+	private CountDownLatch iniciado;
+	private BoundedPasswordEncoder encoder;
+
+	@BeforeEach
+	void init() {
+		this.registry = new SimpleMeterRegistry();
+		this.liberar = new CountDownLatch(1);
+		this.iniciado = new CountDownLatch(1);
+		this.encoder = new BoundedPasswordEncoder(this.createInstanceEncoderBloqueado(), this.registry, 1, 1);
+	}
+
+	@AfterEach
+	void cleanup() {
+		this.liberar.countDown();
+		this.encoder.destroy();
+	}
+
+	@Test
+	void testeFilaCheiaRecusaImediatamente() throws Exception {
+		CompletableFuture<String> emExecucao = CompletableFuture.supplyAsync(() -> this.encoder.encode("senha1"));
+		assertTrue(this.iniciado.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> naFila = CompletableFuture.supplyAsync(() -> this.encoder.encode("senha2"));
+		this.aguardarFila(1);
+
+		assertThrows(PasswordHashingException.class, () -> this.encoder.matches("senha3", "hash"));
+		assertEquals(1.0, this.registry.get("password.hash.rejected").counter().count());
+
+		this.liberar.countDown();
+		assertEquals("hash:senha1", emExecucao.get(5, TimeUnit.SECONDS));
+		assertEquals("hash:senha2", naFila.get(5, TimeUnit.SECONDS));
+		assertEquals(2, this.registry.get("password.hash.duration").tag("operation", "encode").timer().count());
+	}
+
+	@Test
+	void testeBCryptEhExecutadoNoPool() {
+		BoundedPasswordEncoder bcrypt = new BoundedPasswordEncoder(new BCryptPasswordEncoder(), new SimpleMeterRegistry(), 2, 4);
+		try {
+			String hash = bcrypt.encode("123456789");
+			assertTrue(bcrypt.matches("123456789", hash));
+		} finally {
+			bcrypt.destroy();
+		}
+	}
+
+	private void aguardarFila(double tamanho) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 5000;
+		while (this.registry.get("password.hash.queue").gauge().value() < tamanho && System.currentTimeMillis() < limite)
+			Thread.sleep(5);
+	}
+
+	private PasswordEncoder createInstanceEncoderBloqueado() {
+		return new PasswordEncoder() {
+
+			@Override
+			public String encode(CharSequence rawPassword) {
+				this.aguardar();
+				return "hash:" + rawPassword;
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				this.aguardar();
+				return encodedPassword.equals("hash:" + rawPassword);
+			}
+
+			private void aguardar() {
+				iniciado.countDown();
+				try {
+					liberar.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+
+}
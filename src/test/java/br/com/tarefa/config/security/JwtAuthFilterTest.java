@@ -0,0 +1,224 @@
+package br.com.tarefa.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.tarefa.config.cache.CacheInvalidation;
+import br.com.tarefa.config.cache.RevokedTokens;
+import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
+import br.com.tarefa.services.security.CustomUserDetailsService;
+import br.com.tarefa.services.security.JwtService;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class JwtAuthFilterTest {
+
+	private static final String SECRET_KEY = "75466fd1abd38bd94ead07c70c7fc49e2d6e66d117656e29b9b9edf856ef4a24";
+	private static final String USUARIO = "testUser";
+
+	@Mock private CustomUserDetailsService userDetailsService;
+	@Mock private SecurityVersions securityVersions;
+	@Mock private CacheInvalidation cacheInvalidation;
+
+	private JwtService jwtService;
+	private AuthenticationCache authenticationCache;
+	private JwtAuthFilter filter;
+	private String token;
+
+	@BeforeEach
+	void initMocks() {
+		MockitoAnnotations.openMocks(this);
+		this.jwtService = spy(new JwtService(new ConcurrentMapCacheManager("blacklistedTokens"), new RevokedTokens(null, null, null, null),
+				SECRET_KEY));
+		ReflectionTestUtils.setField(this.jwtService, "jwtExpiration", 60000L);
+		this.authenticationCache = new AuthenticationCache(this.cacheInvalidation, null);
+		this.filter = new JwtAuthFilter(this.jwtService, this.userDetailsService, this.securityVersions, this.authenticationCache);
+		this.token = this.jwtService.generateToken(new HashMap<>(), AuthenticationRequestDTO.builder().username(USUARIO).build());
+
+		// Mockando o usuário carregado a partir do subject do token
+		when(this.userDetailsService.loadUserByUsername(USUARIO))
+				.thenReturn(User.withUsername(USUARIO).password("123456789").authorities("USER").build());
+	}
+
+	@AfterEach
+	void cleanup() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testeTokenEhVerificadoUmaUnicaVezPorRequisicao() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+
+		this.filter.doFilter(this.createInstanceRequest(this.token), new MockHttpServletResponse(), chain);
+
+		assertNotNull(chain.getRequest());
+		assertEquals(USUARIO, SecurityContextHolder.getContext().getAuthentication().getName());
+		verify(this.jwtService, times(1)).extractClaims(this.token);
+		verify(this.jwtService, never()).extractUsername(anyString());
+		verify(this.jwtService, never()).isTokenValid(anyString(), any());
+		verify(this.jwtService, never()).isTokenExpired(anyString());
+	}
+
+	@Test
+	void testeTokenInvalidoNaoAutentica() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+
+		this.filter.doFilter(this.createInstanceRequest(this.token + "x"), new MockHttpServletResponse(), chain);
+
+		assertNotNull(chain.getRequest());
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		verify(this.userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void testeTokenComVersaoDeSegurancaAutenticaSemCarregarOUsuario() throws Exception {
+		UsuarioAutenticado usuario = new UsuarioAutenticado(UUID.randomUUID(), USUARIO, "senha", 1000L);
+		ReflectionTestUtils.setField(this.jwtService, "claimsAuthentication", true);
+		String tokenComClaims = this.jwtService.generateToken(AuthenticationRequestDTO.builder().username(USUARIO).build(), usuario)
+				.getAccessToken();
+		
+		// Mockando a versão de segurança atual do usuário
+		when(this.securityVersions.isVersaoAtual(usuario.getId(), 1000L)).thenReturn(true);
+
+		this.filter.doFilter(this.createInstanceRequest(tokenComClaims), new MockHttpServletResponse(), new MockFilterChain());
+
+		UsuarioAutenticado principal = (UsuarioAutenticado) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+		assertEquals(USUARIO, principal.getUsername());
+		assertEquals(usuario.getId(), principal.getId());
+		verify(this.userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void testeTokenComVersaoDeSegurancaDesatualizadaNaoAutentica() throws Exception {
+		UsuarioAutenticado usuario = new UsuarioAutenticado(UUID.randomUUID(), USUARIO, "senha", 1000L);
+		ReflectionTestUtils.setField(this.jwtService, "claimsAuthentication", true);
+		String tokenComClaims = this.jwtService.generateToken(AuthenticationRequestDTO.builder().username(USUARIO).build(), usuario)
+				.getAccessToken();
+		
+		// Mockando a alteração das credenciais do usuário após a emissão do token
+		when(this.securityVersions.isVersaoAtual(usuario.getId(), 1000L)).thenReturn(false);
+
+		this.filter.doFilter(this.createInstanceRequest(tokenComClaims), new MockHttpServletResponse(), new MockFilterChain());
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		verify(this.userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void testeRefreshTokenNaoAutentica() throws Exception {
+		String refreshToken = this.jwtService.generateToken(AuthenticationRequestDTO.builder().username(USUARIO).build())
+				.getRefreshToken();
+
+		this.filter.doFilter(this.createInstanceRequest(refreshToken), new MockHttpServletResponse(), new MockFilterChain());
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		verify(this.userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void testeTokenRepetidoEhAutenticadoPeloCache() throws Exception {
+		this.habilitarCacheDeAutenticacao();
+
+		this.filter.doFilter(this.createInstanceRequest(this.token), new MockHttpServletResponse(), new MockFilterChain());
+		SecurityContextHolder.clearContext();
+		this.filter.doFilter(this.createInstanceRequest(this.token), new MockHttpServletResponse(), new MockFilterChain());
+
+		assertEquals(USUARIO, SecurityContextHolder.getContext().getAuthentication().getName());
+		verify(this.jwtService, times(1)).extractClaims(this.token);
+		verify(this.jwtService, times(1)).validTokenRevoke(this.token);
+		verify(this.userDetailsService, times(1)).loadUserByUsername(USUARIO);
+	}
+
+	@Test
+	void testeTokenRevogadoEhRemovidoDoCache() throws Exception {
+		this.habilitarCacheDeAutenticacao();
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(Collections.singletonList(
+				this.authenticationCache.decorate(new ConcurrentMapCache(RevokedTokens.CACHE_BLACKLISTED_TOKENS))));
+		cacheManager.afterPropertiesSet();
+		JwtService service = new JwtService(cacheManager, new RevokedTokens(null, null, null, null), SECRET_KEY);
+		JwtAuthFilter filtro = new JwtAuthFilter(service, this.userDetailsService, this.securityVersions, this.authenticationCache);
+
+		filtro.doFilter(this.createInstanceRequest(this.token), new MockHttpServletResponse(), new MockFilterChain());
+		SecurityContextHolder.clearContext();
+		service.revokeToken("Bearer " + this.token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filtro.doFilter(this.createInstanceRequest(this.token), response, new MockFilterChain());
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		assertEquals(400, response.getStatus());
+	}
+
+	/**
+	 * Mede o custo por requisição do filtro com um token válido. Executado apenas com '-Dbenchmark=true'.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkCustoPorRequisicao() throws Exception {
+		int iteracoes = Integer.getInteger("benchmark.iteracoes", 200_000);
+		JwtService service = new JwtService(new ConcurrentMapCacheManager("blacklistedTokens"), new RevokedTokens(null, null, null, null),
+				SECRET_KEY);
+		JwtAuthFilter filtro = new JwtAuthFilter(service, this.userDetailsService, this.securityVersions, this.authenticationCache);
+		MockHttpServletRequest request = this.createInstanceRequest(this.token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Aquecimento para que o caminho do filtro seja compilado pelo JIT antes da medição
+		this.executar(filtro, request, response, iteracoes / 10);
+		long inicio = System.nanoTime();
+		this.executar(filtro, request, response, iteracoes);
+		long decorrido = System.nanoTime() - inicio;
+
+		log.info("JwtAuthFilter: {} ns por requisição em {} requisições", decorrido / iteracoes, iteracoes);
+	}
+
+	private void executar(JwtAuthFilter filtro, MockHttpServletRequest request, MockHttpServletResponse response, int iteracoes)
+			throws Exception {
+		for (int i = 0; i < iteracoes; i++) {
+			SecurityContextHolder.clearContext();
+			request.removeAttribute(JwtAuthFilter.class.getName() + ".FILTERED");
+			filtro.doFilter(request, response, new MockFilterChain());
+		}
+	}
+
+	private void habilitarCacheDeAutenticacao() {
+		ReflectionTestUtils.setField(this.authenticationCache, "enabled", true);
+		ReflectionTestUtils.setField(this.authenticationCache, "maxSize", 1000L);
+		ReflectionTestUtils.setField(this.authenticationCache, "expiration", 60000L);
+	}
+
+	private MockHttpServletRequest createInstanceRequest(String token) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/tarefas");
+		request.setServletPath("/v1/tarefas");
+		request.addHeader("Authorization", "Bearer " + token);
+		return request;
+	}
+
+}
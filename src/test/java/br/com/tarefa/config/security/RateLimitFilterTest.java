@@ -0,0 +1,158 @@
+package br.com.tarefa.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class RateLimitFilterTest {
+
+	private SimpleMeterRegistry registry;
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	void init() {
+		this.registry = new SimpleMeterRegistry();
+		this.filter = new RateLimitFilter(null, null, this.registry);
+		ReflectionTestUtils.setField(this.filter, "enabled", true);
+		ReflectionTestUtils.setField(this.filter, "routes", "/auth/login:2:0.001,/v1/tarefas/**:3:0.001");
+		ReflectionTestUtils.setField(this.filter, "maxKeys", 1000L);
+	}
+
+	@AfterEach
+	void cleanup() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testeLimiteExcedidoRetorna429ComRetryAfter() throws Exception {
+		assertEquals(200, this.executar("/auth/login", "10.0.0.1").getStatus());
+		assertEquals(200, this.executar("/auth/login", "10.0.0.1").getStatus());
+
+		MockHttpServletResponse response = this.executar("/auth/login", "10.0.0.1");
+
+		assertEquals(429, response.getStatus());
+		assertTrue(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER)) >= 1);
+		assertEquals(1.0, this.registry.get("rate.limit.rejected").tag("route", "/auth/login").counter().count());
+	}
+
+	@Test
+	void testeBaldesSaoSeparadosPorIp() throws Exception {
+		this.executar("/auth/login", "10.0.0.1");
+		this.executar("/auth/login", "10.0.0.1");
+
+		assertEquals(429, this.executar("/auth/login", "10.0.0.1").getStatus());
+		assertEquals(200, this.executar("/auth/login", "10.0.0.2").getStatus());
+	}
+
+	@Test
+	void testeBaldesSaoSeparadosPorUsuarioAutenticado() throws Exception {
+		this.autenticar("usuario1");
+		for (int i = 0; i < 3; i++)
+			assertEquals(200, this.executar("/v1/tarefas/paginado", "10.0.0.1").getStatus());
+		assertEquals(429, this.executar("/v1/tarefas/paginado", "10.0.0.1").getStatus());
+
+		// Outro usuário no mesmo IP possui o seu próprio balde
+		this.autenticar("usuario2");
+		assertEquals(200, this.executar("/v1/tarefas/paginado", "10.0.0.1").getStatus());
+	}
+
+	@Test
+	void testeRotaNaoConfiguradaNaoEhLimitada() throws Exception {
+		for (int i = 0; i < 10; i++)
+			assertNotNull(this.executarCadeia("/v1/usuarios/criar", "10.0.0.1").getRequest());
+	}
+
+	@Test
+	void testeFiltroDesabilitadoNaoLimita() throws Exception {
+		ReflectionTestUtils.setField(this.filter, "enabled", false);
+
+		for (int i = 0; i < 10; i++)
+			assertEquals(200, this.executar("/auth/login", "10.0.0.1").getStatus());
+	}
+
+	@Test
+	void testeTokenBucketRepoeOsTokensComOTempo() {
+		long intervalo = TimeUnit.MILLISECONDS.toNanos(100);
+		TokenBucket balde = new TokenBucket(intervalo, 2, 0);
+
+		assertEquals(0, balde.consumir(0));
+		assertEquals(0, balde.consumir(0));
+		assertEquals(intervalo, balde.consumir(0));
+		assertEquals(0, balde.consumir(intervalo));
+		assertEquals(intervalo / 2, balde.consumir(intervalo + intervalo / 2));
+	}
+
+	/**
+	 * Mede o custo por requisição do filtro com o balde disponível. Executado apenas com '-Dbenchmark=true'.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkCustoPorRequisicao() throws Exception {
+		int iteracoes = Integer.getInteger("benchmark.iteracoes", 2_000_000);
+		ReflectionTestUtils.setField(this.filter, "routes", "/v1/tarefas/**:1000000000:1000000000");
+		this.autenticar("usuario1");
+		MockHttpServletRequest request = this.createInstanceRequest("/v1/tarefas/paginado", "10.0.0.1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Aquecimento para que o caminho do filtro seja compilado pelo JIT antes da medição
+		this.executar(request, response, iteracoes / 10);
+		long inicio = System.nanoTime();
+		this.executar(request, response, iteracoes);
+		long decorrido = System.nanoTime() - inicio;
+
+		log.info("RateLimitFilter: {} ns por requisição em {} requisições", decorrido / iteracoes, iteracoes);
+		assertNull(response.getHeader(HttpHeaders.RETRY_AFTER));
+	}
+
+	private void executar(MockHttpServletRequest request, MockHttpServletResponse response, int iteracoes) throws Exception {
+		for (int i = 0; i < iteracoes; i++) {
+			request.removeAttribute(RateLimitFilter.class.getName() + ".FILTERED");
+			this.filter.doFilter(request, response, new MockFilterChain());
+		}
+	}
+
+	private MockHttpServletResponse executar(String caminho, String ip) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(this.createInstanceRequest(caminho, ip), response, new MockFilterChain());
+		return response;
+	}
+
+	private MockFilterChain executarCadeia(String caminho, String ip) throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		this.filter.doFilter(this.createInstanceRequest(caminho, ip), new MockHttpServletResponse(), chain);
+		return chain;
+	}
+
+	private void autenticar(String usuario) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(usuario, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+	}
+
+	private MockHttpServletRequest createInstanceRequest(String caminho, String ip) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", caminho);
+		request.setServletPath(caminho);
+		request.setRemoteAddr(ip);
+		return request;
+	}
+
+}
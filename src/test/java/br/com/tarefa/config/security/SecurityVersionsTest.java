@@ -0,0 +1,100 @@
+package br.com.tarefa.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.tarefa.config.cache.CacheInvalidation;
+import br.com.tarefa.repositories.UsuarioRepository;
+
+class SecurityVersionsTest {
+
+	@Mock private UsuarioRepository repository;
+
+	private SecurityVersions securityVersions;
+	private UUID id;
+	private LocalDateTime dataAtualizacao;
+
+	@BeforeEach
+	void initMocks() {
+		MockitoAnnotations.openMocks(this);
+		this.securityVersions = new SecurityVersions(this.repository, mock(CacheInvalidation.class), null);
+		ReflectionTestUtils.setField(this.securityVersions, "enabled", true);
+		ReflectionTestUtils.setField(this.securityVersions, "maxSize", 1000L);
+		ReflectionTestUtils.setField(this.securityVersions, "expiration", 60000L);
+		this.id = UUID.randomUUID();
+		this.dataAtualizacao = LocalDateTime.now();
+	}
+
+	@Test
+	void testeVersaoAtualEhConsultadaUmaVez() {
+		// Mockando a versão do usuário na base de dados
+		this.mockVersao(this.dataAtualizacao);
+		long versao = SecurityVersions.versao(this.dataAtualizacao);
+
+		assertTrue(this.securityVersions.isVersaoAtual(this.id, versao));
+		assertTrue(this.securityVersions.isVersaoAtual(this.id, versao));
+		assertFalse(this.securityVersions.isVersaoAtual(this.id, versao - 1));
+		verify(this.repository, times(1)).findVersoesByIdIn(any());
+	}
+
+	@Test
+	void testeUsuarioExcluidoNaoPossuiVersao() {
+		// Mockando o usuário inexistente na base de dados
+		when(this.repository.findVersoesByIdIn(any())).thenReturn(Collections.emptyList());
+
+		assertFalse(this.securityVersions.isVersaoAtual(this.id, SecurityVersions.versao(this.dataAtualizacao)));
+	}
+
+	@Test
+	void testeAlteracaoDoUsuarioNoCacheDescartaAVersaoEmMemoria() {
+		Cache cache = this.securityVersions.decorate(new ConcurrentMapCache("usuarios"));
+		LocalDateTime novaDataAtualizacao = this.dataAtualizacao.plusMinutes(1);
+
+		// Mockando a versão do usuário antes e depois da alteração das credenciais
+		this.mockVersao(this.dataAtualizacao);
+		assertTrue(this.securityVersions.isVersaoAtual(this.id, SecurityVersions.versao(this.dataAtualizacao)));
+		this.mockVersao(novaDataAtualizacao);
+
+		cache.put(this.id, "usuario");
+
+		assertFalse(this.securityVersions.isVersaoAtual(this.id, SecurityVersions.versao(this.dataAtualizacao)));
+		assertTrue(this.securityVersions.isVersaoAtual(this.id, SecurityVersions.versao(novaDataAtualizacao)));
+	}
+
+	@Test
+	void testeVersaoMaisRecenteQueAConhecidaEhConsultadaNovamente() {
+		LocalDateTime novaDataAtualizacao = this.dataAtualizacao.plusMinutes(1);
+
+		// Mockando a versão conhecida e, em seguida, a versão alterada em outra instância
+		this.mockVersao(this.dataAtualizacao);
+		assertTrue(this.securityVersions.isVersaoAtual(this.id, SecurityVersions.versao(this.dataAtualizacao)));
+		this.mockVersao(novaDataAtualizacao);
+
+		assertTrue(this.securityVersions.isVersaoAtual(this.id, SecurityVersions.versao(novaDataAtualizacao)));
+	}
+
+	private void mockVersao(LocalDateTime dataAtualizacao) {
+		UsuarioRepository.Versao versao = mock(UsuarioRepository.Versao.class);
+		when(versao.getId()).thenReturn(this.id);
+		when(versao.getDataAtualizacao()).thenReturn(dataAtualizacao);
+		when(this.repository.findVersoesByIdIn(any())).thenReturn(Collections.singletonList(versao));
+	}
+
+}
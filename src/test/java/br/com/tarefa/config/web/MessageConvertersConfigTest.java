@@ -0,0 +1,119 @@
+package br.com.tarefa.config.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.tarefa.dtos.CriarTarefaDTO;
+import br.com.tarefa.dtos.TarefaDTO;
+import br.com.tarefa.entities.enums.StatusTarefa;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class MessageConvertersConfigTest {
+
+	private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+	private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+	private AbstractJackson2HttpMessageConverter smile;
+	private AbstractJackson2HttpMessageConverter cbor;
+
+	@BeforeEach
+	void init() {
+		MessageConvertersConfig config = new MessageConvertersConfig();
+		this.smile = config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder());
+		this.cbor = config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder());
+	}
+
+	@Test
+	void testeConversoresNegociamOsFormatosBinarios() {
+		assertTrue(this.smile.canWrite(TarefaDTO.class, APPLICATION_SMILE));
+		assertTrue(this.smile.canRead(CriarTarefaDTO.class, APPLICATION_SMILE));
+		assertTrue(this.cbor.canWrite(TarefaDTO.class, APPLICATION_CBOR));
+		assertTrue(this.cbor.canRead(CriarTarefaDTO.class, APPLICATION_CBOR));
+	}
+
+	@Test
+	void testeCorpoDaRequisicaoEmSmileECbor() throws Exception {
+		CriarTarefaDTO dto = new CriarTarefaDTO("Tarefa A", "Descrição tarefa A");
+
+		for (AbstractJackson2HttpMessageConverter conversor : new AbstractJackson2HttpMessageConverter[] { this.smile, this.cbor }) {
+			ObjectMapper objectMapper = conversor.getObjectMapper();
+			assertEquals(dto, objectMapper.readValue(objectMapper.writeValueAsBytes(dto), CriarTarefaDTO.class));
+		}
+	}
+
+	/**
+	 * Mede o tamanho e o custo de serialização de uma lista de 1.000 tarefas em cada formato, com e
+	 * sem gzip. Executado apenas com '-Dbenchmark=true'.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkTamanhoECustoPorFormato() throws Exception {
+		int iteracoes = Integer.getInteger("benchmark.iteracoes", 500);
+		List<TarefaDTO> tarefas = this.createInstanceTarefasDTO(1000);
+		ObjectMapper json = new Jackson2ObjectMapperBuilder().build();
+
+		this.medir("JSON", json, tarefas, iteracoes);
+		this.medir("Smile", this.smile.getObjectMapper(), tarefas, iteracoes);
+		this.medir("CBOR", this.cbor.getObjectMapper(), tarefas, iteracoes);
+	}
+
+	private void medir(String formato, ObjectMapper objectMapper, List<TarefaDTO> tarefas, int iteracoes) throws Exception {
+		// Aquecimento para que a serialização seja compilada pelo JIT antes da medição
+		for (int i = 0; i < iteracoes; i++)
+			this.gzip(objectMapper.writeValueAsBytes(tarefas));
+
+		long inicio = System.nanoTime();
+		byte[] corpo = null;
+		for (int i = 0; i < iteracoes; i++)
+			corpo = objectMapper.writeValueAsBytes(tarefas);
+		long serializacao = (System.nanoTime() - inicio) / iteracoes;
+
+		inicio = System.nanoTime();
+		byte[] compactado = null;
+		for (int i = 0; i < iteracoes; i++)
+			compactado = this.gzip(corpo);
+		long compactacao = (System.nanoTime() - inicio) / iteracoes;
+
+		log.info("{}: {} bytes ({} bytes com gzip), {} µs para serializar e {} µs para compactar {} tarefas", formato,
+				corpo.length, compactado.length, serializacao / 1000, compactacao / 1000, tarefas.size());
+	}
+
+	private byte[] gzip(byte[] corpo) throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream(corpo.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+			gzip.write(corpo);
+		}
+		return saida.toByteArray();
+	}
+
+	private List<TarefaDTO> createInstanceTarefasDTO(int quantidade) {
+		List<TarefaDTO> tarefas = new ArrayList<>();
+		LocalDateTime dataAtual = LocalDateTime.now();
+		for (int i = 0; i < quantidade; i++) {
+			UUID id = UUID.randomUUID();
+			tarefas.add(new TarefaDTO(id, "Tarefa " + i, "Descrição da tarefa " + i + " com o texto de uma tarefa comum",
+					dataAtual.minusMinutes(i), dataAtual, StatusTarefa.values()[i % StatusTarefa.values().length], UUID.randomUUID())
+					.add(Link.of("http://localhost:8080/api/v1/tarefas/" + id)));
+		}
+		return tarefas;
+	}
+
+}
@@ -0,0 +1,46 @@
+package br.com.tarefa.dtos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.tarefa.entities.enums.StatusTarefa;
+
+class TarefaParcialDTOTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	void testeSomenteOsCamposSelecionadosSaoSerializados() throws Exception {
+		UUID id = UUID.randomUUID();
+		TarefaParcialDTO tarefa = new TarefaParcialDTO();
+		tarefa.setId(id);
+		tarefa.setTitulo("Tarefa A");
+		tarefa.setStatus(StatusTarefa.PENDENTE);
+
+		assertEquals("[{\"id\":\"" + id + "\",\"titulo\":\"Tarefa A\",\"status\":\"PENDENTE\"}]",
+				this.objectMapper.writeValueAsString(Collections.singletonList(tarefa)));
+	}
+
+	@Test
+	void testeLinksSelecionadosSaoSerializadosComoNaTarefaCompleta() throws Exception {
+		Link self = Link.of("http://localhost/api/v1/tarefas/" + UUID.randomUUID());
+		TarefaParcialDTO tarefa = new TarefaParcialDTO();
+		tarefa.setTitulo("Tarefa A");
+		tarefa.add(self);
+
+		String links = this.objectMapper.writeValueAsString(TarefaDTO.create().add(self).getLinks());
+
+		assertEquals("{\"titulo\":\"Tarefa A\",\"links\":" + links + "}", this.objectMapper.writeValueAsString(tarefa));
+	}
+
+}
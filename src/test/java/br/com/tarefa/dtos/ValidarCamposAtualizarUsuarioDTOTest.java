@@ -36,16 +36,12 @@ class ValidarCamposAtualizarUsuarioDTOTest {
 				assertThat(action.getMessageTemplate()).isEqualTo("Campo 'nomeUsuario' é obrigatório");
 				assertThat(action.getPropertyPath().toString()).isEqualTo("nomeUsuario");
 				break;
-			case "senha":
-				assertThat(action.getMessageTemplate()).isEqualTo("Campo 'senha' é obrigatório");
-				assertThat(action.getPropertyPath().toString()).isEqualTo("senha");
-				break;	
 			default:
 				break;
 			}
 		});
 
-		assertThat(violations.stream().count()).isEqualTo(3);
+		assertThat(violations.stream().count()).isEqualTo(2);
 	}
 
 	@Test
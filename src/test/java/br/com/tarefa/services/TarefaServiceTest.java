@@ -2,15 +2,25 @@ package br.com.tarefa.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -19,9 +29,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
+import br.com.tarefa.config.cache.BatchCache;
+import br.com.tarefa.config.cache.NegativeCache;
 import br.com.tarefa.dtos.AtualizarTarefaDTO;
 import br.com.tarefa.dtos.CriarTarefaDTO;
+import br.com.tarefa.dtos.FiltroTarefaDTO;
+import br.com.tarefa.dtos.TarefaDTO;
 import br.com.tarefa.entities.Tarefa;
 import br.com.tarefa.entities.Usuario;
 import br.com.tarefa.entities.enums.StatusTarefa;
@@ -31,6 +47,7 @@ import br.com.tarefa.exceptions.ResourceNotFoundException;
 import br.com.tarefa.mappers.TarefaMapper;
 import br.com.tarefa.mappers.TarefaMapperImpl;
 import br.com.tarefa.repositories.TarefaRepository;
+import br.com.tarefa.repositories.custom.TarefaRepositoryCustom;
 import br.com.tarefa.utils.UsuarioUtils;
 
 class TarefaServiceTest {
@@ -43,13 +60,15 @@ class TarefaServiceTest {
 	
 	@Mock private TarefaRepository repository;
 	@Mock private UsuarioService usuarioService;
+	@Mock private CacheManager cacheManager;
 
 	@BeforeEach
 	void initMocks() {
 		MockitoAnnotations.openMocks(this);
 		this.mockedStaticUsuarioUtils = mockStatic(UsuarioUtils.class);
 		this.mapper = new TarefaMapperImpl();
-		this.service = new TarefaService(repository, usuarioService, mapper);
+		this.service = new TarefaService(repository, usuarioService, mapper, cacheManager,
+				new NegativeCache(cacheManager), new BatchCache(cacheManager, null, null, null));
 		this.usuarioLogado = RandomStringUtils.randomAlphabetic(10);
 		this.dataAtual = LocalDateTime.now();
 	}
@@ -228,6 +247,105 @@ class TarefaServiceTest {
 		verify(this.repository, never()).deleteById(any());
 	}
 	
+	@Test
+	void testeBuscarPelosIdsConsultaApenasAusentesNoCache() {
+		CacheManager cacheManagerLocal = new ConcurrentMapCacheManager();
+		TarefaService serviceComCache = new TarefaService(repository, usuarioService, mapper, cacheManagerLocal,
+				new NegativeCache(cacheManagerLocal),
+				new BatchCache(cacheManagerLocal, null, null, null));
+		Tarefa tarefaEmCache = this.createInstanceEntityTarefa();
+		Tarefa tarefaNoBanco = this.createInstanceEntityTarefa();
+		cacheManagerLocal.getCache("tarefas").put(tarefaEmCache.getId(), tarefaEmCache);
+		
+		// Mockando o comportamento do repositorio na busca pelos ids ausentes no cache
+		when(this.repository.findAllById(any())).thenReturn(Collections.singletonList(tarefaNoBanco));
+		
+		List<Tarefa> tarefas = serviceComCache.buscarPelosIds(Arrays.asList(tarefaNoBanco.getId(), tarefaEmCache.getId(), 
+				tarefaNoBanco.getId(), UUID.randomUUID()));
+		
+		assertEquals(Arrays.asList(tarefaNoBanco, tarefaEmCache), tarefas);
+		assertEquals(tarefaNoBanco, cacheManagerLocal.getCache("tarefas").get(tarefaNoBanco.getId(), Tarefa.class));
+		verify(this.repository, times(1)).findAllById(any());
+	}
+	
+	@Test
+	void testeListarTarefasDoUsuarioLogadoCarregaIndiceUmaVez() {
+		CacheManager cacheManagerLocal = new ConcurrentMapCacheManager();
+		TarefaService serviceComCache = new TarefaService(repository, usuarioService, mapper, cacheManagerLocal,
+				new NegativeCache(cacheManagerLocal),
+				new BatchCache(cacheManagerLocal, null, null, null));
+		Usuario usuario = Usuario.builder().id(UUID.randomUUID()).nomeUsuario(this.usuarioLogado).build();
+		Tarefa tarefaA = this.createInstanceEntityTarefa();
+		Tarefa tarefaB = this.createInstanceEntityTarefa();
+		
+		// Mockando o usuário logado
+		mockedStaticUsuarioUtils.when(UsuarioUtils::getUsuarioLogado).thenReturn(this.usuarioLogado);
+		// Mockando o comportamento do serviço de usuário na busca pelo usuário logado
+		when(this.usuarioService.buscarPeloNomeUsuario(this.usuarioLogado)).thenReturn(usuario);
+		// Mockando o comportamento do repositorio na busca dos ids e das tarefas do usuário
+		when(this.repository.findIdsByUsuarioIdOrderByDataCriacao(usuario.getId()))
+				.thenReturn(Arrays.asList(tarefaB.getId(), tarefaA.getId()));
+		when(this.repository.findAllById(any())).thenReturn(Arrays.asList(tarefaA, tarefaB));
+		
+		assertEquals(Arrays.asList(tarefaB, tarefaA), serviceComCache.listarTarefasDoUsuarioLogado());
+		assertEquals(Arrays.asList(tarefaB, tarefaA), serviceComCache.listarTarefasDoUsuarioLogado());
+		
+		verify(this.repository, times(1)).findIdsByUsuarioIdOrderByDataCriacao(usuario.getId());
+		verify(this.repository, times(1)).findAllById(any());
+	}
+	
+	@Test
+	void testeTentarBuscarPelosIdsAcimaDoMaximo() {
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 101; i++)
+			ids.add(UUID.randomUUID());
+		
+		BusinessException exception = assertThrows(BusinessException.class, () -> {
+			this.service.buscarPelosIds(ids);
+        });
+		
+		assertEquals("É permitido consultar no máximo 100 tarefas por vez", exception.getMessage());
+		verify(this.repository, never()).findAllById(any());
+	}
+	
+	@Test
+	void testePercorrerTarefasEntregaCadaTarefaEFechaOCursor() {
+		TarefaDTO tarefaA = TarefaDTO.create().withId(UUID.randomUUID());
+		TarefaDTO tarefaB = TarefaDTO.create().withId(UUID.randomUUID());
+		AtomicBoolean fechado = new AtomicBoolean();
+		List<TarefaDTO> recebidas = new ArrayList<>();
+		
+		// Mockando o comportamento do repositorio no cursor das tarefas
+		when(this.repository.streamAllAsDTO()).thenReturn(Stream.of(tarefaA, tarefaB).onClose(() -> fechado.set(true)));
+		
+		this.service.percorrerTarefas(recebidas::add);
+		
+		assertEquals(Arrays.asList(tarefaA, tarefaB), recebidas);
+		assertTrue(fechado.get());
+	}
+	
+	@Test
+	void testeListarCamposDasTarefasConsultaSomenteOsCamposInformados() {
+		FiltroTarefaDTO filtro = new FiltroTarefaDTO();
+		Set<String> campos = new LinkedHashSet<>(Arrays.asList("id", "titulo", "status"));
+		
+		this.service.listarCamposDasTarefas(filtro, campos);
+		
+		verify(this.repository).findFieldsByFilter(filtro, campos);
+	}
+	
+	@Test
+	void testeTentarListarCamposDasTarefasComCampoInexistente() {
+		Set<String> campos = new LinkedHashSet<>(Arrays.asList("id", "senha"));
+		
+		BusinessException exception = assertThrows(BusinessException.class, () -> {
+			this.service.listarCamposDasTarefas(new FiltroTarefaDTO(), campos);
+        });
+		
+		assertEquals("Campo 'senha' inválido, os campos permitidos são " + TarefaRepositoryCustom.CAMPOS, exception.getMessage());
+		verify(this.repository, never()).findFieldsByFilter(any(), any());
+	}
+	
     private CriarTarefaDTO createInstanceCriarTarefaDTO() {
     	return CriarTarefaDTO.builder()
 				.titulo("Tarefa A")
@@ -1,10 +1,13 @@
 package br.com.tarefa.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -12,6 +15,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,13 +24,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import br.com.tarefa.config.cache.NegativeCache;
 import br.com.tarefa.dtos.AtualizarUsuarioDTO;
 import br.com.tarefa.dtos.CriarUsuarioDTO;
 import br.com.tarefa.entities.Usuario;
@@ -35,6 +42,7 @@ import br.com.tarefa.exceptions.BusinessException;
 import br.com.tarefa.exceptions.ResourceNotFoundException;
 import br.com.tarefa.mappers.UsuarioMapper;
 import br.com.tarefa.mappers.UsuarioMapperImpl;
+import br.com.tarefa.repositories.TarefaRepository;
 import br.com.tarefa.repositories.UsuarioRepository;
 import br.com.tarefa.utils.UsuarioUtils;
 
@@ -47,6 +55,7 @@ class UsuarioServiceTest {
 	private MockedStatic<UsuarioUtils> mockedStaticUsuarioUtils;
 	
 	@Mock private UsuarioRepository repository;
+	@Mock private TarefaRepository tarefaRepository;
 	@Mock private CacheManager cacheManager;
     @Mock private Cache cache;
     private UsuarioService service;
@@ -56,7 +65,8 @@ class UsuarioServiceTest {
 		MockitoAnnotations.openMocks(this);
 		this.mockedStaticUsuarioUtils = mockStatic(UsuarioUtils.class);
 		this.mapper = new UsuarioMapperImpl();
-		this.service = new UsuarioService(repository, mapper, cacheManager);
+		this.service = new UsuarioService(repository, tarefaRepository, mapper, cacheManager,
+				new NegativeCache(cacheManager), new BCryptPasswordEncoder());
 		this.usuarioLogado = RandomStringUtils.randomAlphabetic(10);
 		this.dataAtual = LocalDateTime.now();
 		when(cacheManager.getCache("usuarios")).thenReturn(cache);
@@ -100,6 +110,43 @@ class UsuarioServiceTest {
 	
 	}
 
+	@Test
+	void testeAtualizarUsuarioSemAlterarSenhaMantemOHash() {
+		AtualizarUsuarioDTO atualizarUsuarioDTO = this.createInstanceAtualizarUsuarioDTO();
+		atualizarUsuarioDTO.setSenha(null);
+		Usuario entity = this.createInstanceEntityUsuario();
+		String senhaCriptografada = entity.getSenha();
+		
+		// Mockando o nome do usuário logado
+		mockedStaticUsuarioUtils.when(UsuarioUtils::getUsuarioLogado).thenReturn(this.usuarioLogado);
+		
+		// Mockando o comportamento do repositorio na busca pelo nome de usuário
+		when(this.repository.findByNomeUsuario(atualizarUsuarioDTO.getNomeUsuario())).thenReturn(Optional.of(entity));
+		
+		Usuario usuario = this.service.atualizarUsuario(atualizarUsuarioDTO);
+		
+		assertEquals(senhaCriptografada, usuario.getSenha());
+		verify(this.repository).save(any());
+	}
+
+	@Test
+	void testeRevogarSessoesAtualizaAVersaoDoUsuario() {
+		Usuario entity = this.createInstanceEntityUsuario();
+		
+		// Mockando o nome do usuário logado
+		mockedStaticUsuarioUtils.when(UsuarioUtils::getUsuarioLogado).thenReturn(this.usuarioLogado);
+		
+		// Mockando o comportamento do repositorio na busca pelo nome de usuário
+		when(this.repository.findByNomeUsuario(this.usuarioLogado)).thenReturn(Optional.of(entity));
+		
+		this.service.revogarSessoes();
+		
+		assertTrue(entity.getDataAtualizacao().compareTo(this.dataAtual) >= 0);
+		verify(this.repository).save(entity);
+		verify(cache).put(entity.getId(), entity);
+		verify(cache).put(entity.getNomeUsuario(), entity);
+	}
+
 	@Test
 	void testeAtualizarUsuarioComSucesso() {
 		AtualizarUsuarioDTO atualizarUsuarioDTO = this.createInstanceAtualizarUsuarioDTO();	
@@ -126,6 +173,28 @@ class UsuarioServiceTest {
         assertEquals(usuario.getNomeUsuario(), captor.getValue());
 	}
 	
+	@Test
+	void testeAtualizarNomeUsuarioInvalidaNomeAnteriorAposGravar() {
+		String novoNomeUsuario = RandomStringUtils.randomAlphabetic(10);
+		AtualizarUsuarioDTO atualizarUsuarioDTO = this.createInstanceAtualizarUsuarioDTO();
+		atualizarUsuarioDTO.setNomeUsuario(novoNomeUsuario);
+		
+		// Mockando o nome do usuário logado
+		mockedStaticUsuarioUtils.when(UsuarioUtils::getUsuarioLogado).thenReturn(this.usuarioLogado);
+		
+		// Mockando o comportamento do repositorio na busca pelo nome de usuário atual e pelo novo
+		when(this.repository.findByNomeUsuario(this.usuarioLogado)).thenReturn(Optional.of(this.createInstanceEntityUsuario()));
+		when(this.repository.findByNomeUsuario(novoNomeUsuario)).thenReturn(Optional.empty());
+		
+		Usuario usuario = this.service.atualizarUsuario(atualizarUsuarioDTO);
+		
+		// Verificando que o nome anterior só é invalidado depois da gravação e da inserção do novo nome
+		InOrder ordem = inOrder(this.repository, cache);
+		ordem.verify(this.repository).save(usuario);
+		ordem.verify(cache).put(novoNomeUsuario, usuario);
+		ordem.verify(cache).evict(this.usuarioLogado);
+	}
+	
 	@Test
 	void testeTentarAtualizarOutroUsuario() {
 		String outroUsuario = RandomStringUtils.randomAlphabetic(10);
@@ -168,6 +237,33 @@ class UsuarioServiceTest {
 	    verify(cache, times(2)).evict(any());
 	}
 	
+	@Test
+	void testeExcluirUsuarioRemoveTarefasDoCache() {
+		Usuario usuarioEntity = this.createInstanceEntityUsuario();
+		UUID idTarefa1 = UUID.randomUUID();
+		UUID idTarefa2 = UUID.randomUUID();
+		Cache cacheTarefas = mock(Cache.class);
+		Cache cacheListarTarefas = mock(Cache.class);
+		
+		// Mockando o comportamento do repositorio na busca pelo id de usuário
+		when(this.repository.findById(usuarioEntity.getId())).thenReturn(Optional.of(usuarioEntity));
+		// Mockando o nome do usuário logado
+		mockedStaticUsuarioUtils.when(UsuarioUtils::getUsuarioLogado).thenReturn(this.usuarioLogado);
+		// Mockando os ids das tarefas do usuário
+		when(this.tarefaRepository.findIdsByUsuarioIdOrderByDataCriacao(usuarioEntity.getId()))
+				.thenReturn(Arrays.asList(idTarefa1, idTarefa2));
+		// Mockando os caches de tarefas
+		when(this.cacheManager.getCache("tarefas")).thenReturn(cacheTarefas);
+		when(this.cacheManager.getCache("listarTarefas")).thenReturn(cacheListarTarefas);
+		
+		this.service.excluirUsuarioPeloId(usuarioEntity.getId());
+		
+		verify(this.repository).deleteById(usuarioEntity.getId());
+		verify(cacheTarefas).evict(idTarefa1);
+		verify(cacheTarefas).evict(idTarefa2);
+		verify(cacheListarTarefas).clear();
+	}
+	
 	@Test
 	void testeTentarExcluirUsuarioNaoExiste() {
 		UUID id = UUID.randomUUID();
@@ -213,14 +309,33 @@ class UsuarioServiceTest {
 		// Mockando o nome do usuário logado
 		mockedStaticUsuarioUtils.when(UsuarioUtils::getUsuarioLogado).thenReturn(outroUsuario);
 		
+		Usuario usuario = this.service.buscarPeloId(usuarioEntity.getId());
+		
 		AuthorizationException exception = assertThrows(AuthorizationException.class, () -> {
-			this.service.buscarPeloId(usuarioEntity.getId());
+			this.service.validarVisualizacao(usuario);
         });
 	
 		assertEquals("Apenas o usuário tem permissão para visualizar seus dados", exception.getMessage());
 		verify(this.repository, never()).deleteById(any());
 	}
 	
+	@Test
+	void testeBuscasRepetidasPorUsuarioInexistenteConsultamUmaVez() {
+		String nomeUsuario = RandomStringUtils.randomAlphabetic(10);
+		
+		// Mockando o cache de usuários inexistentes
+		when(cacheManager.getCache(NegativeCache.CACHE_USUARIOS_INEXISTENTES))
+				.thenReturn(new ConcurrentMapCache(NegativeCache.CACHE_USUARIOS_INEXISTENTES));
+		// Mockando o comportamento do repositorio na busca pelo nome de usuário
+		when(this.repository.findByNomeUsuario(nomeUsuario)).thenReturn(Optional.ofNullable(null));
+		
+		assertNull(this.service.buscarPeloNomeUsuario(nomeUsuario));
+		assertNull(this.service.buscarPeloNomeUsuario(nomeUsuario));
+		assertNull(this.service.buscarPeloNomeUsuario(nomeUsuario));
+		
+		verify(this.repository, times(1)).findByNomeUsuario(nomeUsuario);
+	}
+	
     private CriarUsuarioDTO createInstanceCriarUsuarioDTO() {
     	return CriarUsuarioDTO.builder()
     			.nome(RandomStringUtils.randomAlphabetic(10))
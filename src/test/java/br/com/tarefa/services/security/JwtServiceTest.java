@@ -1,14 +1,22 @@
 package br.com.tarefa.services.security;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.UUID;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,13 +27,22 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import br.com.tarefa.config.cache.RevokedTokens;
+import br.com.tarefa.config.security.SecurityVersions;
+import br.com.tarefa.config.security.UsuarioAutenticado;
 import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
 import br.com.tarefa.dtos.security.AuthenticationTokenDTO;
 import br.com.tarefa.exceptions.RevokeTokenException;
+import io.jsonwebtoken.Claims;
 
 class JwtServiceTest {
 
+	private static final String SECRET_KEY = "75466fd1abd38bd94ead07c70c7fc49e2d6e66d117656e29b9b9edf856ef4a24";
+
     @Mock
     private CacheManager cacheManager;
 
@@ -43,7 +60,7 @@ class JwtServiceTest {
     @BeforeEach
     public void initMocks() {
         MockitoAnnotations.openMocks(this);
-        this.jwtService = new JwtService(cacheManager);
+        this.jwtService = new JwtService(cacheManager, new RevokedTokens(null, null, null, null), SECRET_KEY);
         when(cacheManager.getCache("blacklistedTokens")).thenReturn(cache);
     }
 
@@ -59,12 +76,14 @@ class JwtServiceTest {
         doReturn(false).when(this.jwtService).isTokenExpired(accesstoken); // O token não está na expirado
         this.jwtService.revokeToken(authHeader);
 
-        // Capturando o token que foi colocado no cache
+        // Capturando o identificador do token que foi colocado no cache
+        String tokenId = this.jwtService.extractTokenId(accesstoken);
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(cache).putIfAbsent(captor.capture(), eq(accesstoken));
+        verify(cache).putIfAbsent(captor.capture(), eq(tokenId));
         
-        // Verificando se o token foi corretamente colocado no cache
-        assertEquals(accesstoken, captor.getValue());
+        // Verificando se o identificador curto do token foi corretamente colocado no cache
+        assertEquals(tokenId, captor.getValue());
+        assertEquals(22, captor.getValue().length());
     }
 
     @Test
@@ -107,4 +126,87 @@ class JwtServiceTest {
         assertEquals(this.tokenRefreshExpiration, tokenDTO.getRefreshExpiresInMl());
     }
 
+    @Test
+    public void testeValidarTokenAPartirDasClaimsVerificadas() {
+        AuthenticationRequestDTO requestDTO = AuthenticationRequestDTO.builder().username("testUser").build();
+        UserDetails userDetails = User.withUsername("testUser").password("123456789").authorities("USER").build();
+        ReflectionTestUtils.setField(this.jwtService, "jwtExpiration", 60000L);
+        String token = this.jwtService.generateToken(new HashMap<>(), requestDTO);
+        
+        Claims claims = this.jwtService.extractClaims(token);
+        
+        assertEquals("testUser", claims.getSubject());
+        assertTrue(this.jwtService.isTokenValid(claims, userDetails));
+        assertFalse(this.jwtService.isTokenValid(claims, User.withUsername("outroUsuario").password("123456789").authorities("USER").build()));
+    }
+
+    @Test
+    public void testeTokenAdulteradoNaoGeraClaims() {
+        AuthenticationRequestDTO requestDTO = AuthenticationRequestDTO.builder().username("testUser").build();
+        String token = this.jwtService.generateToken(new HashMap<>(), requestDTO);
+        String tokenAdulterado = token.substring(0, token.length() - 2).concat(token.endsWith("AA") ? "BB" : "AA");
+        
+        assertNull(this.jwtService.extractClaims(tokenAdulterado));
+        assertNull(this.jwtService.extractUsername(tokenAdulterado));
+    }
+
+    @Test
+    public void testeTokenRevogadoEhConsultadoPeloIdentificador() {
+        String accesstoken = RandomStringUtils.randomAlphanumeric(135);
+        String id = this.jwtService.extractTokenId(accesstoken);
+        
+        // Mockando o identificador do token na lista negra
+        when(this.cache.get(id, String.class)).thenReturn(id);
+        
+        RevokeTokenException exception = assertThrows(RevokeTokenException.class, () -> {
+            this.jwtService.validTokenRevoke(accesstoken);
+        });
+        
+        assertEquals("O token JWT que está sendo utlizando foi revogado", exception.getMessage());
+    }
+
+    @Test
+    public void testeTokenNaoRevogadoConsultaApenasOIdentificador() {
+        String accesstoken = RandomStringUtils.randomAlphanumeric(135);
+        
+        this.jwtService.validTokenRevoke(accesstoken);
+        
+        verify(this.cache).get(this.jwtService.extractTokenId(accesstoken), String.class);
+        verify(this.cache, never()).get(accesstoken, String.class);
+    }
+
+    @Test
+    public void testeTokenEmitidoAntesDaAtualizacaoDoUsuarioEhInvalido() {
+        ReflectionTestUtils.setField(this.jwtService, "jwtExpiration", 60000L);
+        AuthenticationRequestDTO requestDTO = AuthenticationRequestDTO.builder().username("testUser").build();
+        Claims claims = this.jwtService.extractClaims(this.jwtService.generateToken(new HashMap<>(), requestDTO));
+        UUID id = UUID.randomUUID();
+        
+        // Usuário atualizado antes e depois da emissão do token
+        LocalDateTime emissao = LocalDateTime.now();
+        UsuarioAutenticado atualizadoAntes = new UsuarioAutenticado(id, "testUser", "senha", SecurityVersions.versao(emissao.minusMinutes(1)));
+        UsuarioAutenticado atualizadoDepois = new UsuarioAutenticado(id, "testUser", "senha", SecurityVersions.versao(emissao.plusMinutes(1)));
+        
+        assertTrue(this.jwtService.isTokenValid(claims, atualizadoAntes));
+        assertFalse(this.jwtService.isTokenValid(claims, atualizadoDepois));
+    }
+
+    @Test
+    public void testeTokenEmitidoLogoAposAAtualizacaoDoUsuarioEhValido() {
+        ReflectionTestUtils.setField(this.jwtService, "jwtExpiration", 60000L);
+        AuthenticationRequestDTO requestDTO = AuthenticationRequestDTO.builder().username("testUser").build();
+        Claims claims = this.jwtService.extractClaims(this.jwtService.generateToken(new HashMap<>(), requestDTO));
+        long emissao = claims.get(JwtService.CLAIM_EMISSAO, Long.class);
+        UUID id = UUID.randomUUID();
+        
+        // Usuário atualizado um milissegundo antes e no mesmo milissegundo da emissão do token
+        LocalDateTime antes = LocalDateTime.ofInstant(Instant.ofEpochMilli(emissao - 1), ZoneId.systemDefault());
+        LocalDateTime mesmoInstante = LocalDateTime.ofInstant(Instant.ofEpochMilli(emissao), ZoneId.systemDefault());
+        UsuarioAutenticado atualizadoAntes = new UsuarioAutenticado(id, "testUser", "senha", SecurityVersions.versao(antes));
+        UsuarioAutenticado atualizadoNoMesmoInstante = new UsuarioAutenticado(id, "testUser", "senha", SecurityVersions.versao(mesmoInstante));
+        
+        assertTrue(this.jwtService.isTokenValid(claims, atualizadoAntes));
+        assertFalse(this.jwtService.isTokenValid(claims, atualizadoNoMesmoInstante));
+    }
+
 }
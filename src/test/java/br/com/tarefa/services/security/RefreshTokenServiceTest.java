@@ -0,0 +1,134 @@
+package br.com.tarefa.services.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.tarefa.config.cache.RevokedTokens;
+import br.com.tarefa.config.security.SecurityVersions;
+import br.com.tarefa.config.security.UsuarioAutenticado;
+import br.com.tarefa.dtos.security.AuthenticationRequestDTO;
+import br.com.tarefa.dtos.security.AuthenticationTokenDTO;
+import br.com.tarefa.exceptions.RefreshTokenException;
+
+class RefreshTokenServiceTest {
+
+	private static final String SECRET_KEY = "75466fd1abd38bd94ead07c70c7fc49e2d6e66d117656e29b9b9edf856ef4a24";
+	private static final String USUARIO = "testUser";
+
+	@Mock private SecurityVersions securityVersions;
+	@Mock private CustomUserDetailsService userDetailsService;
+
+	private ConcurrentMapCacheManager cacheManager;
+	private JwtService jwtService;
+	private RefreshTokenService refreshTokenService;
+
+	@BeforeEach
+	void initMocks() {
+		MockitoAnnotations.openMocks(this);
+		this.cacheManager = new ConcurrentMapCacheManager("blacklistedTokens", RefreshTokenService.CACHE_REFRESH_TOKENS_USADOS,
+				RefreshTokenService.CACHE_REFRESH_FAMILIAS_REVOGADAS);
+		this.jwtService = new JwtService(this.cacheManager, new RevokedTokens(null, null, null, null), SECRET_KEY);
+		ReflectionTestUtils.setField(this.jwtService, "jwtExpiration", 60000L);
+		ReflectionTestUtils.setField(this.jwtService, "refreshExpiration", 120000L);
+		this.refreshTokenService = new RefreshTokenService(this.jwtService, this.cacheManager, this.securityVersions,
+				this.userDetailsService);
+
+		// Mockando o usuário carregado a partir do subject do refresh token
+		when(this.userDetailsService.loadUserByUsername(USUARIO))
+				.thenReturn(User.withUsername(USUARIO).password("123456789").authorities("USER").build());
+	}
+
+	@Test
+	void testeRenovarGeraNovoParDeTokens() {
+		AuthenticationTokenDTO login = this.createInstanceLogin();
+
+		AuthenticationTokenDTO renovado = this.refreshTokenService.renovar(login.getRefreshToken());
+
+		assertNotNull(renovado.getAccessToken());
+		assertNotEquals(login.getRefreshToken(), renovado.getRefreshToken());
+		assertEquals(USUARIO, this.jwtService.extractUsername(renovado.getAccessToken()));
+		assertEquals(this.familia(login.getRefreshToken()), this.familia(renovado.getRefreshToken()));
+	}
+
+	@Test
+	void testeReutilizarRefreshTokenRevogaAFamilia() {
+		AuthenticationTokenDTO login = this.createInstanceLogin();
+		AuthenticationTokenDTO renovado = this.refreshTokenService.renovar(login.getRefreshToken());
+
+		assertThrows(RefreshTokenException.class, () -> this.refreshTokenService.renovar(login.getRefreshToken()));
+
+		// O refresh token obtido na rotação também deixa de ser aceito
+		assertThrows(RefreshTokenException.class, () -> this.refreshTokenService.renovar(renovado.getRefreshToken()));
+	}
+
+	@Test
+	void testeLogoutRevogaAFamiliaDaSessao() {
+		AuthenticationTokenDTO login = this.createInstanceLogin();
+		AuthenticationTokenDTO outraSessao = this.createInstanceLogin();
+
+		this.refreshTokenService.revogarFamilia(login.getAccessToken());
+
+		RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+				() -> this.refreshTokenService.renovar(login.getRefreshToken()));
+		assertEquals("O refresh token informado foi revogado", exception.getMessage());
+		assertNotNull(this.refreshTokenService.renovar(outraSessao.getRefreshToken()).getAccessToken());
+	}
+
+	@Test
+	void testeAccessTokenNaoRenovaOsTokens() {
+		AuthenticationTokenDTO login = this.createInstanceLogin();
+
+		assertThrows(RefreshTokenException.class, () -> this.refreshTokenService.renovar(login.getAccessToken()));
+		verify(this.userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void testeUsuarioExcluidoNaoRenovaOsTokens() {
+		AuthenticationTokenDTO login = this.createInstanceLogin();
+
+		// Mockando o usuário excluído após o login
+		when(this.userDetailsService.loadUserByUsername(USUARIO)).thenThrow(new UsernameNotFoundException("Usuário não encontrado"));
+
+		assertThrows(RefreshTokenException.class, () -> this.refreshTokenService.renovar(login.getRefreshToken()));
+	}
+
+	@Test
+	void testeVersaoDeSegurancaDesatualizadaNaoRenovaOsTokens() {
+		UsuarioAutenticado usuario = new UsuarioAutenticado(UUID.randomUUID(), USUARIO, "senha", 1000L);
+		ReflectionTestUtils.setField(this.jwtService, "claimsAuthentication", true);
+		AuthenticationTokenDTO login = this.jwtService.generateToken(AuthenticationRequestDTO.builder().username(USUARIO).build(), usuario);
+
+		// Mockando a alteração das credenciais do usuário após o login
+		when(this.securityVersions.isVersaoAtual(usuario.getId(), 1000L)).thenReturn(false);
+
+		assertThrows(RefreshTokenException.class, () -> this.refreshTokenService.renovar(login.getRefreshToken()));
+		verify(this.userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	private AuthenticationTokenDTO createInstanceLogin() {
+		return this.jwtService.generateToken(AuthenticationRequestDTO.builder().username(USUARIO).build(),
+				User.withUsername(USUARIO).password("123456789").authorities("USER").build());
+	}
+
+	private String familia(String refreshToken) {
+		return this.jwtService.extractClaims(refreshToken).get(JwtService.CLAIM_FAMILIA, String.class);
+	}
+
+}
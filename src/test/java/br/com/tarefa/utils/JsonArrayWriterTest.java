@@ -0,0 +1,105 @@
+package br.com.tarefa.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import br.com.tarefa.dtos.TarefaDTO;
+import br.com.tarefa.entities.enums.StatusTarefa;
+
+class JsonArrayWriterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	void testeJsonIgualAoDaListaCompleta() throws Exception {
+		List<TarefaDTO> tarefas = Arrays.asList(this.createInstanceTarefaDTO(), this.createInstanceTarefaDTO());
+
+		assertEquals(this.objectMapper.writeValueAsString(tarefas), this.escrever(tarefas));
+	}
+
+	@Test
+	void testeListaVaziaGeraArrayVazio() throws Exception {
+		assertEquals("[]", this.escrever(Collections.emptyList()));
+	}
+
+	@Test
+	void testeFalhaDuranteALeituraNaoFechaOArray() throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		TarefaDTO tarefa = this.createInstanceTarefaDTO();
+
+		assertThrows(IllegalStateException.class, () -> {
+			try (JsonArrayWriter<TarefaDTO> writer = new JsonArrayWriter<>(this.objectMapper, TarefaDTO.class, saida)) {
+				writer.escrever(tarefa);
+				throw new IllegalStateException("Falha na leitura das tarefas");
+			}
+		});
+
+		String json = new String(saida.toByteArray(), StandardCharsets.UTF_8);
+		assertEquals("[" + this.objectMapper.writeValueAsString(tarefa), json);
+		assertThrows(JsonProcessingException.class, () -> this.objectMapper.readTree(json));
+	}
+
+	@Test
+	void testeFalhaDuranteAEscritaNaoFechaOElementoIncompleto() throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		TarefaDTO tarefa = this.createInstanceTarefaDTO();
+
+		// Mockando um elemento que falha na serialização após o início do objeto
+		TarefaDTO invalida = new TarefaDTO(UUID.randomUUID(), "Título", "Descrição", null, null, StatusTarefa.PENDENTE, null) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public String getTitulo() {
+				throw new IllegalStateException("Falha na serialização da tarefa");
+			}
+		};
+
+		assertThrows(RuntimeException.class, () -> {
+			try (JsonArrayWriter<TarefaDTO> writer = new JsonArrayWriter<>(this.objectMapper, TarefaDTO.class, saida)) {
+				writer.escrever(tarefa);
+				writer.escrever(invalida);
+				writer.concluir();
+			}
+		});
+
+		String json = new String(saida.toByteArray(), StandardCharsets.UTF_8);
+		assertFalse(json.endsWith("}]"));
+		assertFalse(json.endsWith("}"));
+		assertThrows(JsonProcessingException.class, () -> this.objectMapper.readTree(json));
+	}
+
+	private String escrever(List<TarefaDTO> tarefas) throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		try (JsonArrayWriter<TarefaDTO> writer = new JsonArrayWriter<>(this.objectMapper, TarefaDTO.class, saida)) {
+			tarefas.forEach(writer::escrever);
+			writer.concluir();
+		}
+		return new String(saida.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private TarefaDTO createInstanceTarefaDTO() {
+		UUID id = UUID.randomUUID();
+		LocalDateTime dataAtual = LocalDateTime.now();
+		return new TarefaDTO(id, "Título", "Descrição", dataAtual, dataAtual, StatusTarefa.PENDENTE, UUID.randomUUID())
+				.add(Link.of("http://localhost/api/v1/tarefas/" + id));
+	}
+
+}
@@ -0,0 +1,84 @@
+package br.com.tarefa.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import br.com.tarefa.controllers.TarefaController;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+class TarefaLinksTest {
+
+	@BeforeEach
+	void init() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tarefas");
+		request.setContextPath("/api");
+		request.setServletPath("/v1/tarefas");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void cleanup() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void testeLinkIgualAoGeradoPeloMethodOn() {
+		UUID id = UUID.randomUUID();
+
+		Link esperado = linkTo(methodOn(TarefaController.class).buscarPeloId(id)).withSelfRel();
+
+		Link link = TarefaLinks.self().apply(id);
+
+		assertEquals(esperado.getHref(), link.getHref());
+		assertEquals(esperado.getRel(), link.getRel());
+	}
+
+	/**
+	 * Compara o custo por tarefa com o {@code linkTo(methodOn(...))}. Executado apenas com '-Dbenchmark=true'.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkCustoPorTarefa() {
+		int tarefas = Integer.getInteger("benchmark.iteracoes", 10_000);
+		UUID id = UUID.randomUUID();
+
+		// Aquecimento para que os dois caminhos sejam compilados pelo JIT antes da medição
+		for (int i = 0; i < 5; i++) {
+			this.medirMethodOn(id, tarefas);
+			this.medirTemplate(id, tarefas);
+		}
+
+		log.info("linkTo(methodOn(...)): {} ns por tarefa em {} tarefas", this.medirMethodOn(id, tarefas) / tarefas, tarefas);
+		log.info("TarefaLinks.self(): {} ns por tarefa em {} tarefas", this.medirTemplate(id, tarefas) / tarefas, tarefas);
+	}
+
+	private long medirMethodOn(UUID id, int tarefas) {
+		long inicio = System.nanoTime();
+		for (int i = 0; i < tarefas; i++)
+			linkTo(methodOn(TarefaController.class).buscarPeloId(id)).withSelfRel();
+		return System.nanoTime() - inicio;
+	}
+
+	private long medirTemplate(UUID id, int tarefas) {
+		long inicio = System.nanoTime();
+		Function<UUID, Link> self = TarefaLinks.self();
+		for (int i = 0; i < tarefas; i++)
+			self.apply(id);
+		return System.nanoTime() - inicio;
+	}
+
+}